@@ -0,0 +1,63 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.controller;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import se.digg.wallet.provider.api.v0.model.ProblemResponse;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Cost of rendering a problem response body, built and serialized with Jackson against rendered
+ * from a {@link ProblemTemplate}. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="ProblemResponseBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProblemResponseBenchmark {
+
+  private static final String DETAIL = "jwk crv must be P-256";
+  private static final String INSTANCE = "/wallet-unit-attestation";
+
+  private ObjectMapper objectMapper;
+  private ProblemTemplate template;
+
+  @Setup
+  public void setUp() {
+    objectMapper = new ObjectMapper();
+    template = ProblemTemplate.of(ProblemType.REQUEST_VALIDATION_FAILURE);
+  }
+
+  @Benchmark
+  public byte[] jackson() {
+    ProblemType problemType = ProblemType.REQUEST_VALIDATION_FAILURE;
+    return objectMapper.writeValueAsBytes(ProblemResponse.builder()
+        .type(URI.create(problemType.getUri().toASCIIString()))
+        .title(problemType.getTitle())
+        .status(problemType.getHttpStatus().value())
+        .detail(DETAIL)
+        .instance(URI.create(INSTANCE))
+        .build());
+  }
+
+  @Benchmark
+  public byte[] template() {
+    return template.render(DETAIL, INSTANCE);
+  }
+}
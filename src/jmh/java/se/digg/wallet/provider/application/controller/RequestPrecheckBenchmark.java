@@ -0,0 +1,90 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.controller;
+
+import com.nimbusds.jose.jwk.ECKey;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+import se.digg.wallet.provider.api.v0.model.WalletUnitAttestationRequest;
+import se.digg.wallet.provider.application.config.WuaRequestLimitsProperties;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Cost of accepting or rejecting an attestation request body, from JSON to a parsed JWK or a
+ * rejection. {@code precheck} rejects before the JWK is parsed, {@code parseOnly} is the path
+ * without the precheck, where a bad JWK is only rejected by the parser. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="RequestPrecheckBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestPrecheckBenchmark {
+
+  private static final String VALID_JWK = "{\"kty\":\"EC\",\"crv\":\"P-256\","
+      + "\"x\":\"18wHLeIgW9wVN6VD1Txgpqy2LszYkMf6J8njVAibvhM\","
+      + "\"y\":\"-V4dS4UaLMgP_4fY4j8ir7cl1TXlFdAgcx55o7TkcSA\"}";
+
+  @Param({"valid", "wrong-curve", "short-coordinate", "not-json"})
+  public String request;
+
+  private ObjectMapper objectMapper;
+  private AttestationRequestPrecheck precheck;
+  private byte[] body;
+
+  @Setup
+  public void setUp() {
+    objectMapper = new ObjectMapper();
+    precheck = new AttestationRequestPrecheck(
+        new WuaRequestLimitsProperties(DataSize.ofKilobytes(16),
+            DataSize.ofMegabytes(4), DataSize.ofMegabytes(64), 2048, 255));
+    String jwk = switch (request) {
+      case "valid" -> VALID_JWK;
+      case "wrong-curve" -> VALID_JWK.replace("P-256", "P-384");
+      case "short-coordinate" -> VALID_JWK.replace("18wHLeIgW9", "18wH");
+      default -> "kty=EC;crv=P-256";
+    };
+    body = objectMapper.writeValueAsBytes(
+        WalletUnitAttestationRequest.builder().jwk(jwk).nonce("1234567890").build());
+  }
+
+  @Benchmark
+  public Object precheck() {
+    WalletUnitAttestationRequest parsed = read();
+    String problem = precheck.problem(parsed.getJwk(), parsed.getNonce().orElse(null));
+    return problem != null ? problem : parseJwk(parsed.getJwk());
+  }
+
+  @Benchmark
+  public Object parseOnly() {
+    return parseJwk(read().getJwk());
+  }
+
+  private WalletUnitAttestationRequest read() {
+    return objectMapper.readValue(body, WalletUnitAttestationRequest.class);
+  }
+
+  private static Object parseJwk(String jwk) {
+    try {
+      return ECKey.parse(jwk);
+    } catch (ParseException e) {
+      return e;
+    }
+  }
+}
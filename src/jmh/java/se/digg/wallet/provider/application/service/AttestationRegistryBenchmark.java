@@ -0,0 +1,119 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import se.digg.wallet.provider.application.config.WuaRegistryProperties;
+
+/**
+ * The registry of issued attestations in an H2 database file holding {@code rows} attestations,
+ * one per key: looking up the valid status indices of a key by its thumbprint, an attestation by
+ * its {@code jti}, and registering attestations back to back, which outpaces the writer and so
+ * measures its throughput. The rows are registered at setup, through the writer. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="AttestationRegistryBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttestationRegistryBenchmark {
+
+  // Looked up at random, the rest of the keys are only there to fill the table
+  private static final int SAMPLES = 65_536;
+  private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+  @Param({"1000000", "20000000"})
+  private int rows;
+
+  private Path directory;
+  private JdbcConnectionPool dataSource;
+  private AttestationRegistry registry;
+  private String[] thumbprints;
+  private UUID[] jtis;
+  private Instant issuedAt;
+  private SplittableRandom random;
+
+  @Setup
+  public void setUp() throws Exception {
+    directory = Files.createTempDirectory("wua-registry-benchmark");
+    dataSource = JdbcConnectionPool.create(
+        "jdbc:h2:file:" + directory.resolve("attestations").toAbsolutePath(), "sa", "");
+    registry = new AttestationRegistry(dataSource, new WuaRegistryProperties(true, 65_536),
+        new SimpleMeterRegistry());
+    issuedAt = Instant.now();
+    random = new SplittableRandom(1);
+    thumbprints = new String[SAMPLES];
+    jtis = new UUID[SAMPLES];
+    int sampleEvery = Math.max(1, rows / SAMPLES);
+    byte[] digest = new byte[32];
+    for (int i = 0; i < rows; i++) {
+      random.nextBytes(digest);
+      IssuedAttestation attestation = attestation(BASE64URL.encodeToString(digest), i);
+      if (i % sampleEvery == 0 && i / sampleEvery < SAMPLES) {
+        thumbprints[i / sampleEvery] = attestation.keyThumbprint();
+        jtis[i / sampleEvery] = attestation.jti();
+      }
+      registry.register(attestation);
+    }
+    // Waits for the writer to register the rows, then starts over without a backlog
+    registry.destroy();
+    registry = new AttestationRegistry(dataSource, new WuaRegistryProperties(true, 65_536),
+        new SimpleMeterRegistry());
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    registry.destroy();
+    dataSource.dispose();
+    FileSystemUtils.deleteRecursively(directory);
+  }
+
+  @Benchmark
+  public Map<String, List<Long>> lookupByThumbprint() {
+    return registry.statusIndices(Set.of(thumbprints[random.nextInt(SAMPLES)]), issuedAt);
+  }
+
+  @Benchmark
+  public Optional<IssuedAttestation> findByJti() {
+    return registry.find(jtis[random.nextInt(SAMPLES)]);
+  }
+
+  @Benchmark
+  public void register() {
+    registry.register(attestation("benchmark", random.nextInt(1 << 24)));
+  }
+
+  private IssuedAttestation attestation(String thumbprint, long statusIndex) {
+    return new IssuedAttestation(UUID.randomUUID(), thumbprint, issuedAt,
+        issuedAt.plusSeconds(24 * 3600L), statusIndex);
+  }
+}
@@ -0,0 +1,61 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.util.Base64URL;
+import java.security.Security;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ES256 signatures per second on one thread, with a new {@code ECDSASigner} per token versus the
+ * reused {@link Es256Signer}, for each JCA provider. Other installed providers can be compared with
+ * {@code -Djmh.args="Es256SignerBenchmark -p signatureProvider=SunEC,<name>"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Es256SignerBenchmark {
+
+  @Param({"SunEC"})
+  public String signatureProvider;
+
+  private WuaSigningContext signingContext;
+  private byte[] signingInput;
+
+  @Setup
+  public void setUp() {
+    signingContext = WuaSigningContext.load(
+        WalletUnitAttestationBenchmark.developmentKeystore(signatureProvider));
+    signingInput = signingContext.signingInput("eyJpYXQiOjE3NjAwMDAwMDB9");
+  }
+
+  @Benchmark
+  public Base64URL newSignerPerToken() throws JOSEException {
+    ECDSASigner signer = new ECDSASigner(signingContext.signingKey());
+    signer.getJCAContext().setProvider(Security.getProvider(signatureProvider));
+    return signer.sign(signingContext.header(), signingInput);
+  }
+
+  @Benchmark
+  public Base64URL reusedSigner() throws JOSEException {
+    return signingContext.signer().sign(signingContext.header(), signingInput);
+  }
+}
@@ -0,0 +1,75 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import se.digg.wallet.provider.application.config.WuaNonceProperties;
+
+/**
+ * Issuing and redeeming a nonce with as many threads as available cores, against a store already
+ * holding {@code live} nonces: the {@link NonceStore} against a {@link ConcurrentHashMap} of
+ * UUIDs to expiry, the obvious alternative. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="NonceStoreBenchmark -prof gc"} to compare
+ * the allocation as well.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class NonceStoreBenchmark {
+
+  private static final Duration TTL = Duration.ofMinutes(5);
+
+  @Param({"100000", "1000000"})
+  private int live;
+
+  private NonceStore nonceStore;
+  private Map<String, Long> map;
+
+  @Setup
+  public void setUp() {
+    nonceStore = new NonceStore(new WuaNonceProperties(true, TTL, live * 2),
+        new SimpleMeterRegistry());
+    map = new ConcurrentHashMap<>(live * 2);
+    long expiry = System.currentTimeMillis() + TTL.toMillis();
+    for (int i = 0; i < live; i++) {
+      nonceStore.issue();
+      map.put(UUID.randomUUID().toString(), expiry);
+    }
+  }
+
+  @Benchmark
+  public boolean nonceStore() {
+    return nonceStore.redeem(nonceStore.issue());
+  }
+
+  @Benchmark
+  public boolean concurrentHashMap() {
+    String nonce = UUID.randomUUID().toString();
+    map.put(nonce, System.currentTimeMillis() + TTL.toMillis());
+    Long expiry = map.remove(nonce);
+    return expiry != null && expiry >= System.currentTimeMillis();
+  }
+}
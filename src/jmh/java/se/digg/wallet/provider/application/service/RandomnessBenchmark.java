@@ -0,0 +1,87 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.util.Base64URL;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import se.digg.wallet.provider.application.config.TimeOrderedIds;
+
+/**
+ * Randomness under contention, with as many threads as available cores: log ids from
+ * {@link UUID#randomUUID()} against {@link TimeOrderedIds}, and ES256 signatures with the JCA
+ * default {@code SecureRandom} against the per-thread DRBG of {@link Es256Signer}. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="RandomnessBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class RandomnessBenchmark {
+
+  private WuaSigningContext signingContext;
+  private byte[] signingInput;
+
+  /**
+   * A signature initialized without a {@code SecureRandom}, as before the per-thread DRBG.
+   */
+  @State(Scope.Thread)
+  public static class DefaultRandomSignature {
+
+    private Signature signature;
+
+    @Setup
+    public void setUp(RandomnessBenchmark benchmark) throws GeneralSecurityException {
+      signature = Signature.getInstance("SHA256withECDSA");
+      signature.initSign(benchmark.signingContext.signingKey());
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    signingContext =
+        WuaSigningContext.load(WalletUnitAttestationBenchmark.developmentKeystore("SunEC"));
+    signingInput = signingContext.signingInput("eyJpYXQiOjE3NjAwMDAwMDB9");
+  }
+
+  @Benchmark
+  public String randomUuid() {
+    return UUID.randomUUID().toString();
+  }
+
+  @Benchmark
+  public String timeOrderedId() {
+    return TimeOrderedIds.next();
+  }
+
+  @Benchmark
+  public byte[] signWithDefaultRandom(DefaultRandomSignature state)
+      throws GeneralSecurityException {
+    state.signature.update(signingInput);
+    return state.signature.sign();
+  }
+
+  @Benchmark
+  public Base64URL signWithThreadDrbg() throws JOSEException {
+    return signingContext.signer().sign(signingContext.header(), signingInput);
+  }
+}
@@ -0,0 +1,98 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import se.digg.wallet.provider.application.config.WuaStatusListProperties;
+
+/**
+ * Revoking a wave of {@code wave} random indices of a status list of 2^24 indices at once: marking
+ * them and forcing the list to disk, and that followed by publishing the signed list. Each
+ * iteration starts from a list without invalid indices. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="RevocationBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RevocationBenchmark {
+
+  private static final int SIZE = 1 << 24;
+
+  @Param({"100000", "1000000"})
+  private int wave;
+
+  private WuaSigningContextProvider signingContextProvider;
+  private long[] indices;
+  private Path directory;
+  private StatusList statusList;
+  private StatusListPublisher publisher;
+
+  @Setup
+  public void setUp() {
+    signingContextProvider =
+        new WuaSigningContextProvider(WalletUnitAttestationBenchmark.developmentKeystore());
+    SplittableRandom random = new SplittableRandom(1);
+    indices = new long[wave];
+    for (int i = 0; i < wave; i++) {
+      indices[i] = random.nextInt(SIZE);
+    }
+  }
+
+  @Setup(Level.Iteration)
+  public void setUpIteration() throws IOException {
+    directory = Files.createTempDirectory("wua-revocation-benchmark");
+    WuaStatusListProperties properties = new WuaStatusListProperties(SIZE, null,
+        directory.resolve("status.bitmap"), Duration.ofMinutes(1), Duration.ofHours(24));
+    statusList = new StatusList(properties);
+    publisher = new StatusListPublisher(statusList, properties, signingContextProvider,
+        new InProcessSigningBackend(), "https://wallet-provider.example/status-list",
+        Clock.systemUTC(), Runnable::run);
+    publisher.current();
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDownIteration() throws IOException {
+    statusList.destroy();
+    FileSystemUtils.deleteRecursively(directory);
+  }
+
+  @Benchmark
+  public long revoke() {
+    long revoked = statusList.invalidate(indices);
+    statusList.force();
+    return revoked;
+  }
+
+  @Benchmark
+  public StatusListToken revokeAndPublish() {
+    statusList.invalidate(indices);
+    statusList.force();
+    publisher.requestRefresh();
+    return publisher.current();
+  }
+}
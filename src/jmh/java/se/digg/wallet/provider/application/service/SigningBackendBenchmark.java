@@ -0,0 +1,81 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.util.Base64URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import se.digg.wallet.provider.application.config.WuaSigningProperties;
+import se.digg.wallet.provider.application.config.WuaSigningProperties.Backend;
+
+/**
+ * Isolation overhead of signing through the local signer daemon, here the stand-in
+ * {@link LocalSignerDaemon}, compared with signing in-process. Run with more threads, e.g.
+ * {@code -Djmh.args="SigningBackendBenchmark -t 8"}, to include pipelining over the connections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningBackendBenchmark {
+
+  @Param({"IN_PROCESS", "UNIX_SOCKET"})
+  public Backend backend;
+
+  private Path socketDirectory;
+  private LocalSignerDaemon daemon;
+  private SigningBackend signingBackend;
+  private WuaSigningContext signingContext;
+  private byte[] signingInput;
+
+  @Setup
+  public void setUp() throws Exception {
+    signingContext =
+        WuaSigningContext.load(WalletUnitAttestationBenchmark.developmentKeystore());
+    signingInput = signingContext.signingInput("eyJpYXQiOjE3NjAwMDAwMDB9");
+    if (backend == Backend.IN_PROCESS) {
+      signingBackend = new InProcessSigningBackend();
+      return;
+    }
+    socketDirectory = Files.createTempDirectory("wua-signer");
+    Path socketPath = socketDirectory.resolve("signer.sock");
+    daemon = LocalSignerDaemon.start(socketPath,
+        Map.of(signingContext.alias(), signingContext.signingKey()));
+    signingBackend = new UnixSocketSigningBackend(
+        new WuaSigningProperties(1, 16, backend, socketPath, 2, Duration.ofSeconds(5)));
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    if (signingBackend instanceof UnixSocketSigningBackend unixSocketBackend) {
+      unixSocketBackend.destroy();
+      daemon.close();
+      Files.deleteIfExists(socketDirectory);
+    }
+  }
+
+  @Benchmark
+  public Base64URL sign() throws JOSEException {
+    return signingBackend.sign(signingContext, signingInput);
+  }
+}
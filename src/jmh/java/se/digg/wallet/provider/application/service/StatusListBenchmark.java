@@ -0,0 +1,96 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import se.digg.wallet.provider.application.config.WuaStatusListProperties;
+
+/**
+ * Compressing a status list of 2^24 indices, {@code invalid} per million of them set, after one
+ * index has changed: the {@link StatusList}, which compresses the changed segment only, against
+ * compressing the whole list as one stream. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="StatusListBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatusListBenchmark {
+
+  private static final int SIZE = 1 << 24;
+
+  @Param({"0", "1000"})
+  private int invalid;
+
+  private Path directory;
+  private StatusList statusList;
+  private byte[] bits;
+  private SplittableRandom random;
+  private Deflater deflater;
+  private byte[] output;
+
+  @Setup
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("wua-status-list-benchmark");
+    statusList = new StatusList(new WuaStatusListProperties(SIZE, null,
+        directory.resolve("status.bitmap"), Duration.ofMinutes(1), Duration.ofHours(24)));
+    bits = new byte[SIZE / Byte.SIZE];
+    random = new SplittableRandom(1);
+    for (long i = 0; i < (long) SIZE * invalid / 1_000_000; i++) {
+      invalidate(random.nextInt(SIZE));
+    }
+    statusList.compress();
+    deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    output = new byte[bits.length + 1024];
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    statusList.destroy();
+    deflater.end();
+    FileSystemUtils.deleteRecursively(directory);
+  }
+
+  @Benchmark
+  public byte[] segmented() {
+    invalidate(random.nextInt(SIZE));
+    return statusList.compress();
+  }
+
+  @Benchmark
+  public int whole() {
+    invalidate(random.nextInt(SIZE));
+    deflater.reset();
+    deflater.setInput(bits);
+    deflater.finish();
+    return deflater.deflate(output);
+  }
+
+  private void invalidate(int index) {
+    statusList.invalidate(new long[] {index});
+    bits[index >>> 3] |= (byte) (1 << (index & 7));
+  }
+}
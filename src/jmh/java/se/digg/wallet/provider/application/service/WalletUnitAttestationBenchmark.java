@@ -0,0 +1,245 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import se.digg.wallet.provider.application.config.WuaAttestedKeyCacheProperties;
+import se.digg.wallet.provider.application.config.WuaAuditProperties;
+import se.digg.wallet.provider.application.config.WuaIdempotencyProperties;
+import se.digg.wallet.provider.application.config.WuaKeystoreProperties;
+import se.digg.wallet.provider.application.config.WuaNonceProperties;
+import se.digg.wallet.provider.application.config.WuaRegistryProperties;
+import se.digg.wallet.provider.application.config.WuaSigningProperties;
+import se.digg.wallet.provider.application.config.WuaSigningProperties.Backend;
+import se.digg.wallet.provider.application.config.WuaStatusListProperties;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Cost of WUA issuance, in full and per phase, against the development keystore. Run with
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="WalletUnitAttestationBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalletUnitAttestationBenchmark {
+
+  static final String STATUS =
+      "{\"status_list\": {\"idx\": 412,\"uri\": \"https://revocation_url/statuslists/1\"}}";
+
+  private WuaKeystoreProperties keystoreProperties;
+  private WuaSigningContextProvider signingContextProvider;
+  private AttestationSigningExecutor signingExecutor;
+  private WalletUnitAttestationService service;
+  private AttestedKeyCache attestedKeyCache;
+  private Path auditDirectory;
+  private AuditLog auditLog;
+  private StatusList statusList;
+  private JdbcConnectionPool registryDataSource;
+  private AttestationRegistry attestationRegistry;
+  private StatusIndexAllocator statusIndexAllocator;
+  private final AtomicLong allocatorSeconds = new AtomicLong(Instant.now().getEpochSecond());
+  private AuditRecord auditRecord;
+  private ObjectMapper objectMapper;
+  private WuaClaimsTemplate claimsTemplate;
+  private String walletPublicKeyJwk;
+  private String attestedKeyJson;
+  private byte[] signingInput;
+  private SignedAttestation attestation;
+
+  @Setup
+  public void setUp() throws Exception {
+    keystoreProperties = developmentKeystore();
+    signingContextProvider = new WuaSigningContextProvider(keystoreProperties);
+    signingExecutor = new AttestationSigningExecutor(
+        new WuaSigningProperties(1, 4096, Backend.IN_PROCESS, null, 2, Duration.ofSeconds(2)),
+        new SimpleMeterRegistry());
+    objectMapper = new ObjectMapper();
+    attestedKeyCache = new AttestedKeyCache(
+        new WuaAttestedKeyCacheProperties(10_000, Duration.ofHours(24)), new SimpleMeterRegistry());
+    auditDirectory = Files.createTempDirectory("wua-audit-benchmark");
+    auditLog = new AuditLog(new WuaAuditProperties(true, auditDirectory, DataSize.ofMegabytes(64),
+        65_536, Duration.ofSeconds(1)), new SimpleMeterRegistry());
+    WuaStatusListProperties statusListProperties = new WuaStatusListProperties(1 << 24,
+        auditDirectory.resolve("allocation.bitmap"), auditDirectory.resolve("status.bitmap"),
+        Duration.ofMinutes(1), Duration.ofHours(24));
+    statusList = new StatusList(statusListProperties);
+    statusIndexAllocator = new StatusIndexAllocator(statusListProperties, statusList,
+        new SimpleMeterRegistry(), allocatorSeconds::get);
+    registryDataSource = JdbcConnectionPool.create(
+        "jdbc:h2:file:" + auditDirectory.resolve("registry").toAbsolutePath(), "sa", "");
+    attestationRegistry = new AttestationRegistry(registryDataSource,
+        new WuaRegistryProperties(true, 65_536), new SimpleMeterRegistry());
+    service = new WalletUnitAttestationService(keystoreProperties, signingContextProvider,
+        signingExecutor, new InProcessSigningBackend(),
+        new WuaIssuanceMetrics(new SimpleMeterRegistry()), attestedKeyCache,
+        new IdempotentIssuanceCache(
+            new WuaIdempotencyProperties(false, 10_000, Duration.ofSeconds(30)),
+            new SimpleMeterRegistry()),
+        new NonceStore(new WuaNonceProperties(false, Duration.ofMinutes(5), 1),
+            new SimpleMeterRegistry()),
+        statusIndexAllocator, auditLog, attestationRegistry, objectMapper);
+    claimsTemplate = new WuaClaimsTemplate(parseStatus());
+
+    walletPublicKeyJwk = walletKey().toJSONString();
+    attestedKeyJson = JSONObjectUtils.toJSONString(ECKey.parse(walletPublicKeyJwk).toJSONObject());
+    attestation = service.createWalletUnitAttestation(walletPublicKeyJwk, "1234567890");
+    signingInput = signingContextProvider.current().signingInput(attestation.claims().toString());
+    Instant now = Instant.now();
+    auditRecord = new AuditRecord(now, now.plus(Duration.ofHours(24)),
+        attestedKeyCache.get(walletPublicKeyJwk).thumbprint(), "benchmark", 412);
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    signingExecutor.destroy();
+    auditLog.destroy();
+    statusIndexAllocator.destroy();
+    statusList.destroy();
+    attestationRegistry.destroy();
+    registryDataSource.dispose();
+    FileSystemUtils.deleteRecursively(auditDirectory);
+  }
+
+  @Benchmark
+  public SignedAttestation createWalletUnitAttestation() {
+    return service.createWalletUnitAttestation(walletPublicKeyJwk, "1234567890");
+  }
+
+  @Benchmark
+  public String jwkParse() throws ParseException {
+    return JSONObjectUtils.toJSONString(ECKey.parse(walletPublicKeyJwk).toJSONObject());
+  }
+
+  @Benchmark
+  public AttestedKey jwkCacheHit() throws ParseException {
+    return attestedKeyCache.get(walletPublicKeyJwk);
+  }
+
+  @Benchmark
+  public WuaSigningContext keystoreLoad() {
+    return WuaSigningContext.load(keystoreProperties);
+  }
+
+  @Benchmark
+  public WuaSigningContext keystoreAccess() {
+    return signingContextProvider.current();
+  }
+
+  @Benchmark
+  public Map<String, Object> statusParse() {
+    return parseStatus();
+  }
+
+  @Benchmark
+  public Base64URL claimsBuild() {
+    Instant now = Instant.now();
+    return claimsTemplate.encode(now.getEpochSecond(),
+        now.plus(Duration.ofHours(24)).getEpochSecond(), UUID.randomUUID().toString(),
+        now.getEpochSecond() + 365 * 24 * 3600L, 412, attestedKeyJson, "1234567890");
+  }
+
+  /**
+   * Audit records appended back to back. Appending outpaces the writer, so this measures the
+   * writer's throughput once the buffer is full; at issuance rates an append only claims a slot.
+   */
+  @Benchmark
+  public void auditAppend() {
+    auditLog.append(auditRecord);
+  }
+
+  /**
+   * Status index allocation, on a clock that advances a second per index, so that chunks expire and
+   * are reclaimed rather than the pool running out in the first seconds.
+   */
+  @Benchmark
+  public long statusIndexAllocate() {
+    return statusIndexAllocator.allocate(allocatorSeconds.incrementAndGet() + 60);
+  }
+
+  @Benchmark
+  public Base64URL sign() throws JOSEException {
+    WuaSigningContext signingContext = signingContextProvider.current();
+    return signingContext.signer().sign(signingContext.header(), signingInput);
+  }
+
+  @Benchmark
+  public String serialize() {
+    return attestation.serialize();
+  }
+
+  /**
+   * The response body as the String message converter produced it.
+   */
+  @Benchmark
+  public byte[] serializeToBytes() {
+    return attestation.serialize().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * The response body as the controller assembles it, into an array of its exact length.
+   */
+  @Benchmark
+  public byte[] writeTo() {
+    byte[] body = new byte[attestation.length()];
+    attestation.writeTo(body);
+    return body;
+  }
+
+  static WuaKeystoreProperties developmentKeystore() {
+    return developmentKeystore(null);
+  }
+
+  static WuaKeystoreProperties developmentKeystore(String signatureProvider) {
+    return new WuaKeystoreProperties(new ClassPathResource("certificates/wallet-provider.p12"),
+        "secret", "wallet-provider", "PKCS12", STATUS, 24, Duration.ofSeconds(30),
+        signatureProvider, null);
+  }
+
+  static ECKey walletKey() throws Exception {
+    KeyPairGenerator gen = KeyPairGenerator.getInstance("EC");
+    gen.initialize(Curve.P_256.toECParameterSpec());
+    return new ECKey.Builder(Curve.P_256, (ECPublicKey) gen.generateKeyPair().getPublic()).build();
+  }
+
+  private Map<String, Object> parseStatus() {
+    return objectMapper.readValue(STATUS, new TypeReference<>() {});
+  }
+}
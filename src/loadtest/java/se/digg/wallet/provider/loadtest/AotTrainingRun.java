@@ -0,0 +1,190 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.loadtest;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Training run for the JDK AOT cache of the container image. Starts the service with the given
+ * command, which is expected to record the cache when the JVM exits, e.g. with
+ * {@code -XX:AOTCacheOutput}. Once the service is ready it issues attestations, single and in
+ * batches, most against a nonce fetched first, and provokes the common rejections, so that the
+ * classes loaded and the methods profiled are those of serving requests rather than only of
+ * starting up. The service is then stopped.
+ * Depends on the JDK only, so that it runs on the runtime image.
+ *
+ * <p>Usage: {@code AotTrainingRun <base URL> <AOT cache file> -- <service command>}
+ */
+public final class AotTrainingRun {
+
+  private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+  private static final int REQUESTS = 500;
+  private static final int BATCHES = 20;
+  private static final int BATCH_SIZE = 10;
+  private static final String CLIENT_HEADER = "X-Training-Client";
+  private static final Pattern NONCE = Pattern.compile("\"nonce\"\\s*:\\s*\"([^\"]+)\"");
+
+  private final HttpClient client = HttpClient.newHttpClient();
+  private final String baseUri;
+  private final KeyPairGenerator keys;
+  private int requests;
+
+  private AotTrainingRun(String baseUri) throws GeneralSecurityException {
+    this.baseUri = baseUri.endsWith("/") ? baseUri.substring(0, baseUri.length() - 1) : baseUri;
+    this.keys = KeyPairGenerator.getInstance("EC");
+    keys.initialize(new ECGenParameterSpec("secp256r1"));
+  }
+
+  public static void main(String[] args) throws Exception {
+    int separator = Arrays.asList(args).indexOf("--");
+    if (separator != 2 || args.length == 3) {
+      System.err.println(
+          "Usage: AotTrainingRun <base URL> <AOT cache file> -- <service command>");
+      System.exit(2);
+    }
+    Path cache = Path.of(args[1]);
+    List<String> command = List.of(args).subList(3, args.length);
+    Process service = new ProcessBuilder(command).inheritIO().start();
+    try {
+      AotTrainingRun run = new AotTrainingRun(args[0]);
+      run.awaitReady(service);
+      run.train();
+    } finally {
+      // A normal shutdown, the JVM writes the cache on exit
+      service.destroy();
+      if (!service.waitFor(2, TimeUnit.MINUTES)) {
+        service.destroyForcibly();
+      }
+    }
+    if (!Files.isRegularFile(cache)) {
+      System.err.println("Service exited without writing " + cache);
+      System.exit(1);
+    }
+    System.out.printf("Wrote %s, %d bytes%n", cache, Files.size(cache));
+  }
+
+  private void awaitReady(Process service) throws IOException, InterruptedException {
+    HttpRequest readiness = HttpRequest.newBuilder(uri("/actuator/health/readiness"))
+        .timeout(Duration.ofSeconds(1))
+        .build();
+    long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      if (!service.isAlive()) {
+        throw new IOException("Service exited with " + service.exitValue());
+      }
+      try {
+        if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // Not listening yet
+      }
+      Thread.sleep(250);
+    }
+    throw new IOException("Service not ready within " + STARTUP_TIMEOUT);
+  }
+
+  private void train() throws IOException, InterruptedException {
+    for (int i = 0; i < REQUESTS; i++) {
+      String nonce = i % 10 == 0 ? null : nonce();
+      String member = nonce == null ? "" : ",\"nonce\":\"" + nonce + "\"";
+      expect(200, post("/wallet-unit-attestation", "{\"jwk\":" + jwk() + member + "}"));
+    }
+    for (int i = 0; i < BATCHES; i++) {
+      StringBuilder items = new StringBuilder();
+      for (int j = 0; j < BATCH_SIZE; j++) {
+        items.append(j == 0 ? "" : ",").append("{\"jwk\":").append(jwk()).append('}');
+      }
+      expect(200, post("/wallet-unit-attestation/batch", "{\"items\":[" + items + "]}"));
+    }
+    expect(400, post("/wallet-unit-attestation", "{\"jwk\":\"{\\\"kty\\\":\\\"RSA\\\"}\"}"));
+    expect(400, post("/wallet-unit-attestation", "{\"nonce\":\"no key\"}"));
+    expect(400, post("/wallet-unit-attestation", "{"));
+    // Rejected by the request limits, whether or not nonces are enforced
+    expect(400, post("/wallet-unit-attestation",
+        "{\"jwk\":" + jwk() + ",\"nonce\":\"" + "n".repeat(256) + "\"}"));
+    expect(200, get("/api-info"));
+    expect(200, get("/actuator/health"));
+    System.out.printf("Sent %d training requests%n", requests);
+  }
+
+  /** Fetches a nonce, without a JSON parser as the runtime image has none. */
+  private String nonce() throws IOException, InterruptedException {
+    HttpResponse<String> response = get("/nonce");
+    expect(200, response);
+    Matcher matcher = NONCE.matcher(response.body());
+    if (!matcher.find()) {
+      throw new IOException("No nonce in " + response.body());
+    }
+    return matcher.group(1);
+  }
+
+  private HttpResponse<String> post(String path, String body)
+      throws IOException, InterruptedException {
+    return send(HttpRequest.newBuilder(uri(path))
+        .header("Content-Type", "application/json")
+        // A client of its own per request, so that training is not rate limited
+        .header(CLIENT_HEADER, String.valueOf(requests))
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build());
+  }
+
+  private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+    return send(HttpRequest.newBuilder(uri(path))
+        .header(CLIENT_HEADER, String.valueOf(requests))
+        .build());
+  }
+
+  private HttpResponse<String> send(HttpRequest request)
+      throws IOException, InterruptedException {
+    requests++;
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static void expect(int status, HttpResponse<String> response) throws IOException {
+    if (response.statusCode() != status) {
+      throw new IOException("Expected " + status + " from " + response.request().uri() + ", got "
+          + response.statusCode() + ": " + response.body());
+    }
+  }
+
+  /** Returns the JWK of a new P-256 key as a JSON string, as the API takes it. */
+  private String jwk() {
+    ECPublicKey key = (ECPublicKey) keys.generateKeyPair().getPublic();
+    return "\"{\\\"kty\\\":\\\"EC\\\",\\\"crv\\\":\\\"P-256\\\",\\\"x\\\":\\\""
+        + coordinate(key.getW().getAffineX()) + "\\\",\\\"y\\\":\\\""
+        + coordinate(key.getW().getAffineY()) + "\\\"}\"";
+  }
+
+  private static String coordinate(BigInteger value) {
+    byte[] bytes = value.toByteArray();
+    byte[] coordinate = new byte[32];
+    int length = Math.min(bytes.length, 32);
+    System.arraycopy(bytes, bytes.length - length, coordinate, 32 - length, length);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(coordinate);
+  }
+
+  private URI uri(String path) {
+    return URI.create(baseUri + path);
+  }
+}
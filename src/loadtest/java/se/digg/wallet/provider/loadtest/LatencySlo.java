@@ -0,0 +1,42 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * A latency objective, e.g. {@code p99=100ms}: the given percentile of response times must not
+ * exceed the limit.
+ */
+record LatencySlo(String name, double percentile, Duration limit) {
+
+  static List<LatencySlo> parseAll(String value) {
+    List<LatencySlo> slos = new ArrayList<>();
+    for (String slo : value.split(",")) {
+      if (!slo.isBlank()) {
+        slos.add(parse(slo.strip()));
+      }
+    }
+    return slos;
+  }
+
+  static LatencySlo parse(String value) {
+    int separator = value.indexOf('=');
+    if (!value.startsWith("p") || separator < 0) {
+      throw new IllegalArgumentException("Expected a latency objective like p99=100ms, got "
+          + value);
+    }
+    String name = value.substring(0, separator);
+    double percentile = Double.parseDouble(name.substring(1));
+    if (percentile <= 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile out of range in " + value);
+    }
+    return new LatencySlo(name, percentile,
+        DurationStyle.detectAndParse(value.substring(separator + 1)));
+  }
+}
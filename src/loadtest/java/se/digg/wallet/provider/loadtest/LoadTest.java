@@ -0,0 +1,56 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import se.digg.wallet.provider.loadtest.OpenLoopDriver.PhaseResult;
+
+/**
+ * Open-loop load test of WUA issuance. Starts the service against the development keystore, or
+ * uses the one given as {@code --target}, warms it up, then measures it at the offered rate and
+ * reports throughput, latency distribution and errors against the objectives. Exits with 1 if an
+ * objective is missed. Run with
+ * {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--rate=200 --duration=60s"}.
+ */
+public final class LoadTest {
+
+  private LoadTest() {}
+
+  public static void main(String[] args) throws Exception {
+    LoadTestOptions options;
+    try {
+      options = LoadTestOptions.parse(args);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      System.err.print(LoadTestOptions.USAGE);
+      System.exit(2);
+      return;
+    }
+    RequestMix mix = new RequestMix(options.keys(), options.nonceRatio(), options.invalidRatio());
+    boolean passed;
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(options.timeout())
+            .executor(executor)
+            .build();
+        ServiceUnderTest service = options.target() == null
+            ? ServiceUnderTest.start(options, client)
+            : ServiceUnderTest.running(options.target())) {
+      OpenLoopDriver driver = new OpenLoopDriver(client,
+          service.endpoint("/wallet-unit-attestation"), service.endpoint("/nonce"), mix, options,
+          System.out);
+      driver.run("warmup", options.warmup());
+      PhaseResult result = driver.run("measure", options.duration());
+      passed = LoadTestReport.print(options, result, System.out);
+      Path distribution = LoadTestReport.writeDistribution(options.output(), result);
+      System.out.printf("Latency distribution written to %s%n", distribution);
+    }
+    System.exit(passed ? 0 : 1);
+  }
+}
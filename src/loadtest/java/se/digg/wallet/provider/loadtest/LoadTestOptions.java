@@ -0,0 +1,118 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Options of a load test run, given as {@code --name=value} arguments.
+ *
+ * @param target base URL of a running service, {@code null} starts one against the development
+ *        keystore
+ * @param rate requests per second
+ * @param warmup time at the rate before measuring
+ * @param duration time at the rate measured
+ * @param poisson whether arrivals are spread at random around the rate rather than evenly
+ * @param keys distinct wallet keys requesting attestations
+ * @param nonceRatio share of requests with a nonce, fetched from the service first
+ * @param invalidRatio share of requests the service is expected to reject with 400
+ * @param maxInFlight requests waiting for a response before new arrivals are dropped
+ * @param timeout time to wait for a response
+ * @param slos latency objectives
+ * @param maxErrorRate share of requests allowed an unexpected outcome
+ * @param output directory for the latency distribution and the service log
+ * @param serviceJvmArgs JVM arguments of a started service
+ */
+record LoadTestOptions(
+    URI target,
+    double rate,
+    Duration warmup,
+    Duration duration,
+    boolean poisson,
+    int keys,
+    double nonceRatio,
+    double invalidRatio,
+    int maxInFlight,
+    Duration timeout,
+    List<LatencySlo> slos,
+    double maxErrorRate,
+    Path output,
+    List<String> serviceJvmArgs) {
+
+  static final String USAGE = """
+      Options, as --name=value:
+        target            base URL of a running service, default starts one with the dev profile
+        rate              requests per second, default 100
+        warmup            time before measuring, default 10s
+        duration          time measured, default 60s
+        arrivals          poisson or uniform, default poisson
+        keys              distinct wallet keys, default 10000
+        nonce-ratio       share of requests with a nonce from GET /nonce, default 0.9
+        invalid-ratio     share of requests expected to be rejected with 400, default 0
+        max-in-flight     outstanding requests before arrivals are dropped, default 10000
+        timeout           response timeout, default 5s
+        slo               latency objectives, default p50=25ms,p99=100ms,p99.9=250ms
+        max-error-rate    share of requests allowed an unexpected outcome, default 0.001
+        output            directory for results, default target/loadtest
+        service-jvm-args  JVM arguments of a started service, comma separated, default -Xmx512m
+      """;
+
+  static LoadTestOptions parse(String... args) {
+    Map<String, String> values = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (!arg.startsWith("--") || separator < 0) {
+        throw new IllegalArgumentException("Expected --name=value, got " + arg);
+      }
+      values.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    String arrivals = values.getOrDefault("arrivals", "poisson");
+    if (!arrivals.equals("poisson") && !arrivals.equals("uniform")) {
+      throw new IllegalArgumentException("arrivals must be poisson or uniform");
+    }
+    LoadTestOptions options = new LoadTestOptions(
+        values.containsKey("target") ? URI.create(values.get("target")) : null,
+        Double.parseDouble(values.getOrDefault("rate", "100")),
+        DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+        DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+        arrivals.equals("poisson"),
+        Integer.parseInt(values.getOrDefault("keys", "10000")),
+        Double.parseDouble(values.getOrDefault("nonce-ratio", "0.9")),
+        Double.parseDouble(values.getOrDefault("invalid-ratio", "0")),
+        Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+        DurationStyle.detectAndParse(values.getOrDefault("timeout", "5s")),
+        LatencySlo.parseAll(values.getOrDefault("slo", "p50=25ms,p99=100ms,p99.9=250ms")),
+        Double.parseDouble(values.getOrDefault("max-error-rate", "0.001")),
+        Path.of(values.getOrDefault("output", "target/loadtest")),
+        split(values.getOrDefault("service-jvm-args", "-Xmx512m")));
+    values.keySet().removeAll(List.of("target", "rate", "warmup", "duration", "arrivals", "keys",
+        "nonce-ratio", "invalid-ratio", "max-in-flight", "timeout", "slo", "max-error-rate",
+        "output", "service-jvm-args"));
+    if (!values.isEmpty()) {
+      throw new IllegalArgumentException("Unknown options " + values.keySet());
+    }
+    if (options.rate <= 0 || options.keys <= 0 || options.maxInFlight <= 0) {
+      throw new IllegalArgumentException("rate, keys and max-in-flight must be positive");
+    }
+    return options;
+  }
+
+  private static List<String> split(String value) {
+    List<String> parts = new ArrayList<>();
+    for (String part : value.split(",")) {
+      if (!part.isBlank()) {
+        parts.add(part.strip());
+      }
+    }
+    return parts;
+  }
+}
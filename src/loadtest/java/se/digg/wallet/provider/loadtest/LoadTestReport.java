@@ -0,0 +1,89 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import org.HdrHistogram.Histogram;
+import se.digg.wallet.provider.loadtest.OpenLoopDriver.PhaseResult;
+
+/**
+ * Prints the outcome of a measured phase against the objectives, and keeps its latency
+ * distribution in the {@code .hgrm} format for comparing runs, e.g. with HdrHistogram's plotter.
+ */
+final class LoadTestReport {
+
+  private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+  private static final DateTimeFormatter FILE_TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+  private LoadTestReport() {}
+
+  /**
+   * Prints the report.
+   *
+   * @return whether all objectives were met
+   */
+  static boolean print(LoadTestOptions options, PhaseResult result, PrintStream out) {
+    Histogram latency = result.latency();
+    out.println();
+    out.printf("Target      %s%n",
+        options.target() == null ? "local service, dev profile" : options.target());
+    out.printf("Requests    %d sent in %d s, %.1f req/s answered (offered %.1f req/s, %s)%n",
+        result.sent(), options.duration().toSeconds(), result.throughput(), options.rate(),
+        options.poisson() ? "poisson" : "uniform");
+    out.print("Latency     ");
+    for (double percentile : PERCENTILES) {
+      out.printf("p%s %.2f ms  ", format(percentile), millis(latency, percentile));
+    }
+    out.printf("max %.2f ms%n", latency.getMaxValue() / 1000.0);
+    out.printf("Outcomes    %s%n", result.outcomes());
+    boolean passed = true;
+    boolean errorsMet = result.errorRate() <= options.maxErrorRate();
+    passed &= errorsMet;
+    out.printf("Errors      %d, %.3f %% <= %.3f %%  %s%n", result.errors(),
+        result.errorRate() * 100, options.maxErrorRate() * 100, verdict(errorsMet));
+    for (LatencySlo slo : options.slos()) {
+      double measured = millis(latency, slo.percentile());
+      boolean met = latency.getTotalCount() > 0 && measured <= slo.limit().toNanos() / 1e6;
+      passed &= met;
+      out.printf("SLO         %s %.2f ms <= %d ms  %s%n", slo.name(), measured,
+          slo.limit().toMillis(), verdict(met));
+    }
+    out.println(passed ? "PASSED" : "FAILED");
+    return passed;
+  }
+
+  /** Writes the latency distribution in milliseconds, returning the file written. */
+  static Path writeDistribution(Path directory, PhaseResult result) throws IOException {
+    Files.createDirectories(directory);
+    Path file = directory.resolve(
+        "latency-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".hgrm");
+    try (PrintStream out = new PrintStream(Files.newOutputStream(file), false,
+        StandardCharsets.UTF_8)) {
+      result.latency().outputPercentileDistribution(out, 1000.0);
+    }
+    return file;
+  }
+
+  private static double millis(Histogram latency, double percentile) {
+    return latency.getValueAtPercentile(percentile) / 1000.0;
+  }
+
+  private static String format(double percentile) {
+    return percentile == Math.rint(percentile)
+        ? String.valueOf((long) percentile)
+        : String.valueOf(percentile);
+  }
+
+  private static String verdict(boolean met) {
+    return met ? "ok" : "MISSED";
+  }
+}
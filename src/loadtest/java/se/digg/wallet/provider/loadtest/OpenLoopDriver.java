@@ -0,0 +1,209 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.loadtest;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Sends requests at a fixed arrival rate, whether or not earlier requests have been answered, the
+ * way independent wallets would. Latency is measured from when a request was due to be sent rather
+ * than when it was, so a stalled service or driver shows up in the latency instead of only as a
+ * lower rate (coordinated omission). A request with a nonce fetches it first, and its latency
+ * covers both exchanges, as a wallet waits for both.
+ */
+final class OpenLoopDriver {
+
+  static final String DROPPED = "dropped";
+  static final String TIMEOUT = "timeout";
+
+  private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  /** Outcome of a phase, latencies are in microseconds. */
+  record PhaseResult(Duration elapsed, long sent, Histogram latency, Map<String, Long> outcomes,
+      long errors) {
+
+    double errorRate() {
+      return sent == 0 ? 0 : (double) errors / sent;
+    }
+
+    double throughput() {
+      return latency.getTotalCount() / (elapsed.toNanos() / 1e9);
+    }
+  }
+
+  private final HttpClient client;
+  private final URI endpoint;
+  private final HttpRequest nonceRequest;
+  private final RequestMix mix;
+  private final LoadTestOptions options;
+  private final PrintStream out;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final SplittableRandom random = new SplittableRandom();
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  OpenLoopDriver(HttpClient client, URI endpoint, URI nonceEndpoint, RequestMix mix,
+      LoadTestOptions options, PrintStream out) {
+    this.client = client;
+    this.endpoint = endpoint;
+    this.nonceRequest = HttpRequest.newBuilder(nonceEndpoint)
+        .timeout(options.timeout())
+        .GET()
+        .build();
+    this.mix = mix;
+    this.options = options;
+    this.out = out;
+  }
+
+  /**
+   * Sends requests for the given time, then waits for the outstanding ones, printing the progress
+   * every second.
+   */
+  PhaseResult run(String phaseName, Duration length) {
+    Phase phase = new Phase();
+    Histogram total = new Histogram(3);
+    Histogram interval = null;
+    double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+    long start = System.nanoTime();
+    long end = start + length.toNanos();
+    long nextReport = start + REPORT_INTERVAL_NANOS;
+    double offset = 0;
+    long sent = 0;
+    while (true) {
+      long due = start + (long) offset;
+      if (due >= end) {
+        break;
+      }
+      long now;
+      while ((now = System.nanoTime()) < due) {
+        LockSupport.parkNanos(due - now);
+      }
+      if (now >= nextReport) {
+        interval = phase.latency.getIntervalHistogram(interval);
+        total.add(interval);
+        printProgress(phaseName, now - start, interval);
+        nextReport += REPORT_INTERVAL_NANOS;
+      }
+      send(phase, due);
+      sent++;
+      offset += options.poisson()
+          ? -Math.log(1 - random.nextDouble()) * meanGapNanos
+          : meanGapNanos;
+    }
+    long drainDeadline = System.nanoTime() + options.timeout().toNanos()
+        + TimeUnit.SECONDS.toNanos(1);
+    while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+      LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+    }
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+    total.add(phase.latency.getIntervalHistogram(interval));
+    Map<String, Long> outcomes = new TreeMap<>();
+    phase.outcomes.forEach((outcome, count) -> outcomes.put(outcome, count.sum()));
+    long unanswered = inFlight.get();
+    if (unanswered > 0) {
+      outcomes.merge(TIMEOUT, unanswered, Long::sum);
+    }
+    return new PhaseResult(elapsed, sent, total, outcomes, phase.errors.sum() + unanswered);
+  }
+
+  private void send(Phase phase, long due) {
+    if (inFlight.incrementAndGet() > options.maxInFlight()) {
+      inFlight.decrementAndGet();
+      phase.complete(DROPPED, false);
+      return;
+    }
+    RequestMix.Request request = mix.next(random);
+    CompletableFuture<String> nonce = request.withNonce()
+        ? client.sendAsync(nonceRequest, HttpResponse.BodyHandlers.ofString())
+            .thenApply(this::nonce)
+        : CompletableFuture.completedFuture(null);
+    nonce
+        .thenCompose(value -> client.sendAsync(
+            HttpRequest.newBuilder(endpoint)
+                .timeout(options.timeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(request.body(value)))
+                .build(),
+            HttpResponse.BodyHandlers.discarding()))
+        .whenComplete((response, failure) -> {
+          long latencyNanos = System.nanoTime() - due;
+          if (response != null) {
+            phase.latency.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            phase.complete(String.valueOf(response.statusCode()),
+                response.statusCode() == request.expectedStatus());
+          } else {
+            phase.complete(failureOutcome(failure), false);
+          }
+          inFlight.decrementAndGet();
+        });
+  }
+
+  private String nonce(HttpResponse<String> response) {
+    if (response.statusCode() != 200) {
+      throw new NonceNotIssuedException(response.statusCode());
+    }
+    return mapper.readTree(response.body()).get("nonce").asString();
+  }
+
+  private void printProgress(String phaseName, long elapsedNanos, Histogram interval) {
+    out.printf("%-7s %4ds %8d req/s  p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms  in flight %d%n",
+        phaseName, TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), interval.getTotalCount(),
+        interval.getValueAtPercentile(50) / 1000.0, interval.getValueAtPercentile(99) / 1000.0,
+        interval.getMaxValue() / 1000.0, inFlight.get());
+  }
+
+  private static String failureOutcome(Throwable failure) {
+    Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause()
+        : failure;
+    if (cause instanceof NonceNotIssuedException notIssued) {
+      return "nonce " + notIssued.status;
+    }
+    return cause instanceof HttpTimeoutException ? TIMEOUT : cause.getClass().getSimpleName();
+  }
+
+  /** Fails a request whose nonce could not be fetched, the outcome records the status. */
+  private static final class NonceNotIssuedException extends RuntimeException {
+
+    private final int status;
+
+    NonceNotIssuedException(int status) {
+      super("GET /nonce answered " + status, null, false, false);
+      this.status = status;
+    }
+  }
+
+  private static final class Phase {
+
+    private final Recorder latency = new Recorder(3);
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    void complete(String outcome, boolean expected) {
+      outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+      if (!expected) {
+        errors.increment();
+      }
+    }
+  }
+}
@@ -0,0 +1,76 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.loadtest;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.SplittableRandom;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Requests as sent by a population of wallets: each request comes from one of a fixed set of
+ * wallet keys, most carry a nonce fetched from the service just before, and a configured share use
+ * a key on the wrong curve, which the service must reject.
+ */
+final class RequestMix {
+
+  private static final int INVALID_KEYS = 16;
+
+  /**
+   * A request and the status the service is expected to answer it with.
+   *
+   * @param withNonce whether a nonce is to be fetched from the service and sent with the request
+   */
+  record Request(String jwk, boolean withNonce, int expectedStatus) {
+
+    /** Returns the request body, with the nonce if not {@code null}. */
+    String body(String nonce) {
+      StringBuilder body = new StringBuilder(256).append("{\"jwk\":").append(jwk);
+      if (nonce != null) {
+        body.append(",\"nonce\":\"").append(nonce).append('"');
+      }
+      return body.append('}').toString();
+    }
+  }
+
+  private final String[] validJwks;
+  private final String[] invalidJwks;
+  private final double nonceRatio;
+  private final double invalidRatio;
+
+  RequestMix(int keys, double nonceRatio, double invalidRatio)
+      throws GeneralSecurityException {
+    ObjectMapper mapper = new ObjectMapper();
+    this.validJwks = quotedJwks(mapper, Curve.P_256, keys);
+    this.invalidJwks = quotedJwks(mapper, Curve.P_384, invalidRatio > 0 ? INVALID_KEYS : 0);
+    this.nonceRatio = nonceRatio;
+    this.invalidRatio = invalidRatio;
+  }
+
+  Request next(SplittableRandom random) {
+    boolean invalid = random.nextDouble() < invalidRatio;
+    String[] jwks = invalid ? invalidJwks : validJwks;
+    return new Request(jwks[random.nextInt(jwks.length)], random.nextDouble() < nonceRatio,
+        invalid ? 400 : 200);
+  }
+
+  /** Returns JWKs of new keys, each as a JSON string since the API takes the JWK as a string. */
+  private static String[] quotedJwks(ObjectMapper mapper, Curve curve, int count)
+      throws GeneralSecurityException {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+    generator.initialize(new ECGenParameterSpec(curve.getStdName()));
+    String[] jwks = new String[count];
+    for (int i = 0; i < count; i++) {
+      ECPublicKey publicKey = (ECPublicKey) generator.generateKeyPair().getPublic();
+      jwks[i] = mapper.writeValueAsString(
+          new ECKey.Builder(curve, publicKey).build().toJSONString());
+    }
+    return jwks;
+  }
+}
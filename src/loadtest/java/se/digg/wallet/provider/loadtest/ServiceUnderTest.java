@@ -0,0 +1,134 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The service under load, either one already running or one started in a JVM of its own with the
+ * development profile, so that it does not share a heap or threads with the driver.
+ */
+final class ServiceUnderTest implements AutoCloseable {
+
+  private static final String APPLICATION = "se.digg.wallet.provider.Application";
+  private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+  private final URI baseUri;
+  private final Process process;
+
+  private ServiceUnderTest(URI baseUri, Process process) {
+    this.baseUri = baseUri;
+    this.process = process;
+  }
+
+  static ServiceUnderTest running(URI baseUri) {
+    return new ServiceUnderTest(baseUri, null);
+  }
+
+  /**
+   * Starts the service and waits until it is ready. Its output goes to {@code service.log}, its
+   * audit log, status list and registry to {@code audit}, {@code status-list} and
+   * {@code registry} in the output directory.
+   */
+  static ServiceUnderTest start(LoadTestOptions options, HttpClient client)
+      throws IOException, InterruptedException {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.addAll(options.serviceJvmArgs());
+    command.addAll(List.of("-cp", applicationClassPath(), APPLICATION,
+        "--server.port=" + port,
+        "--spring.profiles.active=dev",
+        // Requests all come from one address, per-client limits would only measure rejections
+        "--wua.rate-limit.enabled=false",
+        "--wua.audit.directory=" + options.output().resolve("audit"),
+        "--wua.status-list.allocation-file="
+            + options.output().resolve("status-list").resolve("allocation.bitmap"),
+        "--wua.status-list.status-file="
+            + options.output().resolve("status-list").resolve("status.bitmap"),
+        "--spring.datasource.url=jdbc:h2:file:"
+            + options.output().resolve("registry").resolve("attestations").toAbsolutePath()
+            + ";DB_CLOSE_ON_EXIT=FALSE"));
+    Files.createDirectories(options.output());
+    Path log = options.output().resolve("service.log");
+    Process process = new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(log.toFile())
+        .start();
+    ServiceUnderTest service =
+        new ServiceUnderTest(URI.create("http://localhost:" + port), process);
+    try {
+      service.awaitReady(client, log);
+    } catch (IOException | InterruptedException | RuntimeException e) {
+      service.close();
+      throw e;
+    }
+    return service;
+  }
+
+  URI endpoint(String path) {
+    String base = baseUri.toString();
+    return URI.create((base.endsWith("/") ? base.substring(0, base.length() - 1) : base) + path);
+  }
+
+  @Override
+  public void close() throws InterruptedException {
+    if (process == null) {
+      return;
+    }
+    process.destroy();
+    if (!process.waitFor(10, TimeUnit.SECONDS)) {
+      process.destroyForcibly();
+    }
+  }
+
+  private void awaitReady(HttpClient client, Path log) throws IOException, InterruptedException {
+    HttpRequest readiness = HttpRequest.newBuilder(endpoint("/actuator/health/readiness"))
+        .timeout(Duration.ofSeconds(1))
+        .build();
+    long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IOException("Service exited with " + process.exitValue() + ", see " + log);
+      }
+      try {
+        if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // Not listening yet
+      }
+      Thread.sleep(250);
+    }
+    throw new IOException("Service not ready within " + STARTUP_TIMEOUT + ", see " + log);
+  }
+
+  /**
+   * Returns the class path of the driver without test classes and resources, so that the service
+   * runs with its own configuration rather than the test configuration.
+   */
+  private static String applicationClassPath() {
+    return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+        .filter(entry -> !Path.of(entry).endsWith("test-classes"))
+        .collect(Collectors.joining(File.pathSeparator));
+  }
+}
@@ -0,0 +1,59 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.jspecify.annotations.NonNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Admits requests to the admin API only with the configured bearer token, before their bodies are
+ * read. Without a token configured the admin API is closed. It intercepts the handlers mapped under
+ * {@value #ADMIN_PATH_PATTERN}, so it sees the path as routed, decoded and without matrix
+ * parameters or context path, not the raw request URI. Rejections are resolved into a problem
+ * response.
+ */
+@Component
+public class AdminAuthenticationInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+  public static final String ADMIN_PATH_PATTERN = "/admin/**";
+
+  private static final String BEARER_PREFIX = "Bearer ";
+
+  private final byte[] token;
+
+  public AdminAuthenticationInterceptor(WuaAdminProperties properties) {
+    this.token = properties.isEnabled() ? properties.token().getBytes(StandardCharsets.UTF_8)
+        : null;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry.addInterceptor(this).addPathPatterns(ADMIN_PATH_PATTERN);
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, @NonNull HttpServletResponse response,
+      @NonNull Object handler) {
+    if (token == null) {
+      throw new UnauthorizedException("The admin API is not enabled");
+    }
+    String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+    // Compared in constant time, so that the token cannot be guessed from response times
+    if (authorization == null || !authorization.startsWith(BEARER_PREFIX)
+        || !MessageDigest.isEqual(token, authorization.substring(BEARER_PREFIX.length())
+            .getBytes(StandardCharsets.UTF_8))) {
+      throw new UnauthorizedException("Missing or invalid bearer token");
+    }
+    return true;
+  }
+}
@@ -0,0 +1,17 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+/**
+ * Base of the exceptions that reject a request for what the client sent. They are expected in
+ * normal operation and answered with a problem response, so they are created without a stack trace,
+ * which would only add cost to rejecting the request and is never logged.
+ */
+public abstract class ClientErrorException extends RuntimeException {
+
+  protected ClientErrorException(String message) {
+    super(message, null, false, false);
+  }
+}
@@ -12,20 +12,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.jspecify.annotations.NonNull;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.UUID;
 import java.util.regex.Pattern;
 
 @Component
+@Order(LoggingContextFilter.ORDER)
 public class LoggingContextFilter extends OncePerRequestFilter {
 
+  // First of the application filters, so that rejections are logged with the request's ids
+  public static final int ORDER = Ordered.HIGHEST_PRECEDENCE + 100;
+
   private final Logger log = LoggerFactory.getLogger(LoggingContextFilter.class);
 
-  private static final String REQUEST_ID = "correlationId";
   private static final Pattern VALID_HEADER_FORMAT = Pattern.compile("[a-zA-Z0-9_-]{1,64}");
+  public static final String MDC_CORRELATION_ID = "correlationId";
   public static final String MDC_TRANSACTION_ID = "transactionId";
   public static final String X_CORRELATION_ID = "X-Correlation-Id";
 
@@ -35,8 +40,8 @@ public class LoggingContextFilter extends OncePerRequestFilter {
       @NonNull FilterChain chain) throws ServletException, IOException {
     try {
       String correlationId = resolveCorrelationId(request.getHeader(X_CORRELATION_ID));
-      MDC.put(REQUEST_ID, correlationId);
-      MDC.put(MDC_TRANSACTION_ID, UUID.randomUUID().toString());
+      MDC.put(MDC_CORRELATION_ID, correlationId);
+      MDC.put(MDC_TRANSACTION_ID, TimeOrderedIds.next());
       response.setHeader(X_CORRELATION_ID, correlationId);
       chain.doFilter(request, response);
     } finally {
@@ -46,12 +51,12 @@ public class LoggingContextFilter extends OncePerRequestFilter {
 
   private String resolveCorrelationId(String headerValue) {
     if (headerValue == null) {
-      return UUID.randomUUID().toString();
+      return TimeOrderedIds.next();
     }
     if (VALID_HEADER_FORMAT.matcher(headerValue).matches()) {
       return headerValue;
     }
-    String newId = UUID.randomUUID().toString();
+    String newId = TimeOrderedIds.next();
     log.warn("Replacing poorly formatted or potentially malicious id header with {}", newId);
     return newId;
   }
@@ -0,0 +1,22 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+/**
+ * Thrown when a client has used up its request rate.
+ */
+public class RateLimitExceededException extends ClientErrorException {
+
+  private final long retryAfterSeconds;
+
+  public RateLimitExceededException(long retryAfterSeconds) {
+    super("Request rate exceeded, retry after " + retryAfterSeconds + " seconds");
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,127 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Admits requests per client with a token bucket, so that one caller flooding the service cannot
+ * starve the others of signing capacity. Clients are identified by the configured header, set by a
+ * trusted proxy, else by their TLS client certificate, else by their address. Buckets are kept in a
+ * size-bounded cache and taken from without locking. Rejections are resolved into a problem
+ * response with {@code Retry-After}.
+ */
+@Component
+@Order(RateLimitFilter.ORDER)
+@ConditionalOnProperty(prefix = "wua.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  public static final int ORDER = LoggingContextFilter.ORDER + 10;
+
+  static final String REJECTIONS = "wua.rate-limit.rejections";
+
+  private static final String CERTIFICATE_ATTRIBUTE = "jakarta.servlet.request.X509Certificate";
+  private static final String ACTUATOR_PATH = "/actuator/";
+  private static final String STATUS_LIST_PATH = "/status-list";
+  // Header values are chosen by the client, keep them from bloating the cache keys
+  private static final int MAXIMUM_CLIENT_ID_LENGTH = 128;
+
+  private final WuaRateLimitProperties properties;
+  private final HandlerExceptionResolver exceptionResolver;
+  private final LongSupplier nanoTime;
+  private final long nanosPerToken;
+  private final Cache<String, TokenBucket> buckets;
+  private final Counter rejections;
+
+  @Autowired
+  public RateLimitFilter(WuaRateLimitProperties properties,
+      @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+      MeterRegistry meterRegistry) {
+    this(properties, exceptionResolver, meterRegistry, System::nanoTime);
+  }
+
+  RateLimitFilter(WuaRateLimitProperties properties, HandlerExceptionResolver exceptionResolver,
+      MeterRegistry meterRegistry, LongSupplier nanoTime) {
+    this.properties = properties;
+    this.exceptionResolver = exceptionResolver;
+    this.nanoTime = nanoTime;
+    this.nanosPerToken = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1)
+        / properties.requestsPerSecond()));
+    this.buckets = Caffeine.newBuilder()
+        .maximumSize(properties.maximumClients())
+        .expireAfterAccess(properties.idleTimeout())
+        .build();
+    // Not tagged by client, client ids are unbounded and identify persons
+    this.rejections = Counter.builder(REJECTIONS)
+        .description("Requests rejected for exceeding the client's request rate")
+        .register(meterRegistry);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    // Probes and scrapes must not be starved by clients sharing their address, the status list is
+    // served from memory and costs no signing. Matched on the path as it is routed, decoded and
+    // without matrix parameters.
+    String path = UrlPathHelper.defaultInstance.getLookupPathForRequest(request);
+    return path.startsWith(ACTUATOR_PATH) || path.equals(STATUS_LIST_PATH);
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain chain) throws ServletException, IOException {
+    String clientId = clientId(request);
+    long now = nanoTime.getAsLong();
+    long waitNanos = buckets
+        .get(clientId, id -> new TokenBucket(nanosPerToken, properties.burst(), now))
+        .tryAcquire(now);
+    if (waitNanos > 0) {
+      rejections.increment();
+      long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+          waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+      exceptionResolver.resolveException(request, response, null,
+          new RateLimitExceededException(retryAfterSeconds));
+      return;
+    }
+    chain.doFilter(request, response);
+  }
+
+  private String clientId(HttpServletRequest request) {
+    String header = properties.clientHeader();
+    if (header != null && !header.isBlank()) {
+      String value = request.getHeader(header);
+      if (value != null && !value.isBlank()) {
+        return value.length() > MAXIMUM_CLIENT_ID_LENGTH
+            ? value.substring(0, MAXIMUM_CLIENT_ID_LENGTH)
+            : value;
+      }
+    }
+    if (request.getAttribute(CERTIFICATE_ATTRIBUTE) instanceof X509Certificate[] chain
+        && chain.length > 0) {
+      return chain[0].getSubjectX500Principal().getName();
+    }
+    return request.getRemoteAddr();
+  }
+}
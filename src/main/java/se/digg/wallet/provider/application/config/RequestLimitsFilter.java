@@ -0,0 +1,146 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Rejects request bodies over the configured size before anything is parsed. A declared
+ * {@code Content-Length} over the limit is rejected up front, a body without one is counted as it
+ * is read. Rejections are resolved like any other exception, into a problem response.
+ */
+@Component
+@Order(RequestLimitsFilter.ORDER)
+public class RequestLimitsFilter extends OncePerRequestFilter {
+
+  // Leaves room for filters that should reject before the body is looked at
+  public static final int ORDER = LoggingContextFilter.ORDER + 20;
+
+  private static final String ADMIN_PATH = "/admin/";
+  private static final String BATCH_PATH_SUFFIX = "/batch";
+
+  private final WuaRequestLimitsProperties limits;
+  private final HandlerExceptionResolver exceptionResolver;
+
+  public RequestLimitsFilter(WuaRequestLimitsProperties limits,
+      @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+    this.limits = limits;
+    this.exceptionResolver = exceptionResolver;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request,
+      @NonNull HttpServletResponse response,
+      @NonNull FilterChain chain) throws ServletException, IOException {
+    long maxBodySize = maxBodySize(UrlPathHelper.defaultInstance.getLookupPathForRequest(request));
+    if (request.getContentLengthLong() > maxBodySize) {
+      exceptionResolver.resolveException(request, response, null,
+          new RequestTooLargeException(maxBodySize));
+      return;
+    }
+    chain.doFilter(new LimitedRequest(request, maxBodySize), response);
+  }
+
+  /** Returns the limit of the path, decoded and without matrix parameters as it is routed. */
+  private long maxBodySize(String path) {
+    if (path.startsWith(ADMIN_PATH)) {
+      return limits.maxAdminBodySize().toBytes();
+    }
+    return path.endsWith(BATCH_PATH_SUFFIX)
+        ? limits.maxBatchBodySize().toBytes()
+        : limits.maxBodySize().toBytes();
+  }
+
+  private static final class LimitedRequest extends HttpServletRequestWrapper {
+
+    private final long maxBodySize;
+    private ServletInputStream inputStream;
+
+    LimitedRequest(HttpServletRequest request, long maxBodySize) {
+      super(request);
+      this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+      if (inputStream == null) {
+        inputStream = new LimitedInputStream(super.getInputStream(), maxBodySize);
+      }
+      return inputStream;
+    }
+  }
+
+  private static final class LimitedInputStream extends ServletInputStream {
+
+    private final ServletInputStream delegate;
+    private final long maxBodySize;
+    private long remaining;
+
+    LimitedInputStream(ServletInputStream delegate, long maxBodySize) {
+      this.delegate = delegate;
+      this.maxBodySize = maxBodySize;
+      this.remaining = maxBodySize;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = delegate.read();
+      if (b >= 0) {
+        consumed(1);
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int count = delegate.read(buffer, offset, length);
+      if (count > 0) {
+        consumed(count);
+      }
+      return count;
+    }
+
+    @Override
+    public boolean isFinished() {
+      return delegate.isFinished();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setReadListener(ReadListener readListener) {
+      delegate.setReadListener(readListener);
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+
+    private void consumed(int count) {
+      remaining -= count;
+      if (remaining < 0) {
+        throw new RequestTooLargeException(maxBodySize);
+      }
+    }
+  }
+}
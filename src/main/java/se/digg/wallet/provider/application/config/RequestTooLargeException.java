@@ -0,0 +1,16 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+/**
+ * Thrown when a request body exceeds the configured limit, either as declared by its
+ * {@code Content-Length} or while it is being read.
+ */
+public class RequestTooLargeException extends ClientErrorException {
+
+  public RequestTooLargeException(long maxBodySize) {
+    super("Request body exceeds " + maxBodySize + " bytes");
+  }
+}
@@ -0,0 +1,35 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generator of time-ordered ids for logging, laid out as version 7 UUIDs: 48 bits of Unix epoch
+ * milliseconds followed by 74 random bits. Unlike {@link UUID#randomUUID()}, which draws on a
+ * shared {@code SecureRandom}, the random bits come from {@link ThreadLocalRandom}, so concurrent
+ * requests do not contend. The ids are neither secret nor unpredictable and must not be used as
+ * such.
+ */
+public final class TimeOrderedIds {
+
+  private static final long VERSION_7 = 0x7000L;
+  private static final long VARIANT_RFC_9562 = 0x8000_0000_0000_0000L;
+
+  private TimeOrderedIds() {}
+
+  public static String next() {
+    return nextUuid().toString();
+  }
+
+  static UUID nextUuid() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long mostSignificant =
+        System.currentTimeMillis() << 16 | VERSION_7 | random.nextLong() & 0xFFFL;
+    long leastSignificant = VARIANT_RFC_9562 | random.nextLong() >>> 2;
+    return new UUID(mostSignificant, leastSignificant);
+  }
+}
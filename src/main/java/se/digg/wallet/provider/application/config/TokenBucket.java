@@ -0,0 +1,45 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as the time at which the bucket would be full again (the generic
+ * cell rate algorithm). Taking a token is a single compare-and-set of that time, no refill task or
+ * lock is needed.
+ */
+final class TokenBucket {
+
+  private final long nanosPerToken;
+  private final long burstNanos;
+  private final AtomicLong fullAt;
+
+  TokenBucket(long nanosPerToken, int burst, long nowNanos) {
+    this.nanosPerToken = nanosPerToken;
+    this.burstNanos = nanosPerToken * burst;
+    this.fullAt = new AtomicLong(nowNanos);
+  }
+
+  /**
+   * Takes a token if one is available.
+   *
+   * @return 0 if a token was taken, otherwise the nanoseconds until one is available
+   */
+  long tryAcquire(long nowNanos) {
+    while (true) {
+      long current = fullAt.get();
+      // An idle bucket refills up to burst, not beyond
+      long next = Math.max(current, nowNanos) + nanosPerToken;
+      long wait = next - nowNanos - burstNanos;
+      if (wait > 0) {
+        return wait;
+      }
+      if (fullAt.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+}
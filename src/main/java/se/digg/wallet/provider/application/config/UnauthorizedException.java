@@ -0,0 +1,15 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+/**
+ * Thrown when a request to the admin API does not carry the configured bearer token.
+ */
+public class UnauthorizedException extends ClientErrorException {
+
+  public UnauthorizedException(String message) {
+    super(message);
+  }
+}
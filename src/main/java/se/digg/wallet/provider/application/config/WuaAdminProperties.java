@@ -0,0 +1,16 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "wua.admin")
+public record WuaAdminProperties(
+    String token) {
+
+  public boolean isEnabled() {
+    return token != null && !token.isBlank();
+  }
+}
@@ -0,0 +1,23 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "wua.attested-key-cache")
+public record WuaAttestedKeyCacheProperties(
+    long maximumSize,
+    Duration expireAfterWrite) {
+
+  public WuaAttestedKeyCacheProperties {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximum-size must be positive");
+    }
+    if (!expireAfterWrite.isPositive()) {
+      throw new IllegalArgumentException("expire-after-write must be positive");
+    }
+  }
+}
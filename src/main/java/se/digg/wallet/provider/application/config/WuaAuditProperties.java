@@ -0,0 +1,33 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "wua.audit")
+public record WuaAuditProperties(
+    boolean enabled,
+    Path directory,
+    DataSize segmentSize,
+    int bufferSize,
+    Duration syncInterval) {
+
+  private static final DataSize MINIMUM_SEGMENT_SIZE = DataSize.ofKilobytes(64);
+
+  public WuaAuditProperties {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("buffer-size must be positive");
+    }
+    if (!syncInterval.isPositive()) {
+      throw new IllegalArgumentException("sync-interval must be positive");
+    }
+    if (segmentSize.compareTo(MINIMUM_SEGMENT_SIZE) < 0) {
+      segmentSize = MINIMUM_SEGMENT_SIZE;
+    }
+  }
+}
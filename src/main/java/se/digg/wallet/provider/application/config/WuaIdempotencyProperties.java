@@ -0,0 +1,24 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "wua.idempotency")
+public record WuaIdempotencyProperties(
+    boolean implicitKeying,
+    long maximumSize,
+    Duration ttl) {
+
+  public WuaIdempotencyProperties {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximum-size must be positive");
+    }
+    if (!ttl.isPositive()) {
+      throw new IllegalArgumentException("ttl must be positive");
+    }
+  }
+}
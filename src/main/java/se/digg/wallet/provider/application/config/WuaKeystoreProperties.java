@@ -5,6 +5,7 @@
 package se.digg.wallet.provider.application.config;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
@@ -15,6 +16,8 @@ import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
 import java.security.interfaces.ECPrivateKey;
 import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -28,43 +31,132 @@ public record WuaKeystoreProperties(
     String alias,
     String type,
     String status,
-    int validityHours) {
+    int validityHours,
+    Duration reloadInterval,
+    String signatureProvider,
+    List<SigningKey> keys) {
 
-  public ECPrivateKey getSigningKey() {
-    try {
-      KeyStore keyStore = KeyStore.getInstance(type());
-      keyStore.load(location().getInputStream(), password().toCharArray());
-      PrivateKey privateKey = (PrivateKey) keyStore.getKey(alias(), password().toCharArray());
-
-      return (ECPrivateKey) privateKey;
-    } catch (CertificateException | IOException | KeyStoreException
-        | NoSuchAlgorithmException | UnrecoverableKeyException e) {
-      throw new WalletRuntimeException("Failed to load signing key from filesystem", e);
+  public WuaKeystoreProperties {
+    keys = keys == null ? List.of() : List.copyOf(keys);
+  }
+
+  /**
+   * One signing key, issued with between {@code activeFrom} and {@code activeUntil} when set.
+   * {@code location}, {@code password} and {@code type} default to those of the keystore.
+   */
+  public record SigningKey(
+      Resource location,
+      String password,
+      String type,
+      String alias,
+      Instant activeFrom,
+      Instant activeUntil) {
+
+    /**
+     * Loads and decrypts the keystore holding this key. This is expensive, callers on the request
+     * path should use a cached {@code WuaSigningContext} instead.
+     */
+    public KeyStore loadKeyStore() {
+      try (InputStream in = location().getInputStream()) {
+        KeyStore keyStore = KeyStore.getInstance(type());
+        keyStore.load(in, password().toCharArray());
+        return keyStore;
+      } catch (CertificateException | IOException | KeyStoreException
+          | NoSuchAlgorithmException e) {
+        throw new WalletRuntimeException("Failed to load keystore from filesystem", e);
+      }
+    }
+
+    public ECPrivateKey getSigningKey(KeyStore keyStore) {
+      try {
+        PrivateKey privateKey = (PrivateKey) keyStore.getKey(alias(), password().toCharArray());
+
+        return (ECPrivateKey) privateKey;
+      } catch (KeyStoreException | NoSuchAlgorithmException | UnrecoverableKeyException e) {
+        throw new WalletRuntimeException("Failed to load signing key from filesystem", e);
+      }
+    }
+
+    public ECPublicKey getPublicKey(KeyStore keyStore) {
+      try {
+        Certificate cert = keyStore.getCertificate(alias());
+        return (ECPublicKey) cert.getPublicKey();
+      } catch (KeyStoreException e) {
+        throw new WalletRuntimeException("Failed to load public key from filesystem", e);
+      }
+    }
+
+    public List<X509Certificate> getCertificateChain(KeyStore keyStore) {
+      try {
+        Certificate[] chain = keyStore.getCertificateChain(alias());
+        if (chain == null && keyStore.getCertificate(alias()) != null) {
+          // Certificate-only entry, the private key is held by an external signer
+          chain = new Certificate[] {keyStore.getCertificate(alias())};
+        }
+        if (chain == null) {
+          throw new WalletRuntimeException("No certificate for alias " + alias() + " in keystore");
+        }
+        return Arrays.stream(chain)
+            .map(c -> (X509Certificate) c)
+            .collect(Collectors.toList());
+      } catch (KeyStoreException e) {
+        throw new WalletRuntimeException("Failed to load certificate chain from filesystem", e);
+      }
     }
   }
 
-  public ECPublicKey getPublicKey() {
-    try {
-      KeyStore keyStore = KeyStore.getInstance(type());
-      keyStore.load(location().getInputStream(), password().toCharArray());
-      Certificate cert = keyStore.getCertificate(alias());
-      return (ECPublicKey) cert.getPublicKey();
-    } catch (CertificateException | IOException | KeyStoreException
-        | NoSuchAlgorithmException e) {
-      throw new WalletRuntimeException("Failed to load public key from filesystem", e);
+  /**
+   * Returns the configured signing keys with defaults applied, or the key at {@code alias} when no
+   * {@code keys} are configured.
+   */
+  public List<SigningKey> signingKeys() {
+    if (keys.isEmpty()) {
+      return List.of(defaultKey());
     }
+    return keys.stream()
+        .map(key -> new SigningKey(
+            key.location() != null ? key.location() : location(),
+            key.password() != null ? key.password() : password(),
+            key.type() != null ? key.type() : type(),
+            key.alias(),
+            key.activeFrom(),
+            key.activeUntil()))
+        .toList();
+  }
+
+  /**
+   * Loads and decrypts the keystore. This is expensive, callers on the request path should use a
+   * cached {@code WuaSigningContext} instead.
+   */
+  public KeyStore loadKeyStore() {
+    return defaultKey().loadKeyStore();
+  }
+
+  public ECPrivateKey getSigningKey() {
+    return getSigningKey(loadKeyStore());
+  }
+
+  public ECPrivateKey getSigningKey(KeyStore keyStore) {
+    return defaultKey().getSigningKey(keyStore);
+  }
+
+  public ECPublicKey getPublicKey() {
+    return getPublicKey(loadKeyStore());
+  }
+
+  public ECPublicKey getPublicKey(KeyStore keyStore) {
+    return defaultKey().getPublicKey(keyStore);
   }
 
   public List<X509Certificate> getCertificateChain() {
-    try {
-      KeyStore keyStore = KeyStore.getInstance(type());
-      keyStore.load(location().getInputStream(), password().toCharArray());
-      return Arrays.stream(keyStore.getCertificateChain(alias()))
-          .map(c -> (X509Certificate) c)
-          .collect(Collectors.toList());
-    } catch (CertificateException | IOException | KeyStoreException
-        | NoSuchAlgorithmException e) {
-      throw new WalletRuntimeException("Failed to load certificate chain from filesystem", e);
-    }
+    return getCertificateChain(loadKeyStore());
+  }
+
+  public List<X509Certificate> getCertificateChain(KeyStore keyStore) {
+    return defaultKey().getCertificateChain(keyStore);
+  }
+
+  private SigningKey defaultKey() {
+    return new SigningKey(location(), password(), type(), alias(), null, null);
   }
 }
@@ -0,0 +1,27 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "wua.rate-limit")
+public record WuaRateLimitProperties(
+    boolean enabled,
+    String clientHeader,
+    double requestsPerSecond,
+    int burst,
+    long maximumClients,
+    Duration idleTimeout) {
+
+  public WuaRateLimitProperties {
+    if (requestsPerSecond <= 0 || burst <= 0) {
+      throw new IllegalArgumentException("requests-per-second and burst must be positive");
+    }
+    if (maximumClients <= 0) {
+      throw new IllegalArgumentException("maximum-clients must be positive");
+    }
+  }
+}
@@ -0,0 +1,19 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "wua.registry")
+public record WuaRegistryProperties(
+    boolean enabled,
+    int bufferSize) {
+
+  public WuaRegistryProperties {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("buffer-size must be positive");
+    }
+  }
+}
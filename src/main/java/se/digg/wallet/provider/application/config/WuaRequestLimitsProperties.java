@@ -0,0 +1,23 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "wua.request-limits")
+public record WuaRequestLimitsProperties(
+    DataSize maxBodySize,
+    DataSize maxBatchBodySize,
+    DataSize maxAdminBodySize,
+    int maxJwkLength,
+    int maxNonceLength) {
+
+  public WuaRequestLimitsProperties {
+    if (maxJwkLength <= 0 || maxNonceLength <= 0) {
+      throw new IllegalArgumentException("max-jwk-length and max-nonce-length must be positive");
+    }
+  }
+}
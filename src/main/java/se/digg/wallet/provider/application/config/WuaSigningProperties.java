@@ -0,0 +1,43 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "wua.signing")
+public record WuaSigningProperties(
+    int threads,
+    int queueCapacity,
+    Backend backend,
+    Path socketPath,
+    int connections,
+    Duration timeout) {
+
+  public WuaSigningProperties {
+    if (queueCapacity <= 0) {
+      throw new IllegalArgumentException("queue-capacity must be positive");
+    }
+    if (connections <= 0) {
+      throw new IllegalArgumentException("connections must be positive");
+    }
+    if (!timeout.isPositive()) {
+      throw new IllegalArgumentException("timeout must be positive");
+    }
+  }
+
+  public enum Backend {
+    IN_PROCESS,
+    UNIX_SOCKET
+  }
+
+  /**
+   * Returns the number of signing threads, defaulting to one per available core.
+   */
+  public int effectiveThreads() {
+    return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+  }
+}
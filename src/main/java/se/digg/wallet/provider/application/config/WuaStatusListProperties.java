@@ -0,0 +1,30 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "wua.status-list")
+public record WuaStatusListProperties(
+    int size,
+    Path allocationFile,
+    Path statusFile,
+    Duration refreshInterval,
+    Duration validity) {
+
+  public WuaStatusListProperties {
+    if (size <= 0) {
+      throw new IllegalArgumentException("size must be positive");
+    }
+    if (refreshInterval.toSeconds() < 1) {
+      throw new IllegalArgumentException("refresh-interval must be at least one second");
+    }
+    if (validity.compareTo(refreshInterval) <= 0) {
+      throw new IllegalArgumentException("validity must be longer than refresh-interval");
+    }
+  }
+}
@@ -0,0 +1,155 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.controller;
+
+import org.springframework.stereotype.Component;
+import se.digg.wallet.provider.application.config.WuaRequestLimitsProperties;
+
+/**
+ * Cheap checks of an attestation request before it reaches the service. Field lengths are checked
+ * against the configured limits and the JWK is checked for the shape of a P-256 public key,
+ * {@code kty}, {@code crv} and the coordinate lengths, without parsing it. A JWK passing the checks
+ * is still parsed and validated in full by the service. Member values using JSON escapes are
+ * rejected, a P-256 JWK has no reason to use them.
+ */
+@Component
+public class AttestationRequestPrecheck {
+
+  // 32 byte coordinates, Base64URL-encoded without padding
+  private static final int COORDINATE_LENGTH = 43;
+
+  private final WuaRequestLimitsProperties limits;
+
+  public AttestationRequestPrecheck(WuaRequestLimitsProperties limits) {
+    this.limits = limits;
+  }
+
+  /**
+   * Checks the request fields.
+   *
+   * @throws InvalidRequestException if a field is rejected
+   */
+  public void check(String jwk, String nonce) {
+    String problem = problem(jwk, nonce);
+    if (problem != null) {
+      throw new InvalidRequestException(problem);
+    }
+  }
+
+  /**
+   * Checks the request fields.
+   *
+   * @return why a field is rejected, or {@code null} if the fields pass the checks
+   */
+  public String problem(String jwk, String nonce) {
+    if (jwk == null) {
+      return "jwk is required";
+    }
+    if (jwk.length() > limits.maxJwkLength()) {
+      return "jwk exceeds " + limits.maxJwkLength() + " characters";
+    }
+    if (nonce != null && nonce.length() > limits.maxNonceLength()) {
+      return "nonce exceeds " + limits.maxNonceLength() + " characters";
+    }
+    return jwkProblem(jwk);
+  }
+
+  private static String jwkProblem(String jwk) {
+    if (!isObject(jwk)) {
+      return "jwk is not a JSON object";
+    }
+    if (!hasValue(jwk, "kty", "EC")) {
+      return "jwk kty must be EC";
+    }
+    if (!hasValue(jwk, "crv", "P-256")) {
+      return "jwk crv must be P-256";
+    }
+    if (!isCoordinate(jwk, "x") || !isCoordinate(jwk, "y")) {
+      return "jwk x and y must be " + COORDINATE_LENGTH + " character Base64URL coordinates";
+    }
+    return null;
+  }
+
+  private static boolean isObject(String json) {
+    int first = skipWhitespace(json, 0);
+    int last = json.length() - 1;
+    while (last > first && isWhitespace(json.charAt(last))) {
+      last--;
+    }
+    return first < last && json.charAt(first) == '{' && json.charAt(last) == '}';
+  }
+
+  private static boolean hasValue(String json, String name, String expected) {
+    int start = valueStart(json, name);
+    return start >= 0
+        && valueEnd(json, start) - start == expected.length()
+        && json.startsWith(expected, start);
+  }
+
+  private static boolean isCoordinate(String json, String name) {
+    int start = valueStart(json, name);
+    if (start < 0 || valueEnd(json, start) - start != COORDINATE_LENGTH) {
+      return false;
+    }
+    for (int i = start; i < start + COORDINATE_LENGTH; i++) {
+      char c = json.charAt(i);
+      if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-'
+          || c == '_')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the index of the first character of the named member's string value, or -1 if there is
+   * no such member with a string value.
+   */
+  private static int valueStart(String json, String name) {
+    int from = 0;
+    int match;
+    while ((match = json.indexOf(name, from)) >= 0) {
+      from = match + name.length();
+      if (match == 0 || json.charAt(match - 1) != '"' || from >= json.length()
+          || json.charAt(from) != '"') {
+        continue;
+      }
+      int colon = skipWhitespace(json, from + 1);
+      if (colon < json.length() && json.charAt(colon) == ':') {
+        int quote = skipWhitespace(json, colon + 1);
+        return quote < json.length() && json.charAt(quote) == '"' ? quote + 1 : -1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the index of the closing quote of a string value, or -1 if it is unterminated or uses
+   * escapes.
+   */
+  private static int valueEnd(String json, int start) {
+    for (int i = start; i < json.length(); i++) {
+      char c = json.charAt(i);
+      if (c == '"') {
+        return i;
+      }
+      if (c == '\\') {
+        return -1;
+      }
+    }
+    return -1;
+  }
+
+  private static int skipWhitespace(String json, int index) {
+    while (index < json.length() && isWhitespace(json.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+  }
+}
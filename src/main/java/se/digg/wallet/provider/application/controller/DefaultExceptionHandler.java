@@ -6,16 +6,22 @@ package se.digg.wallet.provider.application.controller;
 
 import static se.digg.wallet.provider.application.config.LoggingContextFilter.MDC_TRANSACTION_ID;
 import static se.digg.wallet.provider.application.controller.ProblemType.INTERNAL;
+import static se.digg.wallet.provider.application.controller.ProblemType.INVALID_NONCE;
+import static se.digg.wallet.provider.application.controller.ProblemType.OVERLOADED;
+import static se.digg.wallet.provider.application.controller.ProblemType.RATE_LIMITED;
 import static se.digg.wallet.provider.application.controller.ProblemType.REQUEST_ARGUMENT_NOT_VALID;
+import static se.digg.wallet.provider.application.controller.ProblemType.REQUEST_TOO_LARGE;
 import static se.digg.wallet.provider.application.controller.ProblemType.REQUEST_VALIDATION_FAILURE;
+import static se.digg.wallet.provider.application.controller.ProblemType.UNAUTHORIZED_REQUEST;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
-
-import java.net.URI;
 import java.text.MessageFormat;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,7 +42,12 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
-import se.digg.wallet.provider.api.v0.model.ProblemResponse;
+import se.digg.wallet.provider.application.config.RateLimitExceededException;
+import se.digg.wallet.provider.application.config.RequestTooLargeException;
+import se.digg.wallet.provider.application.config.UnauthorizedException;
+import se.digg.wallet.provider.application.service.InvalidNonceException;
+import se.digg.wallet.provider.application.service.SigningOverloadedException;
+import se.digg.wallet.provider.application.service.WuaIssuanceMetrics;
 
 
 @RestControllerAdvice
@@ -45,10 +56,25 @@ public class DefaultExceptionHandler extends ResponseEntityExceptionHandler {
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultExceptionHandler.class);
   private static final String ABOUT_BLANK = "about:blank";
 
+  private static final Map<ProblemType, ProblemTemplate> TEMPLATES = templates();
+  private static final ProblemTemplate MISSING_PARAMETER = ProblemTemplate.of(
+      REQUEST_ARGUMENT_NOT_VALID.getUri().toASCIIString(), HttpStatus.BAD_REQUEST.getReasonPhrase(),
+      HttpStatus.BAD_REQUEST.value());
+
+  // Problems raised by the framework, by status and title, both of which come from the framework
+  private final Map<UnmappedProblem, ProblemTemplate> unmappedTemplates =
+      new ConcurrentHashMap<>();
+
+  private record UnmappedProblem(int status, String title) {
+  }
+
   private final HttpServletRequest httpServletRequest;
+  private final WuaIssuanceMetrics issuanceMetrics;
 
-  DefaultExceptionHandler(HttpServletRequest httpServletRequest) {
+  DefaultExceptionHandler(HttpServletRequest httpServletRequest,
+      WuaIssuanceMetrics issuanceMetrics) {
     this.httpServletRequest = httpServletRequest;
+    this.issuanceMetrics = issuanceMetrics;
   }
 
   /*
@@ -62,20 +88,14 @@ public class DefaultExceptionHandler extends ResponseEntityExceptionHandler {
     var method = httpServletRequest.getMethod();
     var path = httpServletRequest.getServletPath();
 
-    var problemResponse = buildProblemResponse(REQUEST_ARGUMENT_NOT_VALID)
-        .detail(e.getLocalizedMessage())
-        .instance(URI.create(path));
-
-
-    var violations = Map.of(
+    logDebug("Request argument not valid", method, path, () -> Map.of(
         "violations",
         e.getConstraintViolations().stream().map(violation -> MessageFormat.format("{0} {1} {2}",
             violation.getRootBeanClass().getName(),
             violation.getPropertyPath().toString(),
-            violation.getMessage())).toList());
-    logDebug("Request argument not valid", method, path, violations);
+            violation.getMessage())).toList()));
 
-    return createResponseEntity(problemResponse.build());
+    return problem(REQUEST_ARGUMENT_NOT_VALID, e.getLocalizedMessage(), path);
   }
 
   /*
@@ -91,18 +111,14 @@ public class DefaultExceptionHandler extends ResponseEntityExceptionHandler {
     var method = httpServletRequest.getMethod();
     var path = httpServletRequest.getServletPath();
 
-    var problemResponse = buildProblemResponse(REQUEST_VALIDATION_FAILURE)
-        .detail("Request body field value(s) does not validate.")
-        .instance(URI.create(path));
-
-    var errors = Map.of(
+    logDebug("Input validation failure", method, path, () -> Map.of(
         "globalErrors", e.getBindingResult().getGlobalErrors().stream()
             .map(ObjectError::getDefaultMessage).toList(),
         "fieldErrors", e.getBindingResult().getFieldErrors().stream()
-            .map(FieldError::getDefaultMessage).toList());
-    logDebug("Input validation failure", method, path, errors);
+            .map(FieldError::getDefaultMessage).toList()));
 
-    return createResponseEntity(problemResponse.build());
+    return problem(REQUEST_VALIDATION_FAILURE, "Request body field value(s) does not validate.",
+        path);
   }
 
   @Override
@@ -113,19 +129,111 @@ public class DefaultExceptionHandler extends ResponseEntityExceptionHandler {
     var method = httpServletRequest.getMethod();
     var path = httpServletRequest.getServletPath();
 
-    var statusCode = HttpStatus.BAD_REQUEST;
-    var problemDetailResponse = ProblemResponse.builder()
-        .type(REQUEST_ARGUMENT_NOT_VALID.getUri())
-        .title(statusCode.getReasonPhrase())
-        .status(statusCode.value())
-        .detail(e.getMessage())
-        .instance(URI.create(httpServletRequest.getContextPath()))
-        .build();
-
+    issuanceMetrics.recordFailure(REQUEST_ARGUMENT_NOT_VALID);
     logDebug("A requested resource was not found in remote service",
-        method, path, Map.of());
+        method, path, null);
+
+    return createResponseEntity(HttpStatus.BAD_REQUEST,
+        MISSING_PARAMETER.render(e.getMessage(), httpServletRequest.getContextPath()));
+  }
+
+  /*
+   * Handle Request Too Large Exception. Occurs when a request body exceeds the configured limit.
+   */
+  @ExceptionHandler(RequestTooLargeException.class)
+  public ResponseEntity<Object> handleRequestTooLarge(RequestTooLargeException e) {
+
+    var method = httpServletRequest.getMethod();
+    var path = httpServletRequest.getServletPath();
+
+    logDebug("Request too large", method, path, null);
 
-    return createResponseEntity(problemDetailResponse);
+    return problem(REQUEST_TOO_LARGE, e.getLocalizedMessage(), path);
+  }
+
+  /*
+   * Handle Rate Limit Exceeded Exception. Occurs when a client has used up its request rate.
+   */
+  @ExceptionHandler(RateLimitExceededException.class)
+  public ResponseEntity<Object> handleRateLimitExceeded(RateLimitExceededException e) {
+
+    var method = httpServletRequest.getMethod();
+    var path = httpServletRequest.getServletPath();
+    logDebug("Rate limit exceeded", method, path, null);
+
+    issuanceMetrics.recordFailure(RATE_LIMITED);
+    return ResponseEntity
+        .status(RATE_LIMITED.getHttpStatus())
+        .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+        .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+        .body(TEMPLATES.get(RATE_LIMITED).render(e.getLocalizedMessage(), path));
+  }
+
+  /*
+   * Handle Unauthorized Exception. Occurs when a request to the admin API lacks its bearer token.
+   */
+  @ExceptionHandler(UnauthorizedException.class)
+  public ResponseEntity<Object> handleUnauthorized(UnauthorizedException e) {
+
+    var method = httpServletRequest.getMethod();
+    var path = httpServletRequest.getServletPath();
+    logWarn("Unauthorized", method, path, e);
+
+    return ResponseEntity
+        .status(UNAUTHORIZED_REQUEST.getHttpStatus())
+        .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+        .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+        .body(TEMPLATES.get(UNAUTHORIZED_REQUEST).render(e.getLocalizedMessage(), path));
+  }
+
+  /*
+   * Handle Invalid Request Exception. Occurs when a request field fails the checks made before the
+   * request reaches the service.
+   */
+  @ExceptionHandler(InvalidRequestException.class)
+  public ResponseEntity<Object> handleInvalidRequest(InvalidRequestException e) {
+
+    var method = httpServletRequest.getMethod();
+    var path = httpServletRequest.getServletPath();
+
+    logDebug("Input validation failure", method, path, null);
+
+    return problem(REQUEST_VALIDATION_FAILURE, e.getLocalizedMessage(), path);
+  }
+
+  /*
+   * Handle Invalid Nonce Exception. Occurs when nonces are enforced and a request carries one that
+   * was not issued, has expired or has been used.
+   */
+  @ExceptionHandler(InvalidNonceException.class)
+  public ResponseEntity<Object> handleInvalidNonce(InvalidNonceException e) {
+
+    var method = httpServletRequest.getMethod();
+    var path = httpServletRequest.getServletPath();
+
+    logDebug("Invalid nonce", method, path, null);
+
+    return problem(INVALID_NONCE, e.getLocalizedMessage(), path);
+  }
+
+  /*
+   * Handle Signing Overloaded Exception. Occurs when the signing executor has no room for a
+   * request.
+   */
+  @ExceptionHandler(SigningOverloadedException.class)
+  public ResponseEntity<Object> handleSigningOverloaded(SigningOverloadedException e) {
+
+    var method = httpServletRequest.getMethod();
+    var path = httpServletRequest.getServletPath();
+    logDebug("Signing overloaded", method, path, null);
+
+    issuanceMetrics.recordFailure(OVERLOADED);
+    return ResponseEntity
+        .status(OVERLOADED.getHttpStatus())
+        .header(HttpHeaders.RETRY_AFTER,
+            Long.toString(SigningOverloadedException.RETRY_AFTER_SECONDS))
+        .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+        .body(TEMPLATES.get(OVERLOADED).render(e.getLocalizedMessage(), path));
   }
 
   /*
@@ -134,41 +242,32 @@ public class DefaultExceptionHandler extends ResponseEntityExceptionHandler {
   @ExceptionHandler(RestClientException.class)
   public ResponseEntity<Object> handleRestClientException(RestClientException e) {
 
-    ProblemResponse problemResponse = null;
+    String detail;
     var method = httpServletRequest.getMethod();
     var path = httpServletRequest.getServletPath();
 
     if (e instanceof HttpClientErrorException httpClientError) {
 
       if (HttpStatus.NOT_FOUND.equals(httpClientError.getStatusCode())) {
-        problemResponse = buildProblemResponse(INTERNAL)
-            .detail("A requested resource was not found in remote service")
-            .instance(URI.create(path))
-            .build();
+        detail = "A requested resource was not found in remote service";
 
         logDebug("A requested resource was not found in remote service",
-            method, path, Map.of());
+            method, path, null);
 
       } else {
-        problemResponse = buildProblemResponse(INTERNAL)
-            .detail("Remote service failure")
-            .instance(URI.create(path))
-            .build();
+        detail = "Remote service failure";
 
         logWarn("Remote service failure", method, path, httpClientError);
       }
 
     } else {
 
-      problemResponse = buildProblemResponse(INTERNAL)
-          .detail("Remote service failure")
-          .instance(URI.create(path))
-          .build();
+      detail = "Remote service failure";
 
       logError("Remote service failure", method, path, e);
     }
 
-    return createResponseEntity(problemResponse);
+    return problem(INTERNAL, detail, path);
   }
 
   /*
@@ -179,13 +278,8 @@ public class DefaultExceptionHandler extends ResponseEntityExceptionHandler {
 
     var method = httpServletRequest.getMethod();
     var path = httpServletRequest.getServletPath();
-    var problemResponse = buildProblemResponse(INTERNAL)
-        .detail(e.getLocalizedMessage())
-        .instance(URI.create(path))
-        .build();
-
     logError("Unexpected exception", method, path, e);
-    return createResponseEntity(problemResponse);
+    return problem(INTERNAL, e.getLocalizedMessage(), path);
   }
 
   /*
@@ -195,57 +289,62 @@ public class DefaultExceptionHandler extends ResponseEntityExceptionHandler {
   protected ResponseEntity<Object> createResponseEntity(@Nullable Object body,
       HttpHeaders headers, HttpStatusCode statusCode, WebRequest request) {
 
-    var problemDetailResponse = ProblemResponse.builder()
-        .type(URI.create(ABOUT_BLANK))
-        .status(statusCode.value())
-        .instance(URI.create(request.getContextPath()));
-
+    issuanceMetrics.recordUnmappedFailure();
+    String title;
+    String detail;
     if (body instanceof ProblemDetail problemDetail) {
-      problemDetailResponse
-          .title(problemDetail.getTitle())
-          .detail(problemDetail.getDetail());
+      title = problemDetail.getTitle();
+      detail = problemDetail.getDetail();
 
     } else {
-      var title = statusCode.is4xxClientError() ? HttpStatus.BAD_REQUEST.getReasonPhrase()
+      title = statusCode.is4xxClientError() ? HttpStatus.BAD_REQUEST.getReasonPhrase()
           : HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase();
-
-      problemDetailResponse
-          .title(title)
-          .detail("unknown");
+      detail = "unknown";
     }
 
-    return createResponseEntity(problemDetailResponse.build());
+    ProblemTemplate template = unmappedTemplates.computeIfAbsent(
+        new UnmappedProblem(statusCode.value(), title),
+        problem -> ProblemTemplate.of(ABOUT_BLANK, problem.title(), problem.status()));
+    return createResponseEntity(statusCode, template.render(detail, request.getContextPath()));
   }
 
-  private ResponseEntity<Object> createResponseEntity(ProblemResponse problemResponse) {
-
+  private ResponseEntity<Object> createResponseEntity(HttpStatusCode status, byte[] problemJson) {
 
     return ResponseEntity
-        .status(problemResponse.getStatus().orElse(HttpStatus.INTERNAL_SERVER_ERROR.value()))
+        .status(status)
         .contentType(MediaType.APPLICATION_PROBLEM_JSON)
-        .body(problemResponse);
+        .body(problemJson);
   }
 
-  private ProblemResponse.Builder buildProblemResponse(ProblemType problemType) {
+  private ResponseEntity<Object> problem(ProblemType problemType, @Nullable String detail,
+      String instance) {
 
-    return ProblemResponse.builder()
-        .type(URI.create(Optional.ofNullable(problemType.getUri().toASCIIString())
-            .orElse(ABOUT_BLANK)))
-        .title(problemType.getTitle())
-        .status(problemType.getHttpStatus().value());
-  }
+    issuanceMetrics.recordFailure(problemType);
 
-  private void logDebug(String message, String method, String path,
-      @Nullable Map<String, ?> properties) {
+    return createResponseEntity(problemType.getHttpStatus(),
+        TEMPLATES.get(problemType).render(detail, instance));
+  }
 
-    logDebug(message, method, path, properties, null);
+  private static Map<ProblemType, ProblemTemplate> templates() {
+    Map<ProblemType, ProblemTemplate> templates = new EnumMap<>(ProblemType.class);
+    for (ProblemType problemType : ProblemType.values()) {
+      templates.put(problemType, ProblemTemplate.of(problemType));
+    }
+    return templates;
   }
 
+  /*
+   * The properties are only built when DEBUG is enabled.
+   */
   private void logDebug(String message, String method, String path,
-      @Nullable Map<String, ?> properties, Throwable e) {
+      @Nullable Supplier<Map<String, ?>> properties) {
 
+    if (!LOGGER.isDebugEnabled()) {
+      return;
+    }
     LOGGER.debug("{} {} {} {} transaction-id: {}", method, path, message,
-        Optional.ofNullable(properties).orElse(Map.of()), MDC.get(MDC_TRANSACTION_ID), e);
+        Optional.ofNullable(properties).map(Supplier::get).orElse(Map.of()),
+        MDC.get(MDC_TRANSACTION_ID));
   }
 
   private void logWarn(String message, String method, String path, Throwable e) {
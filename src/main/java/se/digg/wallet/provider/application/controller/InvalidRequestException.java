@@ -0,0 +1,18 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.controller;
+
+import se.digg.wallet.provider.application.config.ClientErrorException;
+
+/**
+ * Thrown when a request field is rejected before the request reaches the service. The message is
+ * returned to the client as the problem detail.
+ */
+public class InvalidRequestException extends ClientErrorException {
+
+  public InvalidRequestException(String message) {
+    super(message);
+  }
+}
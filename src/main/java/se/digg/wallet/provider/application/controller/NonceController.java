@@ -0,0 +1,33 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import se.digg.wallet.provider.api.v0.NonceApi;
+import se.digg.wallet.provider.api.v0.model.NonceResponse;
+import se.digg.wallet.provider.application.service.NonceStore;
+
+@RestController
+public class NonceController implements NonceApi {
+
+  private final NonceStore nonceStore;
+
+  public NonceController(NonceStore nonceStore) {
+    this.nonceStore = nonceStore;
+  }
+
+  @Override
+  public ResponseEntity<NonceResponse> getNonce() {
+    NonceResponse nonce = NonceResponse.builder()
+        .nonce(nonceStore.issue())
+        .expiresIn(nonceStore.ttl().toSeconds())
+        .build();
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.noStore())
+        .body(nonce);
+  }
+}
@@ -0,0 +1,80 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.controller;
+
+import java.nio.charset.StandardCharsets;
+import tools.jackson.core.io.JsonStringEncoder;
+
+/**
+ * A problem response with its fixed members, {@code status}, {@code title} and {@code type},
+ * rendered to JSON once. Rendering a response only escapes and copies in {@code detail} and
+ * {@code instance}. Members are written in the order Jackson writes {@code ProblemResponse}, so the
+ * bodies are the same as before.
+ */
+final class ProblemTemplate {
+
+  private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+  private static final byte[] DETAIL = ascii("{\"detail\":\"");
+  private static final byte[] INSTANCE_AFTER_DETAIL = ascii("\",\"instance\":\"");
+  private static final byte[] NULL_DETAIL = ascii("{\"detail\":null,\"instance\":\"");
+
+  private final byte[] suffix;
+
+  private ProblemTemplate(byte[] suffix) {
+    this.suffix = suffix;
+  }
+
+  static ProblemTemplate of(ProblemType problemType) {
+    return of(problemType.getUri().toASCIIString(), problemType.getTitle(),
+        problemType.getHttpStatus().value());
+  }
+
+  static ProblemTemplate of(String type, String title, int status) {
+    StringBuilder suffix = new StringBuilder("\",\"status\":").append(status);
+    if (title == null) {
+      suffix.append(",\"title\":null");
+    } else {
+      suffix.append(",\"title\":\"");
+      ENCODER.quoteAsString(title, suffix);
+      suffix.append('"');
+    }
+    suffix.append(",\"type\":\"");
+    ENCODER.quoteAsString(type, suffix);
+    suffix.append("\"}");
+    return new ProblemTemplate(suffix.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Renders the problem as UTF-8 JSON.
+   *
+   * @param detail the detail, may be {@code null}
+   */
+  byte[] render(String detail, String instance) {
+    byte[] encodedInstance = ENCODER.quoteAsUTF8(instance);
+    if (detail == null) {
+      return concat(NULL_DETAIL, encodedInstance, suffix);
+    }
+    return concat(DETAIL, ENCODER.quoteAsUTF8(detail), INSTANCE_AFTER_DETAIL, encodedInstance,
+        suffix);
+  }
+
+  private static byte[] concat(byte[]... parts) {
+    int length = 0;
+    for (byte[] part : parts) {
+      length += part.length;
+    }
+    byte[] json = new byte[length];
+    int position = 0;
+    for (byte[] part : parts) {
+      System.arraycopy(part, 0, json, position, part.length);
+      position += part.length;
+    }
+    return json;
+  }
+
+  private static byte[] ascii(String s) {
+    return s.getBytes(StandardCharsets.US_ASCII);
+  }
+}
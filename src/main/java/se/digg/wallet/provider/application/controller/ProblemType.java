@@ -5,7 +5,11 @@
 package se.digg.wallet.provider.application.controller;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONTENT_TOO_LARGE;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 import java.net.URI;
 import org.springframework.http.HttpStatus;
@@ -24,6 +28,35 @@ public enum ProblemType {
       URI.create("/problem-details/field-validation-failure"),
       "Validation fails when processing the request body."),
 
+  INVALID_NONCE(
+      BAD_REQUEST,
+      "Nonce not valid",
+      URI.create("/problem-details/invalid-nonce"),
+      "The nonce was not issued by GET /nonce, has expired or has already been used."),
+
+  UNAUTHORIZED_REQUEST(
+      UNAUTHORIZED,
+      "Unauthorized",
+      URI.create("/problem-details/unauthorized"),
+      "The request lacks the bearer token required by the endpoint."),
+
+  REQUEST_TOO_LARGE(
+      CONTENT_TOO_LARGE,
+      "Request too large",
+      URI.create("/problem-details/request-too-large"),
+      "The request body exceeds the size accepted by the endpoint."),
+
+  RATE_LIMITED(
+      TOO_MANY_REQUESTS,
+      "Too many requests",
+      URI.create("/problem-details/too-many-requests"),
+      "The client has exceeded its request rate, retry after the time given by Retry-After."),
+
+  OVERLOADED(
+      SERVICE_UNAVAILABLE,
+      "Service unavailable",
+      URI.create("/problem-details/service-unavailable"),
+      "The service is at its signing capacity, retry after the time given by Retry-After."),
 
   INTERNAL(
       INTERNAL_SERVER_ERROR,
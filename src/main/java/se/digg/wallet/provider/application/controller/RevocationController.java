@@ -0,0 +1,51 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.controller;
+
+import java.util.List;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import se.digg.wallet.provider.api.v0.RevocationApi;
+import se.digg.wallet.provider.api.v0.model.RevocationRequest;
+import se.digg.wallet.provider.api.v0.model.RevocationResponse;
+import se.digg.wallet.provider.application.service.RevocationResult;
+import se.digg.wallet.provider.application.service.RevocationService;
+
+@RestController
+public class RevocationController implements RevocationApi {
+
+  private final RevocationService revocationService;
+
+  public RevocationController(RevocationService revocationService) {
+    this.revocationService = revocationService;
+  }
+
+  @Override
+  public ResponseEntity<RevocationResponse> postRevocations(RevocationRequest revocationRequest) {
+    List<Long> requested = revocationRequest.getIndices();
+    long size = revocationService.size();
+    long[] indices = new long[requested == null ? 0 : requested.size()];
+    for (int i = 0; i < indices.length; i++) {
+      Long index = requested.get(i);
+      if (index == null || index < 0 || index >= size) {
+        throw new InvalidRequestException(
+            "indices[" + i + "] is not an index of the status list, 0 to " + (size - 1));
+      }
+      indices[i] = index;
+    }
+    List<String> thumbprints = revocationRequest.getThumbprints();
+    if (thumbprints == null) {
+      thumbprints = List.of();
+    } else if (thumbprints.contains(null)) {
+      throw new InvalidRequestException("thumbprints must not contain null");
+    }
+    RevocationResult result = revocationService.revoke(indices, thumbprints);
+    return ResponseEntity.ok(RevocationResponse.builder()
+        .revoked(result.revoked())
+        .unchanged(result.unchanged())
+        .unmatchedThumbprints(result.unmatchedThumbprints())
+        .build());
+  }
+}
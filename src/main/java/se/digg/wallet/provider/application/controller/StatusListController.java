@@ -0,0 +1,60 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.controller;
+
+import java.util.Optional;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import se.digg.wallet.provider.api.v0.StatusListApi;
+import se.digg.wallet.provider.application.config.WuaStatusListProperties;
+import se.digg.wallet.provider.application.service.StatusListPublisher;
+import se.digg.wallet.provider.application.service.StatusListToken;
+
+@RestController
+public class StatusListController implements StatusListApi {
+
+  static final String STATUS_LIST_CONTENT_TYPE = "application/statuslist+jwt";
+  private static final MediaType STATUS_LIST_MEDIA_TYPE =
+      MediaType.parseMediaType(STATUS_LIST_CONTENT_TYPE);
+
+  private final StatusListPublisher publisher;
+  private final CacheControl cacheControl;
+
+  public StatusListController(StatusListPublisher publisher, WuaStatusListProperties properties) {
+    this.publisher = publisher;
+    // As long as the ttl of the published list
+    this.cacheControl = CacheControl.maxAge(properties.refreshInterval()).cachePublic();
+  }
+
+  @Override
+  public ResponseEntity<byte[]> getStatusList(Optional<String> ifNoneMatch) {
+    if (!publisher.isEnabled()) {
+      return ResponseEntity.notFound().build();
+    }
+    StatusListToken token = publisher.current();
+    if (ifNoneMatch.filter(tags -> matches(tags, token.etag())).isPresent()) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(token.etag())
+          .cacheControl(cacheControl)
+          .build();
+    }
+    // The signed token is answered as published, without conversion
+    return ResponseEntity.ok()
+        .contentType(STATUS_LIST_MEDIA_TYPE)
+        .eTag(token.etag())
+        .cacheControl(cacheControl)
+        .body(token.jwt());
+  }
+
+  private static boolean matches(String ifNoneMatch, String etag) {
+    ETag current = ETag.create(etag);
+    return ETag.parse(ifNoneMatch).stream()
+        .anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
+  }
+}
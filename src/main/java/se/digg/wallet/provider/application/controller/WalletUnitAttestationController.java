@@ -4,28 +4,138 @@
 
 package se.digg.wallet.provider.application.controller;
 
-import com.nimbusds.jwt.SignedJWT;
+import static se.digg.wallet.provider.application.controller.ProblemType.INTERNAL;
+import static se.digg.wallet.provider.application.controller.ProblemType.INVALID_NONCE;
+import static se.digg.wallet.provider.application.controller.ProblemType.OVERLOADED;
+import static se.digg.wallet.provider.application.controller.ProblemType.REQUEST_VALIDATION_FAILURE;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import se.digg.wallet.provider.api.v0.WalletUnitAttestationApi;
+import se.digg.wallet.provider.api.v0.model.ProblemResponse;
+import se.digg.wallet.provider.api.v0.model.WalletUnitAttestationBatchRequest;
+import se.digg.wallet.provider.api.v0.model.WalletUnitAttestationBatchResponse;
+import se.digg.wallet.provider.api.v0.model.WalletUnitAttestationBatchResult;
 import se.digg.wallet.provider.api.v0.model.WalletUnitAttestationRequest;
+import se.digg.wallet.provider.application.service.AttestationRequest;
+import se.digg.wallet.provider.application.service.AttestationResult;
+import se.digg.wallet.provider.application.service.InvalidNonceException;
+import se.digg.wallet.provider.application.service.SignedAttestation;
+import se.digg.wallet.provider.application.service.SigningOverloadedException;
 import se.digg.wallet.provider.application.service.WalletUnitAttestationService;
+import se.digg.wallet.provider.application.service.WuaIssuanceMetrics;
+import se.digg.wallet.provider.application.service.WuaIssuanceMetrics.Phase;
 
 @RestController
 public class WalletUnitAttestationController implements WalletUnitAttestationApi {
 
+  private static final URI BATCH_INSTANCE = URI.create("/wallet-unit-attestation/batch");
+  // Fixed details, exception messages are not for clients to read
+  private static final String INVALID_JWK_DETAIL = "jwk is not a valid P-256 public key";
+  private static final String INTERNAL_DETAIL = "Could not create attestation.";
+  // Same content type as the String message converter would write
+  private static final MediaType JWT_CONTENT_TYPE =
+      new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
   private final WalletUnitAttestationService attestationService;
+  private final WuaIssuanceMetrics issuanceMetrics;
+  private final AttestationRequestPrecheck precheck;
 
-  public WalletUnitAttestationController(WalletUnitAttestationService attestationService) {
+  public WalletUnitAttestationController(WalletUnitAttestationService attestationService,
+      WuaIssuanceMetrics issuanceMetrics, AttestationRequestPrecheck precheck) {
     this.attestationService = attestationService;
+    this.issuanceMetrics = issuanceMetrics;
+    this.precheck = precheck;
   }
 
   @Override
-  public ResponseEntity<String> postWalletUnitAttestation(
-      WalletUnitAttestationRequest walletUnitAttestationRequest) {
-    SignedJWT signedJwt =
-        attestationService.createWalletUnitAttestation(walletUnitAttestationRequest.getJwk(),
-            walletUnitAttestationRequest.getNonce().orElse(null));
-    return ResponseEntity.ok(signedJwt.serialize());
+  public ResponseEntity<byte[]> postWalletUnitAttestation(
+      WalletUnitAttestationRequest walletUnitAttestationRequest, Optional<String> idempotencyKey) {
+    String jwk = walletUnitAttestationRequest.getJwk();
+    String nonce = walletUnitAttestationRequest.getNonce().orElse(null);
+    precheck.check(jwk, nonce);
+    SignedAttestation attestation =
+        attestationService.createWalletUnitAttestation(jwk, nonce, idempotencyKey.orElse(null));
+    return ResponseEntity.ok().contentType(JWT_CONTENT_TYPE).body(toBytes(attestation));
+  }
+
+  @Override
+  public ResponseEntity<WalletUnitAttestationBatchResponse> postWalletUnitAttestationBatch(
+      WalletUnitAttestationBatchRequest walletUnitAttestationBatchRequest) {
+    List<WalletUnitAttestationRequest> items = walletUnitAttestationBatchRequest.getItems();
+    // Items failing the precheck get their problem here, the others are issued by the service
+    List<String> problems = new ArrayList<>(items.size());
+    List<AttestationRequest> requests = new ArrayList<>(items.size());
+    for (WalletUnitAttestationRequest item : items) {
+      String nonce = item.getNonce().orElse(null);
+      String problem = precheck.problem(item.getJwk(), nonce);
+      problems.add(problem);
+      if (problem == null) {
+        requests.add(new AttestationRequest(item.getJwk(), nonce));
+      }
+    }
+
+    Iterator<AttestationResult> issued =
+        attestationService.createWalletUnitAttestations(requests).iterator();
+    List<WalletUnitAttestationBatchResult> results = problems.stream()
+        .map(problem -> problem == null
+            ? toBatchResult(issued.next())
+            : toBatchProblem(REQUEST_VALIDATION_FAILURE, problem))
+        .toList();
+    return ResponseEntity.ok(WalletUnitAttestationBatchResponse.builder().results(results).build());
+  }
+
+  private WalletUnitAttestationBatchResult toBatchResult(AttestationResult result) {
+    if (result.isSuccess()) {
+      return WalletUnitAttestationBatchResult.builder()
+          .jwt(serialize(result.attestation()))
+          .build();
+    }
+    Throwable failure = result.failure();
+    if (failure instanceof InvalidNonceException) {
+      return toBatchProblem(INVALID_NONCE, failure.getLocalizedMessage());
+    }
+    if (failure instanceof SigningOverloadedException) {
+      return toBatchProblem(OVERLOADED, failure.getLocalizedMessage());
+    }
+    if (failure.getCause() instanceof ParseException) {
+      return toBatchProblem(REQUEST_VALIDATION_FAILURE, INVALID_JWK_DETAIL);
+    }
+    return toBatchProblem(INTERNAL, INTERNAL_DETAIL);
+  }
+
+  private WalletUnitAttestationBatchResult toBatchProblem(ProblemType problemType, String detail) {
+    issuanceMetrics.recordFailure(problemType);
+    return WalletUnitAttestationBatchResult.builder()
+        .problem(ProblemResponse.builder()
+            .type(problemType.getUri())
+            .title(problemType.getTitle())
+            .status(problemType.getHttpStatus().value())
+            .detail(detail)
+            .instance(BATCH_INSTANCE)
+            .build())
+        .build();
+  }
+
+  /**
+   * Returns the compact JWS assembled from the encoded parts, without building the string first.
+   * The bytes are identical to {@link SignedAttestation#serialize()}.
+   */
+  private byte[] toBytes(SignedAttestation attestation) {
+    byte[] jwt = new byte[attestation.length()];
+    issuanceMetrics.timer(Phase.SERIALIZE).record(() -> attestation.writeTo(jwt));
+    return jwt;
+  }
+
+  private String serialize(SignedAttestation attestation) {
+    return issuanceMetrics.timer(Phase.SERIALIZE).record(attestation::serialize);
   }
 }
@@ -0,0 +1,253 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.digg.wallet.provider.application.config.WuaRegistryProperties;
+
+/**
+ * Registry of issued attestations in the embedded database, keyed by {@code jti} and indexed by the
+ * thumbprint of the attested key. Requests hand their entries to a lock-free ring buffer and
+ * return; a writer thread inserts them in batches, one transaction per batch, so requests never
+ * wait for the database. The {@code jti} is random, so that it reveals neither when nor in which
+ * order attestations were issued, and inserts land across the primary index. Lookups by thumbprint
+ * are answered from an index that also holds the expiry and status index, without reading the rows.
+ * Should the writer fall behind, requests wait for room in the buffer rather than lose entries.
+ * Entries that could not be written are counted as {@code wua.registry.failures}.
+ */
+@Component
+public class AttestationRegistry implements DisposableBean {
+
+  // Entries inserted per transaction, so that a backlog is worked off in few commits
+  private static final int BATCH_SIZE = 1024;
+  // Thumbprints looked up per query
+  private static final int LOOKUP_SIZE = 512;
+  private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+  private static final List<String> SCHEMA = List.of("""
+      CREATE TABLE IF NOT EXISTS issued_attestation (
+        jti UUID PRIMARY KEY,
+        key_thumbprint VARCHAR(64) NOT NULL,
+        issued_at BIGINT NOT NULL,
+        expires_at BIGINT NOT NULL,
+        status_idx BIGINT
+      )""", """
+      CREATE INDEX IF NOT EXISTS issued_attestation_key_thumbprint
+        ON issued_attestation (key_thumbprint, expires_at, status_idx)""");
+  private static final String INSERT = """
+      INSERT INTO issued_attestation (jti, key_thumbprint, issued_at, expires_at, status_idx)
+        VALUES (?, ?, ?, ?, ?)""";
+  private static final String SELECT_BY_JTI = """
+      SELECT jti, key_thumbprint, issued_at, expires_at, status_idx FROM issued_attestation
+        WHERE jti = ?""";
+  private static final String SELECT_STATUS_INDICES = """
+      SELECT key_thumbprint, status_idx FROM issued_attestation
+        WHERE key_thumbprint IN (%s) AND expires_at > ? AND status_idx IS NOT NULL""";
+
+  private final Logger log = LoggerFactory.getLogger(AttestationRegistry.class);
+  private final boolean enabled;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final MpscRingBuffer<IssuedAttestation> buffer;
+  private final Counter failures;
+  private final Thread writer;
+  private volatile boolean running = true;
+  // Entries taken from the buffer and written, or counted as failures
+  private final AtomicLong written = new AtomicLong();
+  // Value of written after the latest batch that failed
+  private final AtomicLong failedThrough = new AtomicLong();
+
+  // Owned by the writer thread
+  private final List<IssuedAttestation> batch = new ArrayList<>(BATCH_SIZE);
+  private boolean failing;
+
+  public AttestationRegistry(DataSource dataSource, WuaRegistryProperties properties,
+      MeterRegistry meterRegistry) {
+    this.enabled = properties.enabled();
+    this.jdbcTemplate = new JdbcTemplate(dataSource);
+    this.transactionTemplate = new TransactionTemplate(new JdbcTransactionManager(dataSource));
+    this.buffer = new MpscRingBuffer<>(properties.bufferSize());
+    Gauge.builder("wua.registry.pending", buffer, MpscRingBuffer::size)
+        .description("Issued attestations waiting to be registered")
+        .register(meterRegistry);
+    this.failures = Counter.builder("wua.registry.failures")
+        .description("Issued attestations that could not be registered")
+        .register(meterRegistry);
+    if (enabled) {
+      SCHEMA.forEach(jdbcTemplate::execute);
+      this.writer =
+          Thread.ofPlatform().name("wua-registry-writer").daemon().start(this::writeLoop);
+    } else {
+      this.writer = null;
+    }
+  }
+
+  /** Queues the attestation for registration, waiting only if the writer is a buffer behind. */
+  public void register(IssuedAttestation attestation) {
+    if (!enabled) {
+      return;
+    }
+    while (!buffer.offer(attestation)) {
+      if (!running) {
+        failures.increment();
+        return;
+      }
+      LockSupport.parkNanos(FULL_PARK_NANOS);
+    }
+  }
+
+  /** Returns the registered attestation with the {@code jti}. */
+  public Optional<IssuedAttestation> find(UUID jti) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    return jdbcTemplate.query(SELECT_BY_JTI, AttestationRegistry::attestation, jti).stream()
+        .findFirst();
+  }
+
+  /**
+   * Waits until the attestations queued before the call have been written, so that lookups find
+   * them.
+   *
+   * @return {@code false} if the writer did not get there within the timeout, or could not write
+   *         some of the attestations that were still queued
+   */
+  public boolean flush(Duration timeout) {
+    if (!enabled) {
+      return true;
+    }
+    long pending = written.get();
+    long queued = buffer.claimed();
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (written.get() < queued) {
+      if (!writer.isAlive() || System.nanoTime() - deadline > 0) {
+        return false;
+      }
+      LockSupport.parkNanos(FULL_PARK_NANOS);
+    }
+    return failedThrough.get() <= pending;
+  }
+
+  /**
+   * Returns the status indices of the registered attestations issued to the keys that are still
+   * valid at {@code validAt}, by thumbprint. Attestations still queued are not found, see
+   * {@link #flush(Duration)}.
+   */
+  public Map<String, List<Long>> statusIndices(Set<String> keyThumbprints, Instant validAt) {
+    Map<String, List<Long>> indices = new HashMap<>();
+    if (!enabled) {
+      return indices;
+    }
+    List<String> thumbprints = List.copyOf(keyThumbprints);
+    for (int from = 0; from < thumbprints.size(); from += LOOKUP_SIZE) {
+      List<String> chunk = thumbprints.subList(from, Math.min(from + LOOKUP_SIZE,
+          thumbprints.size()));
+      Object[] parameters = chunk.toArray(new Object[chunk.size() + 1]);
+      parameters[chunk.size()] = validAt.getEpochSecond();
+      jdbcTemplate.query(SELECT_STATUS_INDICES.formatted(
+          String.join(", ", Collections.nCopies(chunk.size(), "?"))),
+          row -> {
+            indices.computeIfAbsent(row.getString(1), thumbprint -> new ArrayList<>())
+                .add(row.getLong(2));
+          }, parameters);
+    }
+    return indices;
+  }
+
+  /** Registers the queued attestations and stops the writer. */
+  @Override
+  public void destroy() throws InterruptedException {
+    running = false;
+    if (writer != null) {
+      LockSupport.unpark(writer);
+      writer.join(SHUTDOWN_TIMEOUT);
+    }
+  }
+
+  private void writeLoop() {
+    try {
+      while (true) {
+        boolean stopping = !running;
+        if (buffer.drain(batch::add, BATCH_SIZE) > 0) {
+          insert();
+        } else if (stopping && buffer.size() == 0) {
+          break;
+        } else {
+          buffer.await(Long.MAX_VALUE);
+        }
+      }
+    } finally {
+      running = false;
+    }
+  }
+
+  private void insert() {
+    try {
+      transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, batch,
+          batch.size(), AttestationRegistry::bind));
+      failing = false;
+    } catch (RuntimeException e) {
+      // Not only data access, failing to begin a transaction also keeps the writer running
+      failedThrough.set(written.get() + batch.size());
+      failures.increment(batch.size());
+      if (!failing) {
+        log.error("Could not register {} issued attestations", batch.size(), e);
+        failing = true;
+      }
+    } finally {
+      written.addAndGet(batch.size());
+      batch.clear();
+    }
+  }
+
+  private static void bind(PreparedStatement statement, IssuedAttestation attestation)
+      throws SQLException {
+    statement.setObject(1, attestation.jti());
+    statement.setString(2, attestation.keyThumbprint());
+    statement.setLong(3, attestation.issuedAt().getEpochSecond());
+    statement.setLong(4, attestation.expiresAt().getEpochSecond());
+    if (attestation.statusIndex() < 0) {
+      statement.setNull(5, Types.BIGINT);
+    } else {
+      statement.setLong(5, attestation.statusIndex());
+    }
+  }
+
+  private static IssuedAttestation attestation(ResultSet row, int rowNumber) throws SQLException {
+    Object statusIndex = row.getObject("status_idx");
+    return new IssuedAttestation(row.getObject("jti", UUID.class),
+        row.getString("key_thumbprint"),
+        Instant.ofEpochSecond(row.getLong("issued_at")),
+        Instant.ofEpochSecond(row.getLong("expires_at")),
+        statusIndex == null ? -1 : ((Number) statusIndex).longValue());
+  }
+}
@@ -0,0 +1,11 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+/**
+ * One item of a batch issuance.
+ */
+public record AttestationRequest(String walletPublicKeyJwk, String nonce) {
+}
@@ -0,0 +1,23 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+/**
+ * Outcome of one batch item, either the attestation or the failure is set.
+ */
+public record AttestationResult(SignedAttestation attestation, RuntimeException failure) {
+
+  public static AttestationResult success(SignedAttestation attestation) {
+    return new AttestationResult(attestation, null);
+  }
+
+  public static AttestationResult failure(RuntimeException failure) {
+    return new AttestationResult(null, failure);
+  }
+
+  public boolean isSuccess() {
+    return attestation != null;
+  }
+}
@@ -0,0 +1,103 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import se.digg.wallet.provider.application.config.WuaSigningProperties;
+
+/**
+ * Fixed pool of platform threads for CPU-bound attestation signing, sized to the core count unless
+ * {@code wua.signing.threads} is set. Requests running on virtual threads hand their signing work
+ * over to this pool so that the number of concurrent signatures never exceeds the number of signing
+ * threads. At most {@code wua.signing.queue-capacity} tasks wait for a thread, beyond that work is
+ * rejected with a {@link SigningOverloadedException} rather than queued for longer than clients
+ * wait. The logging context of the caller is carried over to the signing thread.
+ */
+@Component
+public class AttestationSigningExecutor implements DisposableBean {
+
+  private final ExecutorService executor;
+  private final Timer handoffTimer;
+
+  public AttestationSigningExecutor(WuaSigningProperties signingProperties,
+      MeterRegistry meterRegistry) {
+    AtomicInteger threadNumber = new AtomicInteger();
+    int threads = signingProperties.effectiveThreads();
+    ExecutorService pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(signingProperties.queueCapacity()),
+        runnable -> {
+          Thread thread = new Thread(runnable, "wua-signing-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+    this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "wua.signing");
+    this.handoffTimer = Timer.builder("wua.signing.handoff")
+        .description("Time from handing signing work to the signing executor until it completes")
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  /**
+   * Hands the task to a signing thread.
+   *
+   * @throws SigningOverloadedException if the queue of tasks waiting for a thread is full
+   */
+  public <T> CompletableFuture<T> submit(Supplier<T> task) {
+    Map<String, String> loggingContext = MDC.getCopyOfContextMap();
+    long submitted = System.nanoTime();
+    try {
+      return CompletableFuture.supplyAsync(() -> {
+        if (loggingContext != null) {
+          MDC.setContextMap(loggingContext);
+        }
+        try {
+          return task.get();
+        } finally {
+          MDC.clear();
+          handoffTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS);
+        }
+      }, executor);
+    } catch (RejectedExecutionException e) {
+      throw new SigningOverloadedException();
+    }
+  }
+
+  /**
+   * Runs the task on a signing thread and waits for the result, rethrowing its exception.
+   *
+   * @throws SigningOverloadedException if the queue of tasks waiting for a thread is full
+   */
+  public <T> T call(Supplier<T> task) {
+    try {
+      return submit(task).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public void destroy() {
+    executor.shutdown();
+  }
+}
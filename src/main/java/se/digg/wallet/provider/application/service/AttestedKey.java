@@ -0,0 +1,14 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.jwk.ECKey;
+
+/**
+ * A parsed and validated wallet key with its RFC 7638 thumbprint and the JSON object written to the
+ * {@code attested_keys} claim.
+ */
+public record AttestedKey(ECKey key, String thumbprint, String json) {
+}
@@ -0,0 +1,72 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.text.ParseException;
+import org.springframework.stereotype.Component;
+import se.digg.wallet.provider.application.config.WuaAttestedKeyCacheProperties;
+
+/**
+ * Bounded cache of parsed wallet keys, keyed by the JWK as received. Wallets re-request
+ * attestations for the same key, a hit skips parsing, curve validation and JSON encoding. Entries
+ * are evicted by size and age, hit, miss and eviction counts are published as
+ * {@code cache.*{cache="wua.attested-keys"}}.
+ */
+@Component
+public class AttestedKeyCache {
+
+  // Longer JWKs are parsed but not cached, so the cache size bounds its memory
+  static final int MAX_CACHED_JWK_LENGTH = 2048;
+
+  private final Cache<String, AttestedKey> cache;
+
+  public AttestedKeyCache(WuaAttestedKeyCacheProperties properties, MeterRegistry meterRegistry) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(properties.maximumSize())
+        .expireAfterWrite(properties.expireAfterWrite())
+        .recordStats()
+        .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "wua.attested-keys");
+  }
+
+  /**
+   * Returns the parsed key for the JWK.
+   *
+   * @throws ParseException if the JWK is not a valid EC public key
+   */
+  public AttestedKey get(String walletPublicKeyJwk) throws ParseException {
+    AttestedKey attestedKey = cache.getIfPresent(walletPublicKeyJwk);
+    if (attestedKey != null) {
+      return attestedKey;
+    }
+    attestedKey = parse(walletPublicKeyJwk);
+    if (walletPublicKeyJwk.length() <= MAX_CACHED_JWK_LENGTH) {
+      cache.put(walletPublicKeyJwk, attestedKey);
+    }
+    return attestedKey;
+  }
+
+  static AttestedKey parse(String walletPublicKeyJwk) throws ParseException {
+    ECKey key = ECKey.parse(walletPublicKeyJwk);
+    try {
+      return new AttestedKey(key, key.computeThumbprint().toString(),
+          JSONObjectUtils.toJSONString(key.toJSONObject()));
+    } catch (JOSEException e) {
+      throw new ParseException("Could not compute JWK thumbprint: " + e.getMessage(), 0);
+    }
+  }
+
+  long estimatedSize() {
+    cache.cleanUp();
+    return cache.estimatedSize();
+  }
+}
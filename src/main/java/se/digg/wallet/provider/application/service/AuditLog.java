@@ -0,0 +1,268 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaAuditProperties;
+
+/**
+ * Append-only audit log of issued attestations, one JSON object per line. Requests hand their
+ * records to a lock-free ring buffer and return; a writer thread drains it in batches into a
+ * memory-mapped segment file, so requests neither wait for the disk nor contend on a lock. Written
+ * records are forced to disk every {@code wua.audit.sync-interval} and when a segment is full,
+ * after which the segment is truncated to its records and the next one is started. A segment left
+ * by a stopped JVM ends at its first NUL byte. Should the writer fall behind, requests wait for
+ * room in the buffer rather than lose records. Records that could not be written are counted as
+ * {@code wua.audit.failures}.
+ */
+@Component
+public class AuditLog implements DisposableBean {
+
+  // Records drained at a time, so that syncs are not held up by a backlog
+  private static final int BATCH_SIZE = 1024;
+  private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+  private static final String SEGMENT_PREFIX = "audit-";
+  private static final DateTimeFormatter SEGMENT_TIME =
+      DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS'Z'").withZone(ZoneOffset.UTC);
+
+  private final Logger log = LoggerFactory.getLogger(AuditLog.class);
+  private final boolean enabled;
+  private final Path directory;
+  private final int segmentSize;
+  private final long syncIntervalNanos;
+  private final MpscRingBuffer<AuditRecord> buffer;
+  private final Counter failures;
+  private final Thread writer;
+  private volatile boolean running = true;
+
+  // Owned by the writer thread
+  private final StringBuilder line = new StringBuilder(256);
+  private Segment segment;
+  private int segmentSequence;
+  private boolean failing;
+
+  public AuditLog(WuaAuditProperties properties, MeterRegistry meterRegistry) {
+    this.enabled = properties.enabled();
+    this.directory = properties.directory();
+    this.segmentSize = (int) Math.min(Integer.MAX_VALUE, properties.segmentSize().toBytes());
+    this.syncIntervalNanos = properties.syncInterval().toNanos();
+    this.buffer = new MpscRingBuffer<>(properties.bufferSize());
+    Gauge.builder("wua.audit.pending", buffer, MpscRingBuffer::size)
+        .description("Audit records waiting to be written")
+        .register(meterRegistry);
+    this.failures = Counter.builder("wua.audit.failures")
+        .description("Audit records that could not be written")
+        .register(meterRegistry);
+    this.writer = enabled ? startWriter() : null;
+  }
+
+  /** Queues the record for writing, waiting only if the writer has fallen a full buffer behind. */
+  public void append(AuditRecord record) {
+    if (!enabled) {
+      return;
+    }
+    while (!buffer.offer(record)) {
+      if (!running) {
+        failures.increment();
+        return;
+      }
+      LockSupport.parkNanos(FULL_PARK_NANOS);
+    }
+  }
+
+  /** Writes the queued records, syncs and closes the segment. */
+  @Override
+  public void destroy() throws InterruptedException {
+    running = false;
+    if (writer != null) {
+      LockSupport.unpark(writer);
+      writer.join(SHUTDOWN_TIMEOUT);
+    }
+  }
+
+  private Thread startWriter() {
+    try {
+      Files.createDirectories(directory);
+      segment = openSegment();
+    } catch (IOException e) {
+      throw new WalletRuntimeException(
+          "Could not open audit log in " + directory.toAbsolutePath(), e);
+    }
+    return Thread.ofPlatform().name("wua-audit-writer").daemon().start(this::writeLoop);
+  }
+
+  private void writeLoop() {
+    try {
+      long nextSync = System.nanoTime() + syncIntervalNanos;
+      while (true) {
+        boolean stopping = !running;
+        int drained = buffer.drain(this::write, BATCH_SIZE);
+        long now = System.nanoTime();
+        if (now - nextSync >= 0) {
+          sync();
+          nextSync = now + syncIntervalNanos;
+        }
+        if (drained == 0) {
+          if (stopping && buffer.size() == 0) {
+            break;
+          }
+          // Until the next record, or the next sync
+          buffer.await(nextSync - now);
+        }
+      }
+    } finally {
+      running = false;
+      closeSegment();
+    }
+  }
+
+  private void write(AuditRecord record) {
+    byte[] bytes = encode(record);
+    try {
+      if (segment == null || segment.remaining() < bytes.length) {
+        closeSegment();
+        segment = openSegment();
+      }
+      segment.put(bytes);
+      failing = false;
+    } catch (IOException | UncheckedIOException | InternalError e) {
+      // A mapped write that faults, e.g. on a full disk, is reported as an InternalError
+      failures.increment();
+      if (!failing) {
+        log.error("Could not write audit records to {}", directory.toAbsolutePath(), e);
+        failing = true;
+      }
+    }
+  }
+
+  private void sync() {
+    if (segment == null) {
+      return;
+    }
+    try {
+      segment.sync();
+    } catch (UncheckedIOException e) {
+      log.error("Could not sync audit segment {}", segment.path, e);
+    }
+  }
+
+  private void closeSegment() {
+    if (segment == null) {
+      return;
+    }
+    try {
+      segment.close();
+    } catch (IOException | UncheckedIOException e) {
+      log.error("Could not close audit segment {}", segment.path, e);
+    } finally {
+      segment = null;
+    }
+  }
+
+  private Segment openSegment() throws IOException {
+    // Named to sort in the order written
+    Path path = directory.resolve(SEGMENT_PREFIX + "%s-%06d.jsonl"
+        .formatted(SEGMENT_TIME.format(Instant.now()), segmentSequence++));
+    return new Segment(path, segmentSize);
+  }
+
+  private byte[] encode(AuditRecord record) {
+    line.setLength(0);
+    line.append("{\"issued_at\":\"").append(record.issuedAt())
+        .append("\",\"expires_at\":\"").append(record.expiresAt())
+        .append("\",\"key_thumbprint\":");
+    appendString(record.keyThumbprint());
+    line.append(",\"correlation_id\":");
+    appendString(record.correlationId());
+    line.append(",\"status_idx\":");
+    if (record.statusIndex() < 0) {
+      line.append("null");
+    } else {
+      line.append(record.statusIndex());
+    }
+    return line.append("}\n").toString().getBytes(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Appends the value as a JSON string. Thumbprints and correlation ids are Base64URL and validated
+   * tokens, anything else is replaced rather than escaped.
+   */
+  private void appendString(String value) {
+    if (value == null) {
+      line.append("null");
+      return;
+    }
+    line.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      line.append(c >= 0x20 && c < 0x7f && c != '"' && c != '\\' ? c : '?');
+    }
+    line.append('"');
+  }
+
+  /** A segment file mapped in full, written from the start. */
+  private static final class Segment {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int synced;
+
+    Segment(Path path, int size) throws IOException {
+      this.path = path;
+      this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+          StandardOpenOption.READ, StandardOpenOption.WRITE);
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    int remaining() {
+      return buffer.remaining();
+    }
+
+    void put(byte[] bytes) {
+      buffer.put(bytes);
+    }
+
+    void sync() {
+      int position = buffer.position();
+      if (position > synced) {
+        buffer.force(synced, position - synced);
+        synced = position;
+      }
+    }
+
+    void close() throws IOException {
+      try {
+        sync();
+        channel.truncate(buffer.position());
+        channel.force(true);
+      } finally {
+        channel.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,21 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import java.time.Instant;
+
+/**
+ * Audit record of an issued attestation.
+ *
+ * @param correlationId correlation id of the request, {@code null} outside of a request
+ * @param statusIndex index of the attestation in its status list, negative if it has none
+ */
+public record AuditRecord(
+    Instant issuedAt,
+    Instant expiresAt,
+    String keyThumbprint,
+    String correlationId,
+    long statusIndex) {
+}
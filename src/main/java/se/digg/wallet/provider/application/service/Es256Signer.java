@@ -0,0 +1,114 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.impl.ECDSA;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.util.Base64URL;
+import java.security.DrbgParameters;
+import java.security.DrbgParameters.Capability;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.security.Provider;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.ECPrivateKey;
+import java.util.Set;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+
+/**
+ * ES256 signer bound to one signing key. Unlike {@code ECDSASigner}, which looks up and initializes
+ * a new JCA {@code Signature} for every token, each thread keeps its own {@code Signature}
+ * initialized with the key, {@code sign()} resets it for the next token. Each {@code Signature}
+ * also gets its own DRBG for the ECDSA nonces, instead of the JCA default {@code SecureRandom}
+ * shared by all threads.
+ */
+public final class Es256Signer implements JWSSigner {
+
+  private static final String ALGORITHM = "SHA256withECDSA";
+  private static final int SIGNATURE_LENGTH = 64;
+  // 128 bits of security for P-256, seeded from the system entropy source once per thread
+  private static final DrbgParameters.Instantiation DRBG_PARAMETERS =
+      DrbgParameters.instantiation(128, Capability.NONE, null);
+
+  private final ECPrivateKey signingKey;
+  private final Provider provider;
+  private final JCAContext jcaContext;
+  private final ThreadLocal<Signature> signatures;
+
+  /**
+   * Creates a signer for the key.
+   *
+   * @param providerName name of the JCA provider to sign with, the JCA default when blank
+   */
+  public Es256Signer(ECPrivateKey signingKey, String providerName) {
+    this.signingKey = signingKey;
+    this.provider = resolveProvider(providerName);
+    this.jcaContext = new JCAContext(provider, null);
+    this.signatures = ThreadLocal.withInitial(this::newSignature);
+    // Fail on startup rather than on the first token if the provider cannot sign with the key
+    newSignature();
+  }
+
+  @Override
+  public Base64URL sign(JWSHeader header, byte[] signingInput) throws JOSEException {
+    if (!JWSAlgorithm.ES256.equals(header.getAlgorithm())) {
+      throw new JOSEException("Unsupported JWS algorithm " + header.getAlgorithm());
+    }
+    Signature signature = signatures.get();
+    try {
+      signature.update(signingInput);
+      byte[] der = signature.sign();
+      return Base64URL.encode(ECDSA.transcodeSignatureToConcat(der, SIGNATURE_LENGTH));
+    } catch (SignatureException e) {
+      // Leave the possibly inconsistent instance behind
+      signatures.remove();
+      throw new JOSEException(e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+    return Set.of(JWSAlgorithm.ES256);
+  }
+
+  @Override
+  public JCAContext getJCAContext() {
+    return jcaContext;
+  }
+
+  public String providerName() {
+    return provider == null ? null : provider.getName();
+  }
+
+  private Signature newSignature() {
+    try {
+      Signature signature = provider == null
+          ? Signature.getInstance(ALGORITHM)
+          : Signature.getInstance(ALGORITHM, provider);
+      signature.initSign(signingKey, SecureRandom.getInstance("DRBG", DRBG_PARAMETERS));
+      return signature;
+    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+      throw new WalletRuntimeException("Could not initialize ES256 signature", e);
+    }
+  }
+
+  private static Provider resolveProvider(String providerName) {
+    if (providerName == null || providerName.isBlank()) {
+      return null;
+    }
+    Provider provider = Security.getProvider(providerName);
+    if (provider == null) {
+      throw new WalletRuntimeException("JCA provider " + providerName + " is not installed");
+    }
+    return provider;
+  }
+}
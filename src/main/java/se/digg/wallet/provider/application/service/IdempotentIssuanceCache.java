@@ -0,0 +1,89 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import se.digg.wallet.provider.application.config.WuaIdempotencyProperties;
+
+/**
+ * Short-lived cache of issued attestations keyed by the {@code Idempotency-Key} header, the JWK and
+ * the nonce. Without the header, requests are keyed by JWK and nonce alone unless
+ * {@code wua.idempotency.implicit-keying} is off. Concurrent identical requests wait for the one
+ * signing operation in flight, retries within the TTL get the same attestation. Failures are not
+ * cached.
+ */
+@Component
+public class IdempotentIssuanceCache {
+
+  static final int MAX_KEY_LENGTH = 255;
+
+  private final AsyncCache<IssuanceKey, SignedAttestation> cache;
+  private final boolean implicitKeying;
+
+  public IdempotentIssuanceCache(WuaIdempotencyProperties properties,
+      MeterRegistry meterRegistry) {
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(properties.maximumSize())
+        .expireAfterWrite(properties.ttl())
+        .recordStats()
+        .buildAsync();
+    this.implicitKeying = properties.implicitKeying();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "wua.idempotency");
+  }
+
+  /**
+   * Returns the attestation for the request, issuing it with {@code issuer} on the calling thread
+   * unless an identical request is cached or in flight.
+   */
+  public SignedAttestation get(String idempotencyKey, String walletPublicKeyJwk, String nonce,
+      Supplier<SignedAttestation> issuer) {
+    if (idempotencyKey == null ? !implicitKeying : idempotencyKey.length() > MAX_KEY_LENGTH) {
+      return issuer.get();
+    }
+    if (walletPublicKeyJwk.length() > AttestedKeyCache.MAX_CACHED_JWK_LENGTH) {
+      return issuer.get();
+    }
+    IssuanceKey key = new IssuanceKey(idempotencyKey, walletPublicKeyJwk, nonce);
+    CompletableFuture<SignedAttestation> issuance = new CompletableFuture<>();
+    CompletableFuture<SignedAttestation> inFlight = cache.asMap().putIfAbsent(key, issuance);
+    if (inFlight == null) {
+      return issue(key, issuance, issuer);
+    }
+    try {
+      return inFlight.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private SignedAttestation issue(IssuanceKey key, CompletableFuture<SignedAttestation> issuance,
+      Supplier<SignedAttestation> issuer) {
+    // Issued on the calling thread, not by the cache's executor, so that a retry after a failure
+    // never finds the failed issuance still cached
+    try {
+      SignedAttestation attestation = issuer.get();
+      issuance.complete(attestation);
+      return attestation;
+    } catch (RuntimeException | Error e) {
+      // Waiting requests fail with it too
+      cache.asMap().remove(key, issuance);
+      issuance.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  private record IssuanceKey(String idempotencyKey, String walletPublicKeyJwk, String nonce) {
+  }
+}
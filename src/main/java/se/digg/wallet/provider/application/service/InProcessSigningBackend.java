@@ -0,0 +1,27 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.util.Base64URL;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Signs with the private key loaded from the keystore into this process.
+ */
+@Component
+@ConditionalOnProperty(name = "wua.signing.backend", havingValue = "in-process",
+    matchIfMissing = true)
+public class InProcessSigningBackend implements SigningBackend {
+
+  @Override
+  public Base64URL sign(WuaSigningContext context, byte[] signingInput) throws JOSEException {
+    if (context.signer() == null) {
+      throw new JOSEException("No private key for alias " + context.alias() + " in keystore");
+    }
+    return context.signer().sign(context.header(), signingInput);
+  }
+}
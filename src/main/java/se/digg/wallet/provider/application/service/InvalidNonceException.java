@@ -0,0 +1,18 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import se.digg.wallet.provider.application.config.ClientErrorException;
+
+/**
+ * Thrown when a request carries a nonce that was not issued by the {@link NonceStore}, has expired
+ * or has been used already. The message is returned to the client as the problem detail.
+ */
+public class InvalidNonceException extends ClientErrorException {
+
+  public InvalidNonceException() {
+    super("nonce is unknown, expired or already used");
+  }
+}
@@ -0,0 +1,21 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An issued attestation as registered, its times to the second as in its claims.
+ *
+ * @param statusIndex index of the attestation in its status list, negative if it has none
+ */
+public record IssuedAttestation(
+    UUID jti,
+    String keyThumbprint,
+    Instant issuedAt,
+    Instant expiresAt,
+    long statusIndex) {
+}
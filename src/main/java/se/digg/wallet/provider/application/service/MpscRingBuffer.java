@@ -0,0 +1,103 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer. A producer claims a slot by
+ * advancing the producer index and then publishes its element into the slot; the consumer takes
+ * elements in claim order and stops at a claimed slot not yet published. A consumer out of elements
+ * can park until a producer publishes the next one.
+ */
+final class MpscRingBuffer<E> {
+
+  private final AtomicReferenceArray<E> slots;
+  private final int mask;
+  private final AtomicLong producerIndex = new AtomicLong();
+  // Written by the consumer only
+  private final AtomicLong consumerIndex = new AtomicLong();
+  // The consumer while it is in await
+  private volatile Thread waiter;
+
+  /** Creates a buffer of at least the given capacity, rounded up to a power of two. */
+  MpscRingBuffer(int capacity) {
+    int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+    this.slots = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+  }
+
+  /** Adds the element, returns {@code false} without adding it if the buffer is full. */
+  boolean offer(E element) {
+    long index;
+    do {
+      index = producerIndex.get();
+      if (index - consumerIndex.get() >= slots.length()) {
+        return false;
+      }
+    } while (!producerIndex.compareAndSet(index, index + 1));
+    // Volatile, so that either the producer sees the waiter or the waiter sees the element
+    slots.set((int) index & mask, element);
+    Thread consumer = waiter;
+    if (consumer != null) {
+      LockSupport.unpark(consumer);
+    }
+    return true;
+  }
+
+  /**
+   * Parks the consumer until the next element is published, it is unparked or the timeout has
+   * passed, returning at once if the element is there. Called from the consumer thread only.
+   */
+  void await(long timeoutNanos) {
+    waiter = Thread.currentThread();
+    if (slots.get((int) consumerIndex.getPlain() & mask) == null) {
+      LockSupport.parkNanos(this, timeoutNanos);
+    }
+    waiter = null;
+  }
+
+  /**
+   * Passes up to {@code limit} elements to the consumer, in the order their slots were claimed.
+   * Called from the consumer thread only.
+   *
+   * @return the number of elements drained
+   */
+  int drain(Consumer<E> consumer, int limit) {
+    long index = consumerIndex.getPlain();
+    int drained = 0;
+    while (drained < limit) {
+      int slot = (int) index & mask;
+      E element = slots.getAcquire(slot);
+      if (element == null) {
+        break;
+      }
+      slots.setPlain(slot, null);
+      index++;
+      drained++;
+      // Free the slot before handing over the element, in case the consumer throws
+      consumerIndex.setRelease(index);
+      consumer.accept(element);
+    }
+    return drained;
+  }
+
+  /** Returns the number of elements claimed and not yet drained. */
+  int size() {
+    return (int) Math.max(0, producerIndex.get() - consumerIndex.get());
+  }
+
+  /** Returns the number of elements ever claimed, drained or not. */
+  long claimed() {
+    return producerIndex.get();
+  }
+
+  int capacity() {
+    return slots.length();
+  }
+}
@@ -0,0 +1,356 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.ByteBuffer;
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.random.RandomGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaNonceProperties;
+
+/**
+ * Issues short-lived nonces and redeems each of them once. A nonce is a random 64-bit id followed
+ * by its expiry in epoch seconds, so expired and malformed nonces are rejected without a lookup.
+ * Live nonces are kept in segments, each locked on its own, holding primitive arrays only: an
+ * open-addressing table of ids and a time wheel with one slot per tick, chaining the nonces that
+ * expire in the tick. Issuing and redeeming are O(1), and advancing the wheel frees the nonces of
+ * the ticks passed. The arrays are allocated up front for {@code maximumSize} nonces, about 28
+ * bytes each, and hold no references, so the collector neither traces nor copies them entry by
+ * entry. When a segment is full its nonce closest to expiry is evicted, counted as
+ * {@code wua.nonce.store.evictions}.
+ */
+@Component
+public class NonceStore {
+
+  // 8 byte id and 4 byte expiry, Base64URL encoded
+  static final int NONCE_LENGTH = 16;
+
+  private static final int SEGMENTS = 64;
+  private static final int SEGMENT_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(SEGMENTS);
+  // Longer time to live makes ticks longer rather than the wheel larger
+  private static final int MAXIMUM_WHEEL_TICKS = 1024;
+  private static final int NONE = -1;
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final boolean enforced;
+  private final Duration ttl;
+  private final long ttlSeconds;
+  private final long tickSeconds;
+  private final LongSupplier epochSeconds;
+  private final RandomGenerator random;
+  private final Segment[] segments = new Segment[SEGMENTS];
+  private final Counter evictions;
+
+  @Autowired
+  public NonceStore(WuaNonceProperties properties, MeterRegistry meterRegistry) {
+    this(properties, meterRegistry, () -> System.currentTimeMillis() / 1000, secureRandom());
+  }
+
+  NonceStore(WuaNonceProperties properties, MeterRegistry meterRegistry,
+      LongSupplier epochSeconds, RandomGenerator random) {
+    this.enforced = properties.enforced();
+    this.ttl = properties.ttl();
+    this.ttlSeconds = ttl.toSeconds();
+    this.tickSeconds = Math.ceilDiv(ttlSeconds, MAXIMUM_WHEEL_TICKS);
+    this.epochSeconds = epochSeconds;
+    this.random = random;
+    // Live expiries span at most this many ticks, plus one so that the current tick is not reused
+    int wheelTicks = (int) Math.ceilDiv(ttlSeconds, tickSeconds) + 2;
+    int segmentCapacity = Math.ceilDiv(properties.maximumSize(), SEGMENTS);
+    long tick = epochSeconds.getAsLong() / tickSeconds;
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment(segmentCapacity, wheelTicks, tick);
+    }
+    Gauge.builder("wua.nonce.store.size", this, NonceStore::size)
+        .description("Nonces issued and neither redeemed nor expired")
+        .register(meterRegistry);
+    this.evictions = Counter.builder("wua.nonce.store.evictions")
+        .description("Nonces evicted before expiry to make room for new ones")
+        .register(meterRegistry);
+  }
+
+  /** Returns whether requests may only carry nonces issued by this store. */
+  public boolean isEnforced() {
+    return enforced;
+  }
+
+  public Duration ttl() {
+    return ttl;
+  }
+
+  /** Issues a nonce, valid for {@link #ttl()} and redeemable once. */
+  public String issue() {
+    long now = epochSeconds.getAsLong();
+    int expiry = (int) (now + ttlSeconds);
+    while (true) {
+      long id = random.nextLong();
+      Segment segment = segment(id);
+      segment.lock.lock();
+      try {
+        segment.advance(now);
+        if (segment.isFull()) {
+          segment.evictClosestToExpiry();
+          evictions.increment();
+        }
+        if (segment.insert(id, expiry)) {
+          return encode(id, expiry);
+        }
+        // The id is live already, draw another
+      } finally {
+        segment.lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Returns whether the nonce was issued by this store and is neither expired nor redeemed, without
+   * redeeming it.
+   */
+  public boolean isLive(String nonce) {
+    return find(nonce, false);
+  }
+
+  /**
+   * Redeems a nonce.
+   *
+   * @return {@code false} if the nonce was not issued by this store, has expired or has been
+   *         redeemed already
+   */
+  public boolean redeem(String nonce) {
+    return find(nonce, true);
+  }
+
+  private boolean find(String nonce, boolean remove) {
+    if (nonce == null || nonce.length() != NONCE_LENGTH) {
+      return false;
+    }
+    ByteBuffer decoded;
+    try {
+      decoded = ByteBuffer.wrap(DECODER.decode(nonce));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    long id = decoded.getLong();
+    int expiry = decoded.getInt();
+    long now = epochSeconds.getAsLong();
+    long expiresAt = Integer.toUnsignedLong(expiry);
+    if (expiresAt < now || expiresAt > now + ttlSeconds) {
+      return false;
+    }
+    Segment segment = segment(id);
+    segment.lock.lock();
+    try {
+      segment.advance(now);
+      int index = segment.find(id, expiry);
+      if (index == NONE) {
+        return false;
+      }
+      if (remove) {
+        segment.removeAt(index);
+      }
+      return true;
+    } finally {
+      segment.lock.unlock();
+    }
+  }
+
+  /** Returns the number of live nonces, read without locking. */
+  int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      size += segment.size;
+    }
+    return size;
+  }
+
+  private Segment segment(long id) {
+    // The table of a segment is indexed by the low bits, segments by the high ones
+    return segments[(int) (id >>> SEGMENT_SHIFT)];
+  }
+
+  private static String encode(long id, int expiry) {
+    return ENCODER.encodeToString(ByteBuffer.allocate(12).putLong(id).putInt(expiry).array());
+  }
+
+  private static SecureRandom secureRandom() {
+    try {
+      return SecureRandom.getInstance("DRBG",
+          DrbgParameters.instantiation(128, DrbgParameters.Capability.NONE, null));
+    } catch (NoSuchAlgorithmException e) {
+      throw new WalletRuntimeException(e);
+    }
+  }
+
+  /**
+   * Live nonces of a segment. Entries are slots in the per-entry arrays, unused ones are chained
+   * through {@code next} from {@code free}. Ids are random, so their low bits index the table
+   * without further hashing.
+   */
+  private final class Segment {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final long[] ids;
+    private final int[] expiries;
+    // Wheel slot chains, and the free chain through next
+    private final int[] next;
+    private final int[] previous;
+    // Entry + 1 by id, linear probing, 0 is empty
+    private final int[] table;
+    private final int mask;
+    // First entry of each tick's chain
+    private final int[] wheel;
+    private int free;
+    private int size;
+    private long tick;
+
+    Segment(int capacity, int wheelTicks, long tick) {
+      this.ids = new long[capacity];
+      this.expiries = new int[capacity];
+      this.next = new int[capacity];
+      this.previous = new int[capacity];
+      // At most half full, keeping probe sequences short
+      this.table = new int[Integer.highestOneBit(capacity * 2 - 1) * 2];
+      this.mask = table.length - 1;
+      this.wheel = new int[wheelTicks];
+      Arrays.fill(wheel, NONE);
+      for (int i = 0; i < capacity; i++) {
+        next[i] = i + 1;
+      }
+      next[capacity - 1] = NONE;
+      this.tick = tick;
+    }
+
+    boolean isFull() {
+      return free == NONE;
+    }
+
+    /** Frees the nonces of the ticks that have passed. */
+    void advance(long now) {
+      long currentTick = now / tickSeconds;
+      for (long passed = tick; passed < currentTick && passed < tick + wheel.length; passed++) {
+        int slot = slot(passed);
+        int entry = wheel[slot];
+        while (entry != NONE) {
+          int following = next[entry];
+          if (Integer.toUnsignedLong(expiries[entry]) < now) {
+            removeEntry(entry);
+          }
+          entry = following;
+        }
+      }
+      tick = Math.max(tick, currentTick);
+    }
+
+    boolean insert(long id, int expiry) {
+      int index = (int) id & mask;
+      int found;
+      while ((found = table[index]) != 0) {
+        if (ids[found - 1] == id) {
+          return false;
+        }
+        index = (index + 1) & mask;
+      }
+      int entry = free;
+      free = next[entry];
+      ids[entry] = id;
+      expiries[entry] = expiry;
+      table[index] = entry + 1;
+      int slot = slot(Integer.toUnsignedLong(expiry) / tickSeconds);
+      int first = wheel[slot];
+      next[entry] = first;
+      previous[entry] = NONE;
+      if (first != NONE) {
+        previous[first] = entry;
+      }
+      wheel[slot] = entry;
+      size++;
+      return true;
+    }
+
+    /** Returns the table index of the nonce, {@code NONE} if it is not live. */
+    int find(long id, int expiry) {
+      int index = (int) id & mask;
+      int found;
+      while ((found = table[index]) != 0) {
+        int entry = found - 1;
+        if (ids[entry] == id) {
+          return expiries[entry] == expiry ? index : NONE;
+        }
+        index = (index + 1) & mask;
+      }
+      return NONE;
+    }
+
+    void evictClosestToExpiry() {
+      for (long ahead = tick; ahead < tick + wheel.length; ahead++) {
+        int entry = wheel[slot(ahead)];
+        if (entry != NONE) {
+          removeEntry(entry);
+          return;
+        }
+      }
+    }
+
+    private void removeEntry(int entry) {
+      int index = (int) ids[entry] & mask;
+      while (table[index] != entry + 1) {
+        index = (index + 1) & mask;
+      }
+      removeAt(index);
+    }
+
+    /** Removes the entry at the table index, from the table, its wheel slot and into free. */
+    private void removeAt(int index) {
+      int entry = table[index] - 1;
+      // Shift later entries of the probe sequence back into the hole, so no tombstones are needed
+      int hole = index;
+      int probe = index;
+      while (true) {
+        probe = (probe + 1) & mask;
+        int found = table[probe];
+        if (found == 0) {
+          break;
+        }
+        int home = (int) ids[found - 1] & mask;
+        if (((probe - home) & mask) >= ((probe - hole) & mask)) {
+          table[hole] = found;
+          hole = probe;
+        }
+      }
+      table[hole] = 0;
+
+      int before = previous[entry];
+      int after = next[entry];
+      if (before == NONE) {
+        wheel[slot(Integer.toUnsignedLong(expiries[entry]) / tickSeconds)] = after;
+      } else {
+        next[before] = after;
+      }
+      if (after != NONE) {
+        previous[after] = before;
+      }
+      next[entry] = free;
+      free = entry;
+      size--;
+    }
+
+    private int slot(long tick) {
+      return (int) (tick % wheel.length);
+    }
+  }
+}
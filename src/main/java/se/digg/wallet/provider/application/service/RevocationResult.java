@@ -0,0 +1,12 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+/**
+ * Outcome of a revocation: the indices newly revoked, those already revoked or given more than
+ * once, and the thumbprints without an unexpired attestation.
+ */
+public record RevocationResult(long revoked, long unchanged, long unmatchedThumbprints) {
+}
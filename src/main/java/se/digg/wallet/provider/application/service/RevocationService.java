@@ -0,0 +1,100 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+
+/**
+ * Revokes issued attestations by their status list indices, or by the thumbprints of their wallet
+ * keys as registered in the {@link AttestationRegistry}. All indices of a request are marked in one
+ * pass over the {@link StatusList} and forced to disk before it returns. The list is then
+ * republished once for all revocations made before the refresh starts. The default registry is an
+ * embedded database of the instance, in which thumbprints only match attestations it issued.
+ */
+@Service
+public class RevocationService {
+
+  private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(10);
+
+  private final Logger log = LoggerFactory.getLogger(RevocationService.class);
+  private final StatusList statusList;
+  private final StatusListPublisher publisher;
+  private final AttestationRegistry attestationRegistry;
+  private final Clock clock;
+  private final Counter revoked;
+
+  @Autowired
+  public RevocationService(StatusList statusList, StatusListPublisher publisher,
+      AttestationRegistry attestationRegistry, MeterRegistry meterRegistry) {
+    this(statusList, publisher, attestationRegistry, meterRegistry, Clock.systemUTC());
+  }
+
+  RevocationService(StatusList statusList, StatusListPublisher publisher,
+      AttestationRegistry attestationRegistry, MeterRegistry meterRegistry, Clock clock) {
+    this.statusList = statusList;
+    this.publisher = publisher;
+    this.attestationRegistry = attestationRegistry;
+    this.clock = clock;
+    this.revoked = Counter.builder("wua.status.revoked")
+        .description("Status list indices revoked")
+        .register(meterRegistry);
+  }
+
+  /** Returns the number of indices of the status list. */
+  public long size() {
+    return statusList.size();
+  }
+
+  /**
+   * Revokes the attestations at the indices and the unexpired ones issued to the keys.
+   *
+   * @throws IllegalArgumentException if an index is outside of the status list, nothing is revoked
+   * @throws WalletRuntimeException if the registry is behind on attestations already issued,
+   *         nothing is revoked
+   */
+  public RevocationResult revoke(long[] indices, Collection<String> keyThumbprints) {
+    Set<String> thumbprints = Set.copyOf(keyThumbprints);
+    // Attestations issued just before must not escape revocation by waiting in the writer's queue
+    if (!thumbprints.isEmpty() && !attestationRegistry.flush(FLUSH_TIMEOUT)) {
+      throw new WalletRuntimeException(
+          "Issued attestations are not yet registered, nothing was revoked");
+    }
+    Map<String, List<Long>> issued = thumbprints.isEmpty() ? Map.of()
+        : attestationRegistry.statusIndices(thumbprints, Instant.now(clock));
+    long[] all = indices;
+    if (!issued.isEmpty()) {
+      all = new long[indices.length + issued.values().stream().mapToInt(List::size).sum()];
+      System.arraycopy(indices, 0, all, 0, indices.length);
+      int next = indices.length;
+      for (List<Long> values : issued.values()) {
+        for (long index : values) {
+          all[next++] = index;
+        }
+      }
+    }
+    long changed = statusList.invalidate(all);
+    if (changed > 0) {
+      statusList.force();
+      publisher.requestRefresh();
+      revoked.increment(changed);
+    }
+    log.info("Revoked {} status indices, {} unchanged", changed, all.length - changed);
+    return new RevocationResult(changed, all.length - changed,
+        thumbprints.size() - issued.size());
+  }
+}
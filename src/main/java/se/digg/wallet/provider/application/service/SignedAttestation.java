@@ -0,0 +1,64 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEObject;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.SignedJWT;
+import java.text.ParseException;
+
+/**
+ * A signed Wallet Unit Attestation kept as its three encoded JWS parts.
+ */
+public record SignedAttestation(Base64URL header, Base64URL claims, Base64URL signature) {
+
+  public static SignedAttestation parse(String compactJws) throws ParseException {
+    Base64URL[] parts = JOSEObject.split(compactJws);
+    if (parts.length != 3) {
+      throw new ParseException("Unexpected number of Base64URL parts, must be three", 0);
+    }
+    return new SignedAttestation(parts[0], parts[1], parts[2]);
+  }
+
+  /**
+   * Returns the compact serialization of the attestation.
+   */
+  public String serialize() {
+    return header + "." + claims + "." + signature;
+  }
+
+  /**
+   * Returns the length in bytes of the compact serialization.
+   */
+  public int length() {
+    return header.toString().length() + claims.toString().length()
+        + signature.toString().length() + 2;
+  }
+
+  /**
+   * Writes the compact serialization as ASCII into {@code buffer}, which must hold at least
+   * {@link #length()} bytes, without building the intermediate string.
+   *
+   * @return the number of bytes written
+   */
+  public int writeTo(byte[] buffer) {
+    int position = copy(header.toString(), buffer, 0);
+    buffer[position++] = '.';
+    position = copy(claims.toString(), buffer, position);
+    buffer[position++] = '.';
+    return copy(signature.toString(), buffer, position);
+  }
+
+  public SignedJWT toSignedJwt() throws ParseException {
+    return new SignedJWT(header, claims, signature);
+  }
+
+  @SuppressWarnings("deprecation")
+  private static int copy(String part, byte[] buffer, int position) {
+    // Base64URL is ASCII, so the low byte of every char is its encoding
+    part.getBytes(0, part.length(), buffer, position);
+    return position + part.length();
+  }
+}
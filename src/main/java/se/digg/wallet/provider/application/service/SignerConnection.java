@@ -0,0 +1,148 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent, pipelined connection to a local signer daemon. Any number of requests may be in
+ * flight, a reader thread completes them as their responses arrive. Requests queued by several
+ * threads at once are written with a single gathering write by whichever thread holds the write
+ * lock.
+ */
+final class SignerConnection implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(SignerConnection.class);
+
+  private final SocketChannel channel;
+  private final Map<Integer, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+  private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final AtomicInteger nextId = new AtomicInteger();
+  private volatile IOException failure;
+
+  private SignerConnection(SocketChannel channel) {
+    this.channel = channel;
+  }
+
+  static SignerConnection open(UnixDomainSocketAddress address) throws IOException {
+    SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+    try {
+      channel.connect(address);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    SignerConnection connection = new SignerConnection(channel);
+    Thread reader = new Thread(connection::readResponses, "wua-signer-reader");
+    reader.setDaemon(true);
+    reader.start();
+    return connection;
+  }
+
+  boolean isOpen() {
+    return failure == null;
+  }
+
+  CompletableFuture<byte[]> sign(byte[] alias, byte[] signingInput) {
+    CompletableFuture<byte[]> response = new CompletableFuture<>();
+    int id = nextId.incrementAndGet();
+    pending.put(id, response);
+    // Drop the entry if the caller gives up before the signer responds
+    response.whenComplete((signature, e) -> pending.remove(id));
+    IOException failed = failure;
+    if (failed != null) {
+      // Checked after registering, so a concurrent failure either sees the request or is seen here
+      response.completeExceptionally(failed);
+      return response;
+    }
+    outbound.add(SignerProtocol.request(id, alias, signingInput));
+    flush();
+    return response;
+  }
+
+  @Override
+  public void close() {
+    fail(new IOException("Signer connection closed"));
+  }
+
+  private void flush() {
+    // A frame queued while another thread writes is picked up by that thread's next round
+    while (!outbound.isEmpty() && writeLock.tryLock()) {
+      try {
+        List<ByteBuffer> batch = new ArrayList<>();
+        for (ByteBuffer frame = outbound.poll(); frame != null; frame = outbound.poll()) {
+          batch.add(frame);
+        }
+        ByteBuffer[] frames = batch.toArray(ByteBuffer[]::new);
+        while (frames.length > 0 && frames[frames.length - 1].hasRemaining()) {
+          channel.write(frames);
+        }
+      } catch (IOException e) {
+        fail(e);
+      } finally {
+        writeLock.unlock();
+      }
+    }
+  }
+
+  private void readResponses() {
+    try {
+      ByteBuffer frame;
+      while ((frame = SignerProtocol.readFrame(channel)) != null) {
+        int id = frame.getInt();
+        byte status = frame.get();
+        byte[] payload = new byte[frame.remaining()];
+        frame.get(payload);
+        CompletableFuture<byte[]> response = pending.remove(id);
+        if (response == null) {
+          continue;
+        }
+        if (status == SignerProtocol.OK) {
+          response.complete(payload);
+        } else {
+          response.completeExceptionally(
+              new JOSEException("Signer failed: " + new String(payload, StandardCharsets.UTF_8)));
+        }
+      }
+      fail(new IOException("Signer closed the connection"));
+    } catch (IOException e) {
+      fail(e);
+    }
+  }
+
+  private void fail(IOException e) {
+    if (failure == null) {
+      failure = e;
+      log.debug("Signer connection failed", e);
+    }
+    try {
+      channel.close();
+    } catch (IOException closeFailure) {
+      e.addSuppressed(closeFailure);
+    }
+    pending.values().forEach(response -> response.completeExceptionally(e));
+    pending.clear();
+    outbound.clear();
+  }
+}
@@ -0,0 +1,96 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Frames exchanged with a local signer daemon. Every frame starts with its length as a big-endian
+ * {@code int}, not counting the length itself. Requests may be pipelined, responses carry the id of
+ * their request and may arrive in any order.
+ *
+ * <pre>
+ * request:  length | int id | short alias length | alias (UTF-8) | signing input
+ * response: length | int id | byte status | signature (R || S) or error message (UTF-8)
+ * </pre>
+ */
+final class SignerProtocol {
+
+  static final byte OK = 0;
+  static final byte ERROR = 1;
+  static final int MAX_FRAME_LENGTH = 1 << 20;
+
+  private SignerProtocol() {}
+
+  static ByteBuffer request(int id, byte[] alias, byte[] signingInput) {
+    ByteBuffer frame = ByteBuffer.allocate(4 + 4 + 2 + alias.length + signingInput.length);
+    frame.putInt(frame.capacity() - 4)
+        .putInt(id)
+        .putShort((short) alias.length)
+        .put(alias)
+        .put(signingInput)
+        .flip();
+    return frame;
+  }
+
+  static ByteBuffer response(int id, byte status, byte[] payload) {
+    ByteBuffer frame = ByteBuffer.allocate(4 + 4 + 1 + payload.length);
+    frame.putInt(frame.capacity() - 4)
+        .putInt(id)
+        .put(status)
+        .put(payload)
+        .flip();
+    return frame;
+  }
+
+  static ByteBuffer error(int id, String message) {
+    return response(id, ERROR, message.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Reads the next frame, without its length.
+   *
+   * @return the frame, or {@code null} if the channel was closed between frames
+   */
+  static ByteBuffer readFrame(ReadableByteChannel channel) throws IOException {
+    ByteBuffer length = ByteBuffer.allocate(4);
+    if (!readFully(channel, length, true)) {
+      return null;
+    }
+    int frameLength = length.flip().getInt();
+    if (frameLength < 5 || frameLength > MAX_FRAME_LENGTH) {
+      throw new IOException("Invalid signer frame length " + frameLength);
+    }
+    ByteBuffer frame = ByteBuffer.allocate(frameLength);
+    readFully(channel, frame, false);
+    return frame.flip();
+  }
+
+  static void writeFully(WritableByteChannel channel, ByteBuffer... frames) throws IOException {
+    for (ByteBuffer frame : frames) {
+      while (frame.hasRemaining()) {
+        channel.write(frame);
+      }
+    }
+  }
+
+  private static boolean readFully(ReadableByteChannel channel, ByteBuffer buffer,
+      boolean eofAllowed) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) < 0) {
+        if (eofAllowed && buffer.position() == 0) {
+          return false;
+        }
+        throw new EOFException("Signer connection closed mid-frame");
+      }
+    }
+    return true;
+  }
+}
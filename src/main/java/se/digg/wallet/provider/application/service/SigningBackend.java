@@ -0,0 +1,22 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.util.Base64URL;
+
+/**
+ * Produces ES256 signatures with the private key of a signing context, selected with
+ * {@code wua.signing.backend}.
+ */
+public interface SigningBackend {
+
+  /**
+   * Signs the JWS signing input with the key of the context.
+   *
+   * @return the JWS signature, R and S concatenated
+   */
+  Base64URL sign(WuaSigningContext context, byte[] signingInput) throws JOSEException;
+}
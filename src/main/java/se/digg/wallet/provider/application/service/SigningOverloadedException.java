@@ -0,0 +1,20 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+/**
+ * Thrown when the {@link AttestationSigningExecutor} has {@code wua.signing.queue-capacity} tasks
+ * waiting already. The client is told to retry after {@link #RETRY_AFTER_SECONDS}.
+ */
+public class SigningOverloadedException extends RuntimeException {
+
+  public static final long RETRY_AFTER_SECONDS = 1;
+
+  public SigningOverloadedException() {
+    // Thrown when the service is busiest, without the cost of a stack trace
+    super("Signing capacity is exhausted, retry after " + RETRY_AFTER_SECONDS + " seconds", null,
+        false, false);
+  }
+}
@@ -0,0 +1,279 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaStatusListProperties;
+
+/**
+ * Allocates a status list index per attestation from a bitmap in a memory-mapped file, so that no
+ * index is handed out twice across restarts while its attestation is valid. The indices are grouped
+ * in chunks of 64, one bitmap word each with the latest expiry of its attestations. A thread claims
+ * a free chunk with a compare-and-set on its word and then allocates from it alone, so threads only
+ * meet when claiming. Allocation runs on the signing threads, a small fixed pool, which keeps the
+ * chunks held but unused few. A chunk is free when its word is zero. Once its expiry has passed, a
+ * chunk is reclaimed by resetting its expiry with a compare-and-set and then its word. An owner
+ * extends the expiry of its chunk with a compare-and-set from the value it last wrote, so that it
+ * notices having lost the chunk to a reclaim. The word and expiry of a claimed chunk are forced to
+ * disk before its first index is used, later updates when the allocator is closed. A chunk claimed
+ * but never used, when the JVM stopped in between, is freed at startup. An expired chunk with
+ * revoked indices has them marked valid in the {@link StatusList} and is held back for two refresh
+ * intervals, until a list without them has been published and copies cached before have expired. So
+ * is a free chunk with indices revoked before they were allocated, which would otherwise hand out
+ * indices that are invalid from the start.
+ */
+@Component
+public class StatusIndexAllocator implements DisposableBean {
+
+  static final int CHUNK_SIZE = Long.SIZE;
+
+  private static final long MAGIC = 0x5755_4153_4958_3031L;
+  private static final int HEADER_SIZE = 64;
+  private static final VarHandle LONGS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+  private final Logger log = LoggerFactory.getLogger(StatusIndexAllocator.class);
+  private final int chunks;
+  private final long size;
+  private final Path file;
+  private final FileChannel channel;
+  private final FileLock lock;
+  private final MappedByteBuffer buffer;
+  private final StatusList statusList;
+  private final long quarantineSeconds;
+  private final LongSupplier epochSeconds;
+  private final AtomicInteger cursor = new AtomicInteger();
+  private final ThreadLocal<Chunk> current = new ThreadLocal<>();
+  private final Counter reclaimed;
+
+  @Autowired
+  public StatusIndexAllocator(WuaStatusListProperties properties, StatusList statusList,
+      MeterRegistry meterRegistry) {
+    this(properties, statusList, meterRegistry, () -> System.currentTimeMillis() / 1000);
+  }
+
+  StatusIndexAllocator(WuaStatusListProperties properties, StatusList statusList,
+      MeterRegistry meterRegistry, LongSupplier epochSeconds) {
+    this.chunks = Math.ceilDiv(properties.size(), CHUNK_SIZE);
+    this.size = (long) chunks * CHUNK_SIZE;
+    this.file = properties.allocationFile().toAbsolutePath();
+    this.statusList = statusList;
+    this.quarantineSeconds = 2 * properties.refreshInterval().toSeconds();
+    this.epochSeconds = epochSeconds;
+    try {
+      Files.createDirectories(file.getParent());
+      this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+      this.lock = channel.tryLock();
+      if (lock == null) {
+        channel.close();
+        throw new WalletRuntimeException("Status index allocation file " + file
+            + " is in use by another process");
+      }
+      boolean created = channel.size() == 0;
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+          HEADER_SIZE + (long) chunks * 2 * Long.BYTES);
+      if (created) {
+        LONGS.set(buffer, 8, size);
+        LONGS.set(buffer, 0, MAGIC);
+        buffer.force();
+      }
+    } catch (IOException e) {
+      throw new WalletRuntimeException("Could not open status index allocation file " + file, e);
+    }
+    try {
+      verifyHeader();
+    } catch (WalletRuntimeException e) {
+      try {
+        channel.close();
+      } catch (IOException closeFailure) {
+        e.addSuppressed(closeFailure);
+      }
+      throw e;
+    }
+    freeUnusedChunks();
+    this.reclaimed = Counter.builder("wua.status.index.reclaimed")
+        .description("Chunks of status indices freed after their attestations expired")
+        .register(meterRegistry);
+    Gauge.builder("wua.status.index.free", this, StatusIndexAllocator::freeIndices)
+        .description("Status indices in chunks not claimed")
+        .register(meterRegistry);
+  }
+
+  /**
+   * Allocates an index for an attestation.
+   *
+   * @param expiresAt expiry of the attestation in epoch seconds, after which the index may be
+   *        allocated again
+   * @throws WalletRuntimeException if all indices are allocated
+   */
+  public long allocate(long expiresAt) {
+    Chunk chunk = current.get();
+    if (chunk != null && chunk.next < CHUNK_SIZE && chunk.extend(expiresAt)) {
+      int bit = chunk.next++;
+      LONGS.getAndBitwiseOrRelease(buffer, wordOffset(chunk.index), 1L << bit);
+      return (long) chunk.index * CHUNK_SIZE + bit;
+    }
+    chunk = claim(expiresAt);
+    current.set(chunk);
+    return (long) chunk.index * CHUNK_SIZE;
+  }
+
+  /**
+   * Releases an index allocated for an attestation that was not issued. Only the index the current
+   * thread allocated last is released, others stay allocated until their chunk expires.
+   */
+  public void release(long index) {
+    Chunk chunk = current.get();
+    if (chunk == null || index != (long) chunk.index * CHUNK_SIZE + chunk.next - 1) {
+      return;
+    }
+    int bit = --chunk.next;
+    if (bit > 0) {
+      // Bit 0 stays set, as it marks the chunk claimed
+      LONGS.getAndBitwiseAndRelease(buffer, wordOffset(chunk.index), ~(1L << bit));
+    }
+  }
+
+  /** Returns the number of indices, a multiple of the chunk size. */
+  public long size() {
+    return size;
+  }
+
+  @Override
+  public void destroy() throws IOException {
+    buffer.force();
+    lock.release();
+    channel.close();
+  }
+
+  private Chunk claim(long expiresAt) {
+    long now = epochSeconds.getAsLong();
+    for (int attempt = 0; attempt < chunks; attempt++) {
+      int index = Math.floorMod(cursor.getAndIncrement(), chunks);
+      long word = (long) LONGS.getVolatile(buffer, wordOffset(index));
+      if ((word == 0 || reclaim(index, now))
+          && LONGS.compareAndSet(buffer, wordOffset(index), 0L, 1L)) {
+        if (statusList.word(index) != 0) {
+          holdBack(index, now);
+          continue;
+        }
+        // Reclaims skip a chunk without expiry, so it is owned until the expiry is written
+        LONGS.setVolatile(buffer, expiryOffset(index), expiresAt);
+        buffer.force(wordOffset(index), 2 * Long.BYTES);
+        return new Chunk(index, expiresAt);
+      }
+    }
+    log.error("All {} status indices are allocated", size);
+    throw new WalletRuntimeException("No free status index");
+  }
+
+  private boolean reclaim(int index, long now) {
+    long expiry = (long) LONGS.getVolatile(buffer, expiryOffset(index));
+    if (expiry == 0 || expiry >= now) {
+      return false;
+    }
+    if (statusList.word(index) != 0) {
+      if (LONGS.compareAndSet(buffer, expiryOffset(index), expiry, now + quarantineSeconds)) {
+        statusList.clearWord(index);
+      }
+      return false;
+    }
+    if (!LONGS.compareAndSet(buffer, expiryOffset(index), expiry, 0L)) {
+      return false;
+    }
+    LONGS.setVolatile(buffer, wordOffset(index), 0L);
+    reclaimed.increment();
+    return true;
+  }
+
+  /** Holds back a claimed chunk with revoked indices, marking them valid. */
+  private void holdBack(int index, long now) {
+    LONGS.setVolatile(buffer, expiryOffset(index), now + quarantineSeconds);
+    statusList.clearWord(index);
+    buffer.force(wordOffset(index), 2 * Long.BYTES);
+  }
+
+  private void verifyHeader() {
+    long magic = (long) LONGS.get(buffer, 0);
+    long fileSize = (long) LONGS.get(buffer, 8);
+    if (magic != MAGIC || fileSize != size) {
+      throw new WalletRuntimeException("Status index allocation file " + file
+          + " is not one of " + size + " indices");
+    }
+  }
+
+  private void freeUnusedChunks() {
+    for (int index = 0; index < chunks; index++) {
+      if ((long) LONGS.get(buffer, expiryOffset(index)) == 0) {
+        LONGS.set(buffer, wordOffset(index), 0L);
+      }
+    }
+  }
+
+  private long freeIndices() {
+    long free = 0;
+    for (int index = 0; index < chunks; index++) {
+      if ((long) LONGS.getOpaque(buffer, wordOffset(index)) == 0) {
+        free += CHUNK_SIZE;
+      }
+    }
+    return free;
+  }
+
+  private static int wordOffset(int index) {
+    return HEADER_SIZE + index * 2 * Long.BYTES;
+  }
+
+  private static int expiryOffset(int index) {
+    return wordOffset(index) + Long.BYTES;
+  }
+
+  /** A chunk owned by the current thread. */
+  private final class Chunk {
+
+    private final int index;
+    private long expiresAt;
+    private int next = 1;
+
+    Chunk(int index, long expiresAt) {
+      this.index = index;
+      this.expiresAt = expiresAt;
+    }
+
+    /** Extends the expiry of the chunk, returns {@code false} if it has been reclaimed. */
+    boolean extend(long expiresAt) {
+      if (expiresAt <= this.expiresAt) {
+        // Not expired, since the attestation is not, so only reclaimed if lost earlier
+        return (long) LONGS.getVolatile(buffer, expiryOffset(index)) == this.expiresAt;
+      }
+      if (!LONGS.compareAndSet(buffer, expiryOffset(index), this.expiresAt, expiresAt)) {
+        return false;
+      }
+      this.expiresAt = expiresAt;
+      return true;
+    }
+  }
+}
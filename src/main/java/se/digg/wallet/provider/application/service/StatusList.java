@@ -0,0 +1,266 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaStatusListProperties;
+
+/**
+ * The status of every status list index, one bit each in the layout of a Token Status List with
+ * {@code bits} 1: the bit of index i is bit i % 8 of byte i / 8, set when the attestation is
+ * invalid. The bits are kept in a memory-mapped file so that they survive restarts. The list is
+ * compressed in segments, each ending on a full flush so that their DEFLATE output can be
+ * concatenated into one stream, and only the segments changed since the previous compression are
+ * compressed again. The ZLIB checksum of the whole list is combined from those of the segments.
+ */
+@Component
+public class StatusList implements DisposableBean {
+
+  // Bytes of the list compressed at a time, 512 Ki indices
+  static final int SEGMENT_SIZE = 64 * 1024;
+
+  private static final long MAGIC = 0x5755_4153_5354_3031L;
+  private static final int HEADER_SIZE = 64;
+  private static final VarHandle LONGS =
+      MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  // CMF deflate with a 32 KiB window, FLG for maximum compression
+  private static final byte[] ZLIB_HEADER = {0x78, (byte) 0xda};
+  // A final fixed Huffman block holding only the end-of-block code
+  private static final byte[] FINAL_BLOCK = {0x03, 0x00};
+  private static final int ADLER_BASE = 65521;
+
+  private final long size;
+  private final Path file;
+  private final FileChannel channel;
+  private final FileLock lock;
+  private final MappedByteBuffer buffer;
+  // Incremented after every change to a segment
+  private final AtomicIntegerArray generations;
+  private final AtomicLong version = new AtomicLong();
+
+  // Guarded by this, written by compress()
+  private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+  private final byte[][] compressed;
+  private final int[] checksums;
+  private final int[] compressedGenerations;
+
+  public StatusList(WuaStatusListProperties properties) {
+    // Whole chunks of the allocator, so the list ends on a byte
+    this.size = (long) Math.ceilDiv(properties.size(), StatusIndexAllocator.CHUNK_SIZE)
+        * StatusIndexAllocator.CHUNK_SIZE;
+    this.file = properties.statusFile().toAbsolutePath();
+    int segments = (int) Math.ceilDiv(size / Byte.SIZE, SEGMENT_SIZE);
+    this.generations = new AtomicIntegerArray(segments);
+    this.compressed = new byte[segments][];
+    this.checksums = new int[segments];
+    this.compressedGenerations = new int[segments];
+    try {
+      Files.createDirectories(file.getParent());
+      this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE);
+      this.lock = channel.tryLock();
+      if (lock == null) {
+        channel.close();
+        throw new WalletRuntimeException("Status list file " + file
+            + " is in use by another process");
+      }
+      boolean created = channel.size() == 0;
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + size / Byte.SIZE);
+      if (created) {
+        LONGS.set(buffer, 8, size);
+        LONGS.set(buffer, 0, MAGIC);
+        buffer.force();
+      }
+    } catch (IOException e) {
+      throw new WalletRuntimeException("Could not open status list file " + file, e);
+    }
+    if ((long) LONGS.get(buffer, 0) != MAGIC || (long) LONGS.get(buffer, 8) != size) {
+      WalletRuntimeException mismatch = new WalletRuntimeException("Status list file " + file
+          + " is not one of " + size + " indices");
+      try {
+        channel.close();
+      } catch (IOException closeFailure) {
+        mismatch.addSuppressed(closeFailure);
+      }
+      throw mismatch;
+    }
+  }
+
+  /** Returns the number of indices. */
+  public long size() {
+    return size;
+  }
+
+  /** Returns a number that changes whenever the status of an index does. */
+  public long version() {
+    return version.get();
+  }
+
+  /**
+   * Marks the attestations at the indices invalid. The indices are sorted so that each word is set
+   * once, and each changed segment is marked for compression once.
+   *
+   * @return the number of indices that were valid
+   * @throws IllegalArgumentException if an index is outside of the list
+   */
+  public long invalidate(long[] indices) {
+    long[] sorted = indices.clone();
+    Arrays.sort(sorted);
+    if (sorted.length > 0 && (sorted[0] < 0 || sorted[sorted.length - 1] >= size)) {
+      throw new IllegalArgumentException("Status index outside of the list of " + size);
+    }
+    long changed = 0;
+    int i = 0;
+    while (i < sorted.length) {
+      int segment = segment(sorted[i]);
+      long segmentChanged = 0;
+      while (i < sorted.length && segment(sorted[i]) == segment) {
+        long word = sorted[i] >>> 6;
+        long mask = 0;
+        for (; i < sorted.length && sorted[i] >>> 6 == word; i++) {
+          mask |= 1L << sorted[i];
+        }
+        long previous = (long) LONGS.getAndBitwiseOrRelease(buffer, wordOffset(word), mask);
+        segmentChanged += Long.bitCount(mask & ~previous);
+      }
+      if (segmentChanged > 0) {
+        generations.incrementAndGet(segment);
+        changed += segmentChanged;
+      }
+    }
+    if (changed > 0) {
+      version.incrementAndGet();
+    }
+    return changed;
+  }
+
+  /** Returns the bits of the 64 indices from {@code word * 64}. */
+  long word(int word) {
+    return (long) LONGS.getVolatile(buffer, wordOffset(word));
+  }
+
+  /** Marks the 64 indices from {@code word * 64} valid. */
+  void clearWord(int word) {
+    LONGS.setRelease(buffer, wordOffset(word), 0L);
+    generations.incrementAndGet(segment((long) word << 6));
+    version.incrementAndGet();
+  }
+
+  /**
+   * Returns the list compressed with DEFLATE in the ZLIB format, as in the {@code lst} of a Token
+   * Status List. Only segments changed since the previous call are compressed.
+   */
+  public synchronized byte[] compress() {
+    int length = ZLIB_HEADER.length + FINAL_BLOCK.length + Integer.BYTES;
+    long checksum = 1;
+    byte[] segment = new byte[SEGMENT_SIZE];
+    for (int i = 0; i < compressed.length; i++) {
+      // Read before the bits, so a change racing with the compression is compressed next time
+      int generation = generations.get(i);
+      int segmentLength = segmentLength(i);
+      if (compressed[i] == null || compressedGenerations[i] != generation) {
+        buffer.get(HEADER_SIZE + i * SEGMENT_SIZE, segment, 0, segmentLength);
+        compressed[i] = deflate(segment, segmentLength);
+        Adler32 adler = new Adler32();
+        adler.update(segment, 0, segmentLength);
+        checksums[i] = (int) adler.getValue();
+        compressedGenerations[i] = generation;
+      }
+      length += compressed[i].length;
+      checksum = adler32Combine(checksum, checksums[i] & 0xffffffffL, segmentLength);
+    }
+
+    ByteBuffer zlib = ByteBuffer.allocate(length).put(ZLIB_HEADER);
+    for (byte[] deflated : compressed) {
+      zlib.put(deflated);
+    }
+    return zlib.put(FINAL_BLOCK).putInt((int) checksum).array();
+  }
+
+  /** Forces the changed bits to disk. */
+  public void force() {
+    buffer.force();
+  }
+
+  @Override
+  public void destroy() throws IOException {
+    buffer.force();
+    lock.release();
+    channel.close();
+    synchronized (this) {
+      deflater.end();
+    }
+  }
+
+  private byte[] deflate(byte[] segment, int segmentLength) {
+    deflater.reset();
+    deflater.setInput(segment, 0, segmentLength);
+    ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+    byte[] chunk = new byte[4096];
+    int written;
+    // A full flush ends on a byte boundary without depending on the preceding segments
+    do {
+      written = deflater.deflate(chunk, 0, chunk.length, Deflater.FULL_FLUSH);
+      out.write(chunk, 0, written);
+    } while (written == chunk.length);
+    return out.toByteArray();
+  }
+
+  private int segmentLength(int segment) {
+    return (int) Math.min(SEGMENT_SIZE, size / Byte.SIZE - (long) segment * SEGMENT_SIZE);
+  }
+
+  private static int wordOffset(long word) {
+    return HEADER_SIZE + (int) word * Long.BYTES;
+  }
+
+  private static int segment(long index) {
+    return (int) (index / Byte.SIZE / SEGMENT_SIZE);
+  }
+
+  /**
+   * Returns the Adler-32 checksum of two concatenated inputs from the checksums of each, as
+   * {@code adler32_combine} of zlib does.
+   */
+  static long adler32Combine(long adler1, long adler2, long length2) {
+    long remainder = length2 % ADLER_BASE;
+    long sum1 = adler1 & 0xffff;
+    long sum2 = remainder * sum1 % ADLER_BASE;
+    sum1 += (adler2 & 0xffff) + ADLER_BASE - 1;
+    sum2 += ((adler1 >>> 16) & 0xffff) + ((adler2 >>> 16) & 0xffff) + ADLER_BASE - remainder;
+    if (sum1 >= ADLER_BASE) {
+      sum1 -= ADLER_BASE;
+    }
+    if (sum1 >= ADLER_BASE) {
+      sum1 -= ADLER_BASE;
+    }
+    if (sum2 >= (ADLER_BASE << 1)) {
+      sum2 -= ADLER_BASE << 1;
+    }
+    if (sum2 >= ADLER_BASE) {
+      sum2 -= ADLER_BASE;
+    }
+    return sum1 | (sum2 << 16);
+  }
+}
@@ -0,0 +1,209 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaKeystoreProperties;
+import se.digg.wallet.provider.application.config.WuaStatusListProperties;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+/**
+ * Publishes the {@link StatusList} as a signed Token Status List, its subject the status list URI
+ * in the status of issued WUAs. The list is compressed and signed in the background, every
+ * {@code wua.status-list.refresh-interval} if it has changed or half of the validity of the token
+ * has passed, so serving it costs neither. Changes are forced to disk before they are published. A
+ * refresh can also be requested after a change, requests made before it starts share it. Refreshes
+ * run on a thread of the publisher's own, so that compressing and signing a large list does not
+ * hold up the application's other scheduled tasks.
+ */
+@Component
+public class StatusListPublisher implements DisposableBean {
+
+  private static final JOSEObjectType TYPE = new JOSEObjectType("statuslist+jwt");
+  // Bytes of the SHA-256 of the token in its entity tag
+  private static final int ETAG_DIGEST_LENGTH = 18;
+  private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+  private final Logger log = LoggerFactory.getLogger(StatusListPublisher.class);
+  private final StatusList statusList;
+  private final WuaSigningContextProvider signingContextProvider;
+  private final SigningBackend signingBackend;
+  private final String uri;
+  private final Duration refreshInterval;
+  private final Duration validity;
+  private final Clock clock;
+  private final Executor executor;
+  // Null when refreshes are run by the executor passed in
+  private final ScheduledExecutorService scheduler;
+  private final AtomicBoolean refreshRequested = new AtomicBoolean();
+  private volatile StatusListToken token;
+  // Guarded by this
+  private long publishedVersion;
+
+  @Autowired
+  public StatusListPublisher(StatusList statusList, WuaStatusListProperties properties,
+      WuaKeystoreProperties keystoreProperties, WuaSigningContextProvider signingContextProvider,
+      SigningBackend signingBackend, ObjectMapper objectMapper) {
+    this(statusList, properties, signingContextProvider, signingBackend,
+        statusListUri(keystoreProperties, objectMapper), Clock.systemUTC(), null);
+    scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Creates a publisher running requested refreshes on the executor, or with {@code null} on a
+   * thread of its own, which the periodic refreshes are then scheduled on.
+   */
+  StatusListPublisher(StatusList statusList, WuaStatusListProperties properties,
+      WuaSigningContextProvider signingContextProvider, SigningBackend signingBackend, String uri,
+      Clock clock, Executor executor) {
+    this.statusList = statusList;
+    this.signingContextProvider = signingContextProvider;
+    this.signingBackend = signingBackend;
+    this.uri = uri;
+    this.refreshInterval = properties.refreshInterval();
+    this.validity = properties.validity();
+    this.clock = clock;
+    this.scheduler = executor == null ? Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("wua-status-list").daemon().factory()) : null;
+    this.executor = executor == null ? scheduler : executor;
+  }
+
+  /** Returns whether the WUA status has a status list to publish. */
+  public boolean isEnabled() {
+    return uri != null;
+  }
+
+  /**
+   * Returns the published token, publishing the first one if need be.
+   *
+   * @throws WalletRuntimeException if there is no status list or it could not be published
+   */
+  public StatusListToken current() {
+    StatusListToken current = token;
+    if (current != null) {
+      return current;
+    }
+    if (!isEnabled()) {
+      throw new WalletRuntimeException("The WUA status has no status list");
+    }
+    try {
+      return publishIfStale();
+    } catch (JOSEException e) {
+      throw new WalletRuntimeException("Could not sign status list", e);
+    }
+  }
+
+  /** Publishes the changes made so far in the background, without waiting for the next refresh. */
+  public void requestRefresh() {
+    if (isEnabled() && refreshRequested.compareAndSet(false, true)) {
+      executor.execute(() -> {
+        refreshRequested.set(false);
+        refresh();
+      });
+    }
+  }
+
+  public void refresh() {
+    if (!isEnabled()) {
+      return;
+    }
+    try {
+      publishIfStale();
+    } catch (JOSEException | WalletRuntimeException e) {
+      log.error("Could not publish status list, keeping the current one", e);
+    }
+  }
+
+  /** Stops refreshing, waiting for a refresh in progress to finish. */
+  @Override
+  public void destroy() throws InterruptedException {
+    if (scheduler != null) {
+      // Without interrupts, which would close the status list's file channel mid-write
+      scheduler.shutdown();
+      scheduler.awaitTermination(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private synchronized StatusListToken publishIfStale() throws JOSEException {
+    StatusListToken current = token;
+    Instant now = clock.instant().truncatedTo(ChronoUnit.SECONDS);
+    // Read before the bits are compressed, so that changes made meanwhile are published next time
+    long version = statusList.version();
+    if (current != null && version == publishedVersion
+        && now.isBefore(current.issuedAt().plus(validity.dividedBy(2)))) {
+      return current;
+    }
+    // A restart must not take back a published status
+    statusList.force();
+    byte[] lst = statusList.compress();
+
+    Instant expiresAt = now.plus(validity);
+    JWTClaimsSet claims = new JWTClaimsSet.Builder()
+        .subject(uri)
+        .issueTime(Date.from(now))
+        .expirationTime(Date.from(expiresAt))
+        .claim("ttl", refreshInterval.toSeconds())
+        .claim("status_list", Map.of("bits", 1, "lst", Base64URL.encode(lst).toString()))
+        .build();
+    WuaSigningContext signingContext = signingContextProvider.current();
+    JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.ES256)
+        .type(TYPE)
+        .x509CertChain(signingContext.x5c())
+        .build();
+    String signingInput = header.toBase64URL() + "." + Base64URL.encode(claims.toString());
+    Base64URL signature = signingBackend.sign(signingContext,
+        signingInput.getBytes(StandardCharsets.US_ASCII));
+    byte[] jwt = (signingInput + "." + signature).getBytes(StandardCharsets.US_ASCII);
+
+    token = new StatusListToken(jwt, etag(jwt), now, expiresAt);
+    publishedVersion = version;
+    log.debug("Published status list of {} compressed bytes", lst.length);
+    return token;
+  }
+
+  private static String etag(byte[] jwt) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(jwt);
+      return "\"" + Base64URL.encode(Arrays.copyOf(digest, ETAG_DIGEST_LENGTH)) + "\"";
+    } catch (NoSuchAlgorithmException e) {
+      throw new WalletRuntimeException(e);
+    }
+  }
+
+  private static String statusListUri(WuaKeystoreProperties keystoreProperties,
+      ObjectMapper objectMapper) {
+    JsonNode uri = objectMapper.readTree(keystoreProperties.status()).path("status_list")
+        .path("uri");
+    return uri.isString() ? uri.asString() : null;
+  }
+}
@@ -0,0 +1,14 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import java.time.Instant;
+
+/**
+ * A signed Token Status List as served, its compact JWS encoded as ASCII and the entity tag that
+ * identifies it.
+ */
+public record StatusListToken(byte[] jwt, String etag, Instant issuedAt, Instant expiresAt) {
+}
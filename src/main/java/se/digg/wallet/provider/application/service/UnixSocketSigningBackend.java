@@ -0,0 +1,104 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.util.Base64URL;
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import se.digg.wallet.provider.application.config.WuaSigningProperties;
+
+/**
+ * Signs with a local signer daemon listening on {@code wua.signing.socket-path}, which holds the
+ * private keys by alias so they never enter this process. The keystore then only needs the
+ * certificate chains. Requests are pipelined over {@code wua.signing.connections} persistent
+ * connections, each thread sticks to one of them. Broken connections are reopened on the next
+ * request.
+ */
+@Component
+@ConditionalOnProperty(name = "wua.signing.backend", havingValue = "unix-socket")
+public class UnixSocketSigningBackend implements SigningBackend, DisposableBean {
+
+  // R and S of a P-256 signature, 32 bytes each
+  private static final int SIGNATURE_LENGTH = 64;
+
+  private final UnixDomainSocketAddress address;
+  private final Duration timeout;
+  private final AtomicReferenceArray<SignerConnection> connections;
+
+  public UnixSocketSigningBackend(WuaSigningProperties signingProperties) {
+    this.address = UnixDomainSocketAddress.of(signingProperties.socketPath());
+    this.timeout = signingProperties.timeout();
+    this.connections = new AtomicReferenceArray<>(signingProperties.connections());
+  }
+
+  @Override
+  public Base64URL sign(WuaSigningContext context, byte[] signingInput) throws JOSEException {
+    byte[] alias = context.alias().getBytes(StandardCharsets.UTF_8);
+    CompletableFuture<byte[]> response = connection().sign(alias, signingInput);
+    byte[] signature;
+    try {
+      signature = response.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof JOSEException cause) {
+        throw cause;
+      }
+      throw new JOSEException("Signer request failed: " + e.getCause().getMessage(), e.getCause());
+    } catch (TimeoutException e) {
+      // Completes the request, which removes it from those the connection awaits responses to
+      response.cancel(false);
+      throw new JOSEException("Signer did not respond within " + timeout, e);
+    } catch (InterruptedException e) {
+      response.cancel(false);
+      Thread.currentThread().interrupt();
+      throw new JOSEException("Interrupted while waiting for signer", e);
+    }
+    if (signature.length != SIGNATURE_LENGTH) {
+      throw new JOSEException("Signer returned a signature of " + signature.length
+          + " bytes, expected " + SIGNATURE_LENGTH);
+    }
+    return Base64URL.encode(signature);
+  }
+
+  @Override
+  public void destroy() {
+    for (int i = 0; i < connections.length(); i++) {
+      SignerConnection connection = connections.getAndSet(i, null);
+      if (connection != null) {
+        connection.close();
+      }
+    }
+  }
+
+  private SignerConnection connection() throws JOSEException {
+    int slot = (int) Long.remainderUnsigned(Thread.currentThread().threadId(),
+        connections.length());
+    SignerConnection connection = connections.get(slot);
+    if (connection != null && connection.isOpen()) {
+      return connection;
+    }
+    try {
+      SignerConnection reopened = SignerConnection.open(address);
+      if (connections.compareAndSet(slot, connection, reopened)) {
+        return reopened;
+      }
+      // Another thread reopened the slot first
+      reopened.close();
+      return connections.get(slot);
+    } catch (IOException e) {
+      throw new JOSEException("Could not connect to signer at " + address.getPath(), e);
+    }
+  }
+}
@@ -5,31 +5,23 @@
 package se.digg.wallet.provider.application.service;
 
 import com.nimbusds.jose.JOSEException;
-import com.nimbusds.jose.JOSEObjectType;
-import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.JWSSigner;
-import com.nimbusds.jose.crypto.ECDSASigner;
-import com.nimbusds.jose.jwk.ECKey;
-import com.nimbusds.jose.util.Base64;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
-import java.security.cert.CertificateEncodingException;
-import java.security.cert.X509Certificate;
-import java.security.interfaces.ECPrivateKey;
+import com.nimbusds.jose.util.Base64URL;
 import java.text.ParseException;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
+import se.digg.wallet.provider.application.config.LoggingContextFilter;
 import se.digg.wallet.provider.application.config.WalletRuntimeException;
 import se.digg.wallet.provider.application.config.WuaKeystoreProperties;
-import tools.jackson.core.JacksonException;
+import se.digg.wallet.provider.application.service.WuaIssuanceMetrics.Phase;
 import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.ObjectMapper;
 
@@ -38,84 +30,194 @@ public class WalletUnitAttestationService {
 
   private final Logger log = LoggerFactory.getLogger(WalletUnitAttestationService.class);
   private final WuaKeystoreProperties keystoreProperties;
+  private final WuaSigningContextProvider signingContextProvider;
+  private final AttestationSigningExecutor signingExecutor;
+  private final SigningBackend signingBackend;
+  private final WuaIssuanceMetrics issuanceMetrics;
+  private final AttestedKeyCache attestedKeyCache;
+  private final IdempotentIssuanceCache idempotentIssuanceCache;
+  private final NonceStore nonceStore;
+  private final StatusIndexAllocator statusIndexAllocator;
+  private final AuditLog auditLog;
+  private final AttestationRegistry attestationRegistry;
   private final ObjectMapper objectMapper;
+  private final WuaClaimsTemplate claimsTemplate;
 
-  private static final String ATTACK_POTENTIAL_RESISTANCE = "iso_18045_high";
   private static final long ONE_YEAR_IN_SECONDS = 365 * 24 * 3600L;
 
   public WalletUnitAttestationService(
-      WuaKeystoreProperties keystoreProperties, ObjectMapper objectMapper) {
+      WuaKeystoreProperties keystoreProperties,
+      WuaSigningContextProvider signingContextProvider,
+      AttestationSigningExecutor signingExecutor,
+      SigningBackend signingBackend,
+      WuaIssuanceMetrics issuanceMetrics,
+      AttestedKeyCache attestedKeyCache,
+      IdempotentIssuanceCache idempotentIssuanceCache,
+      NonceStore nonceStore,
+      StatusIndexAllocator statusIndexAllocator,
+      AuditLog auditLog,
+      AttestationRegistry attestationRegistry,
+      ObjectMapper objectMapper) {
     this.keystoreProperties = keystoreProperties;
+    this.signingContextProvider = signingContextProvider;
+    this.signingExecutor = signingExecutor;
+    this.signingBackend = signingBackend;
+    this.issuanceMetrics = issuanceMetrics;
+    this.attestedKeyCache = attestedKeyCache;
+    this.idempotentIssuanceCache = idempotentIssuanceCache;
+    this.nonceStore = nonceStore;
+    this.statusIndexAllocator = statusIndexAllocator;
+    this.auditLog = auditLog;
+    this.attestationRegistry = attestationRegistry;
     this.objectMapper = objectMapper.rebuild().build();
+    this.claimsTemplate = new WuaClaimsTemplate(getStatus());
   }
 
-  private SignedJWT createWalletUnitAttestationUnsafely(String walletPublicKeyJwk, String nonce)
-      throws ParseException, JacksonException, JOSEException {
+  private SignedAttestation createWalletUnitAttestationUnsafely(String walletPublicKeyJwk,
+      String nonce)
+      throws ParseException, JOSEException {
     log.debug("Trying to create WUA {} nonce",
         nonce == null ? "without" : "with");
-    ECKey attestedKey = ECKey.parse(walletPublicKeyJwk);
-    List<Map<String, Object>> attestedKeys = List.of(attestedKey.toJSONObject());
-
-    ECPrivateKey signingKey = keystoreProperties.getSigningKey();
-    List<X509Certificate> certificateChain = keystoreProperties.getCertificateChain();
+    long phaseStart = System.nanoTime();
+    AttestedKey attestedKey = attestedKeyCache.get(walletPublicKeyJwk);
+    phaseStart = issuanceMetrics.record(Phase.JWK_PARSE, phaseStart);
+    // Checked before a status index is allocated and redeemed once signed, so that a request
+    // failing on the way leaves its nonce to be retried
+    checkNonce(nonce);
+
+    WuaSigningContext signingContext = signingContextProvider.current();
     Duration validity = Duration.ofHours(keystoreProperties.validityHours());
 
     Instant now = Instant.now();
+    Instant expiresAt = now.plus(validity);
+    UUID jti = UUID.randomUUID();
+    // The index is free again once the attestation has expired
+    long statusIndex = claimsTemplate.hasStatusIndex()
+        ? statusIndexAllocator.allocate(expiresAt.getEpochSecond())
+        : -1;
+
+    Base64URL claims;
+    Base64URL signature;
+    try {
+      claims = claimsTemplate.encode(
+          now.getEpochSecond(),
+          expiresAt.getEpochSecond(),
+          jti.toString(),
+          now.getEpochSecond() + ONE_YEAR_IN_SECONDS,
+          statusIndex,
+          attestedKey.json(),
+          nonce);
+      phaseStart = issuanceMetrics.record(Phase.CLAIMS_BUILD, phaseStart);
+
+      signature =
+          signingBackend.sign(signingContext, signingContext.signingInput(claims.toString()));
+      issuanceMetrics.record(Phase.SIGN, phaseStart);
+      redeemNonce(nonce);
+    } catch (JOSEException | RuntimeException e) {
+      // Not issued, so the index may go to the next attestation
+      if (statusIndex >= 0) {
+        statusIndexAllocator.release(statusIndex);
+      }
+      throw e;
+    }
+    SignedAttestation attestation =
+        new SignedAttestation(signingContext.header().toBase64URL(), claims, signature);
 
-    Map<String, Object> keyStorageStatus = Map.of(
-        "status", getStatus(),
-        "exp", (System.currentTimeMillis() / 1000) + ONE_YEAR_IN_SECONDS);
-
-    var claimsSet =
-        new JWTClaimsSet.Builder()
-            .issueTime(Date.from(now))
-            .expirationTime(Date.from(now.plus(validity)))
-            .claim("certification", "http://example.com/cert")
-            .claim("key_storage_status", keyStorageStatus)
-            .claim("attested_keys", attestedKeys)
-            .claim("nonce", nonce)
-            .claim("key_storage", List.of(ATTACK_POTENTIAL_RESISTANCE))
-            .claim("user_authentication", List.of(ATTACK_POTENTIAL_RESISTANCE))
-            .build();
-
-    List<Base64> x5c =
-        certificateChain.stream()
-            .map(
-                c -> {
-                  try {
-                    return Base64.encode(c.getEncoded());
-                  } catch (CertificateEncodingException e) {
-                    throw new WalletRuntimeException(e);
-                  }
-                })
-            .toList();
-
-    JWSHeader header =
-        new JWSHeader.Builder(JWSAlgorithm.ES256)
-            // REQUIRED, MUST be key-attestation+jwt
-            .type(new JOSEObjectType("key-attestation+jwt"))
-            .x509CertChain(x5c)
-            .build();
-
-    SignedJWT signedJwt = new SignedJWT(header, claimsSet);
-
-    JWSSigner signer = new ECDSASigner(signingKey);
-    signedJwt.sign(signer);
-
+    record(new IssuedAttestation(jti, attestedKey.thumbprint(), now, expiresAt, statusIndex));
     log.debug("Successfully created WUA");
-    return signedJwt;
+    return attestation;
+  }
+
+  /** Writes the issued attestation to the audit log and the registry, both off the request path. */
+  private void record(IssuedAttestation issued) {
+    auditLog.append(new AuditRecord(issued.issuedAt(), issued.expiresAt(), issued.keyThumbprint(),
+        MDC.get(LoggingContextFilter.MDC_CORRELATION_ID), issued.statusIndex()));
+    attestationRegistry.register(issued);
+  }
+
+  /**
+   * Creates an attestation, or returns the one issued for an identical request within the
+   * idempotency window. A retried request gets its attestation although its nonce has been redeemed
+   * by the first attempt.
+   *
+   * @param idempotencyKey the {@code Idempotency-Key} of the request, may be {@code null}
+   */
+  public SignedAttestation createWalletUnitAttestation(String walletPublicKeyJwk, String nonce,
+      String idempotencyKey) {
+    return idempotentIssuanceCache.get(idempotencyKey, walletPublicKeyJwk, nonce,
+        () -> createWalletUnitAttestation(walletPublicKeyJwk, nonce));
+  }
+
+  /**
+   * Creates an attestation.
+   *
+   * @throws InvalidNonceException if nonces are enforced and the nonce is missing, was not issued
+   *         by the {@link NonceStore} or has been redeemed already
+   * @throws SigningOverloadedException if called on a virtual thread and the signing executor has
+   *         no room for the request
+   */
+  public SignedAttestation createWalletUnitAttestation(String walletPublicKeyJwk, String nonce) {
+    if (Thread.currentThread().isVirtual()) {
+      // Keep CPU-bound signing off the virtual thread carriers
+      return signingExecutor.call(() -> createWalletUnitAttestationSafely(walletPublicKeyJwk,
+          nonce));
+    }
+    return createWalletUnitAttestationSafely(walletPublicKeyJwk, nonce);
   }
 
-  public SignedJWT createWalletUnitAttestation(String walletPublicKeyJwk, String nonce) {
+  private SignedAttestation createWalletUnitAttestationSafely(String walletPublicKeyJwk,
+      String nonce) {
     try {
       return createWalletUnitAttestationUnsafely(walletPublicKeyJwk, nonce);
-    } catch (ParseException | JacksonException | JOSEException e) {
+    } catch (ParseException | JOSEException e) {
       log.warn("Could not create WUA", e);
       throw new WalletRuntimeException("Could not create attestation.", e);
     }
   }
 
-  private Map<String, Object> getStatus() throws JacksonException {
+  /**
+   * Creates one attestation per request, spread over the signing executor. A failing item does not
+   * fail the others, results are returned in request order. Items the signing executor has no room
+   * for fail with a {@link SigningOverloadedException}.
+   */
+  public List<AttestationResult> createWalletUnitAttestations(List<AttestationRequest> requests) {
+    List<CompletableFuture<AttestationResult>> results = requests.stream()
+        .map(this::submitAttestationResult)
+        .toList();
+    return results.stream().map(CompletableFuture::join).toList();
+  }
+
+  private CompletableFuture<AttestationResult> submitAttestationResult(AttestationRequest request) {
+    try {
+      return signingExecutor.submit(() -> createAttestationResult(request));
+    } catch (SigningOverloadedException e) {
+      return CompletableFuture.completedFuture(AttestationResult.failure(e));
+    }
+  }
+
+  private AttestationResult createAttestationResult(AttestationRequest request) {
+    try {
+      return AttestationResult.success(
+          createWalletUnitAttestationSafely(request.walletPublicKeyJwk(), request.nonce()));
+    } catch (RuntimeException e) {
+      return AttestationResult.failure(e);
+    }
+  }
+
+  private void checkNonce(String nonce) {
+    if (nonceStore.isEnforced() && (nonce == null || !nonceStore.isLive(nonce))) {
+      throw new InvalidNonceException();
+    }
+  }
+
+  /** Redeems the nonce, which fails the request that comes second with the same nonce. */
+  private void redeemNonce(String nonce) {
+    if (nonceStore.isEnforced() && !nonceStore.redeem(nonce)) {
+      throw new InvalidNonceException();
+    }
+  }
+
+  private Map<String, Object> getStatus() {
     return objectMapper.readValue(keystoreProperties.status(), new TypeReference<>() {});
   }
 
@@ -0,0 +1,268 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precompiled encoder for the WUA claims. Everything but {@code iat}, {@code exp}, {@code jti},
+ * {@code nonce}, {@code attested_keys}, {@code key_storage_status.exp} and the status list index is
+ * encoded once, the variable claims are written into a reusable per-thread buffer. The output is
+ * byte for byte what Nimbus produces for the equivalent {@code JWTClaimsSet}: claims are written in
+ * the iteration order of the {@code HashMap} Nimbus serializes from, and strings are escaped the
+ * way its JSON writer escapes them.
+ */
+final class WuaClaimsTemplate {
+
+  static final String CERTIFICATION = "http://example.com/cert";
+  static final String ATTACK_POTENTIAL_RESISTANCE = "iso_18045_high";
+
+  private static final List<String> CLAIM_NAMES = List.of("iat", "exp", "jti",
+      "certification", "key_storage_status", "attested_keys", "nonce", "key_storage",
+      "user_authentication");
+  private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+  private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+  private static final byte[] IAT = ascii("\"iat\":");
+  private static final byte[] EXP = ascii("\"exp\":");
+  private static final byte[] JTI = ascii("\"jti\":");
+  private static final byte[] ATTESTED_KEYS = ascii("\"attested_keys\":[");
+  private static final byte[] NONCE = ascii("\"nonce\":");
+  // Stands in for the status list index when the status is encoded, then split out
+  private static final long INDEX_PLACEHOLDER = Long.MIN_VALUE;
+  private static final ThreadLocal<ClaimsBuffer> BUFFERS =
+      ThreadLocal.withInitial(() -> new ClaimsBuffer(1024));
+
+  private final List<String> claimOrder;
+  private final byte[] certification;
+  private final byte[] keyStorage;
+  private final byte[] userAuthentication;
+  private final byte[] keyStorageStatusPrefix;
+  // Follows the status list index, null if the status has no status list
+  private final byte[] keyStorageStatusInfix;
+
+  WuaClaimsTemplate(Map<String, Object> status) {
+    // Same map type, and thus iteration order, as JWTClaimsSet.toJSONObject()
+    Map<String, Object> order = JSONObjectUtils.newJSONObject();
+    CLAIM_NAMES.forEach(name -> order.put(name, Boolean.TRUE));
+    this.claimOrder = List.copyOf(order.keySet());
+
+    this.certification = member("certification", CERTIFICATION);
+    this.keyStorage = member("key_storage", List.of(ATTACK_POTENTIAL_RESISTANCE));
+    this.userAuthentication =
+        member("user_authentication", List.of(ATTACK_POTENTIAL_RESISTANCE));
+    String keyStorageStatus = "\"key_storage_status\":{\"status\":"
+        + JSONObjectUtils.toJSONString(withIndexPlaceholder(status)) + ",\"exp\":";
+    String placeholder = Long.toString(INDEX_PLACEHOLDER);
+    int index = keyStorageStatus.indexOf(placeholder);
+    if (index < 0) {
+      this.keyStorageStatusPrefix = keyStorageStatus.getBytes(StandardCharsets.UTF_8);
+      this.keyStorageStatusInfix = null;
+    } else {
+      this.keyStorageStatusPrefix =
+          keyStorageStatus.substring(0, index).getBytes(StandardCharsets.UTF_8);
+      this.keyStorageStatusInfix = keyStorageStatus.substring(index + placeholder.length())
+          .getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  /** Returns whether the status has a status list, and thus an index per attestation. */
+  boolean hasStatusIndex() {
+    return keyStorageStatusInfix != null;
+  }
+
+  /**
+   * Encodes the claims and returns them Base64URL-encoded.
+   *
+   * @param jti the id of the attestation
+   * @param statusIndex the index in the status list, ignored if the status has none
+   * @param attestedKeyJson the JSON object of the attested key
+   * @param nonce the nonce, omitted when {@code null}
+   */
+  Base64URL encode(long issuedAt, long expiresAt, String jti, long keyStorageExpiresAt,
+      long statusIndex, String attestedKeyJson, String nonce) {
+    ClaimsBuffer buffer = BUFFERS.get();
+    buffer.reset();
+    buffer.write('{');
+    boolean first = true;
+    for (String claim : claimOrder) {
+      if ("nonce".equals(claim) && nonce == null) {
+        continue;
+      }
+      if (!first) {
+        buffer.write(',');
+      }
+      first = false;
+      switch (claim) {
+        case "iat" -> buffer.write(IAT).writeLong(issuedAt);
+        case "exp" -> buffer.write(EXP).writeLong(expiresAt);
+        case "jti" -> buffer.write(JTI).writeString(jti);
+        case "certification" -> buffer.write(certification);
+        case "key_storage_status" -> {
+          buffer.write(keyStorageStatusPrefix);
+          if (keyStorageStatusInfix != null) {
+            buffer.writeLong(statusIndex).write(keyStorageStatusInfix);
+          }
+          buffer.writeLong(keyStorageExpiresAt).write('}');
+        }
+        case "attested_keys" -> {
+          buffer.write(ATTESTED_KEYS).write(attestedKeyJson.getBytes(StandardCharsets.UTF_8));
+          buffer.write(']');
+        }
+        case "nonce" -> buffer.write(NONCE).writeString(nonce);
+        case "key_storage" -> buffer.write(keyStorage);
+        case "user_authentication" -> buffer.write(userAuthentication);
+        default -> throw new IllegalStateException("Unknown claim " + claim);
+      }
+    }
+    buffer.write('}');
+
+    ByteBuffer encoded = BASE64URL.encode(ByteBuffer.wrap(buffer.bytes, 0, buffer.count));
+    buffer.release();
+    return new Base64URL(new String(encoded.array(), 0, encoded.limit(),
+        StandardCharsets.US_ASCII));
+  }
+
+  /** Returns the status with the index of its status list, if any, set to the placeholder. */
+  private static Map<String, Object> withIndexPlaceholder(Map<String, Object> status) {
+    if (!(status.get("status_list") instanceof Map<?, ?> statusList)) {
+      return status;
+    }
+    Map<String, Object> withPlaceholder = new LinkedHashMap<>(status);
+    Map<Object, Object> list = new LinkedHashMap<>(statusList);
+    list.put("idx", INDEX_PLACEHOLDER);
+    withPlaceholder.put("status_list", list);
+    return withPlaceholder;
+  }
+
+  private static byte[] member(String name, Object value) {
+    String object = JSONObjectUtils.toJSONString(Map.of(name, value));
+    // Strip the enclosing braces, keeping "name":value
+    return object.substring(1, object.length() - 1).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static final class ClaimsBuffer {
+
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private byte[] bytes;
+    private int count;
+
+    ClaimsBuffer(int capacity) {
+      this.bytes = new byte[capacity];
+    }
+
+    void reset() {
+      count = 0;
+    }
+
+    void release() {
+      if (bytes.length > MAX_RETAINED_BUFFER) {
+        bytes = new byte[1024];
+      }
+    }
+
+    ClaimsBuffer write(int b) {
+      ensureCapacity(1);
+      bytes[count++] = (byte) b;
+      return this;
+    }
+
+    ClaimsBuffer write(byte[] b) {
+      ensureCapacity(b.length);
+      System.arraycopy(b, 0, bytes, count, b.length);
+      count += b.length;
+      return this;
+    }
+
+    ClaimsBuffer writeLong(long value) {
+      if (value < 0) {
+        // Not expected for timestamps, kept for correctness
+        return write(ascii(Long.toString(value)));
+      }
+      int digits = 1;
+      for (long v = value / 10; v != 0; v /= 10) {
+        digits++;
+      }
+      ensureCapacity(digits);
+      long v = value;
+      for (int i = count + digits - 1; i >= count; i--) {
+        bytes[i] = (byte) ('0' + v % 10);
+        v /= 10;
+      }
+      count += digits;
+      return this;
+    }
+
+    ClaimsBuffer writeString(String value) {
+      write('"');
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c >= 0x80) {
+          // Escape and encode the rest of the string the slow way
+          writeEscapedTail(value, i);
+          break;
+        }
+        writeEscapedAscii(c);
+      }
+      return write('"');
+    }
+
+    private void writeEscapedTail(String value, int from) {
+      StringBuilder tail = new StringBuilder(value.length() - from);
+      for (int i = from; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c == '\u2028' || c == '\u2029') {
+          tail.append("\\u").append(Integer.toHexString(c));
+        } else if (c < 0x80) {
+          tail.append(escapeAscii(c));
+        } else {
+          tail.append(c);
+        }
+      }
+      write(tail.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void writeEscapedAscii(char c) {
+      if (c >= 0x20 && c != '"' && c != '\\') {
+        write(c);
+      } else {
+        write(ascii(escapeAscii(c)));
+      }
+    }
+
+    private static String escapeAscii(char c) {
+      return switch (c) {
+        case '"' -> "\\\"";
+        case '\\' -> "\\\\";
+        case '\t' -> "\\t";
+        case '\b' -> "\\b";
+        case '\n' -> "\\n";
+        case '\r' -> "\\r";
+        case '\f' -> "\\f";
+        default -> c < 0x20
+            ? "\\u00" + (char) HEX[c >> 4] + (char) HEX[c & 0xf]
+            : String.valueOf(c);
+      };
+    }
+
+    private void ensureCapacity(int additional) {
+      if (count + additional > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, count + additional));
+      }
+    }
+  }
+}
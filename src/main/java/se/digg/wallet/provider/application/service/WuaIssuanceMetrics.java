@@ -0,0 +1,88 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+import se.digg.wallet.provider.application.controller.ProblemType;
+
+/**
+ * Timers for the phases of WUA issuance, {@code wua.issuance.phase} tagged by {@code phase}, and
+ * the {@code wua.issuance.failures} counters tagged by {@code problem_type}, all registered up
+ * front so that recording a failure only increments a counter. The timers publish percentile
+ * histograms, SLO buckets are configured with
+ * {@code management.metrics.distribution.slo.wua.issuance.phase}.
+ */
+@Component
+public class WuaIssuanceMetrics {
+
+  public enum Phase {
+    JWK_PARSE,
+    CLAIMS_BUILD,
+    SIGN,
+    SERIALIZE;
+
+    String tagValue() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  // Problem type tag of failures raised by the framework, not mapped to a ProblemType
+  private static final String UNMAPPED_PROBLEM = "UNMAPPED";
+
+  private final Map<Phase, Timer> timers = new EnumMap<>(Phase.class);
+  private final Map<ProblemType, Counter> failures = new EnumMap<>(ProblemType.class);
+  private final Counter unmappedFailures;
+
+  public WuaIssuanceMetrics(MeterRegistry meterRegistry) {
+    for (Phase phase : Phase.values()) {
+      timers.put(phase, Timer.builder("wua.issuance.phase")
+          .description("Time spent in one phase of WUA issuance")
+          .tag("phase", phase.tagValue())
+          .publishPercentileHistogram()
+          .register(meterRegistry));
+    }
+    for (ProblemType problemType : ProblemType.values()) {
+      failures.put(problemType, failureCounter(problemType.name(), meterRegistry));
+    }
+    this.unmappedFailures = failureCounter(UNMAPPED_PROBLEM, meterRegistry);
+  }
+
+  public Timer timer(Phase phase) {
+    return timers.get(phase);
+  }
+
+  /**
+   * Records the time since {@code startNanos} for the phase and returns the current
+   * {@code System.nanoTime()}, the start of the next phase.
+   */
+  public long record(Phase phase, long startNanos) {
+    long now = System.nanoTime();
+    timers.get(phase).record(now - startNanos, TimeUnit.NANOSECONDS);
+    return now;
+  }
+
+  public void recordFailure(ProblemType problemType) {
+    failures.get(problemType).increment();
+  }
+
+  /** Records a failure raised by the framework, not mapped to a problem type. */
+  public void recordUnmappedFailure() {
+    unmappedFailures.increment();
+  }
+
+  private static Counter failureCounter(String problemType, MeterRegistry meterRegistry) {
+    return Counter.builder("wua.issuance.failures")
+        .description("Failed requests by problem type")
+        .tag("problem_type", problemType)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,100 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.util.Base64;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.text.ParseException;
+import java.util.List;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaKeystoreProperties;
+import se.digg.wallet.provider.application.config.WuaKeystoreProperties.SigningKey;
+
+/**
+ * Immutable snapshot of the key material used to sign attestations, decrypted once from the
+ * keystore. The protected header only depends on the certificate chain and is encoded once per
+ * snapshot, the signer is bound to the snapshot's key. Without a private key in the keystore, as
+ * with an external signing backend, {@code signingKey} and {@code signer} are {@code null}.
+ */
+public record WuaSigningContext(
+    ECPrivateKey signingKey,
+    ECPublicKey publicKey,
+    List<X509Certificate> certificateChain,
+    List<Base64> x5c,
+    JWSHeader header,
+    Es256Signer signer,
+    String alias) {
+
+  public WuaSigningContext {
+    certificateChain = List.copyOf(certificateChain);
+    x5c = List.copyOf(x5c);
+  }
+
+  /**
+   * Loads the first configured signing key.
+   */
+  public static WuaSigningContext load(WuaKeystoreProperties keystoreProperties) {
+    SigningKey key = keystoreProperties.signingKeys().getFirst();
+    return load(key, key.loadKeyStore(), keystoreProperties.signatureProvider());
+  }
+
+  public static WuaSigningContext load(SigningKey key, KeyStore keyStore,
+      String signatureProvider) {
+    List<X509Certificate> certificateChain = key.getCertificateChain(keyStore);
+    List<Base64> x5c = encodeChain(certificateChain);
+    ECPrivateKey signingKey = key.getSigningKey(keyStore);
+    return new WuaSigningContext(
+        signingKey,
+        key.getPublicKey(keyStore),
+        certificateChain,
+        x5c,
+        encodeHeader(x5c),
+        signingKey == null ? null : new Es256Signer(signingKey, signatureProvider),
+        key.alias());
+  }
+
+  /**
+   * Returns the JWS signing input for the given encoded claims.
+   */
+  public byte[] signingInput(String encodedClaims) {
+    return (header.toBase64URL() + "." + encodedClaims).getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static JWSHeader encodeHeader(List<Base64> x5c) {
+    JWSHeader header =
+        new JWSHeader.Builder(JWSAlgorithm.ES256)
+            // REQUIRED, MUST be key-attestation+jwt
+            .type(new JOSEObjectType("key-attestation+jwt"))
+            .x509CertChain(x5c)
+            .build();
+    try {
+      // A parsed header keeps its encoded form, so toBase64URL() is not re-serialized per token
+      return JWSHeader.parse(header.toBase64URL());
+    } catch (ParseException e) {
+      throw new WalletRuntimeException(e);
+    }
+  }
+
+  private static List<Base64> encodeChain(List<X509Certificate> certificateChain) {
+    return certificateChain.stream()
+        .map(
+            c -> {
+              try {
+                return Base64.encode(c.getEncoded());
+              } catch (CertificateEncodingException e) {
+                throw new WalletRuntimeException(e);
+              }
+            })
+        .toList();
+  }
+}
@@ -0,0 +1,118 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import java.io.IOException;
+import java.security.KeyStore;
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaKeystoreProperties;
+import se.digg.wallet.provider.application.config.WuaKeystoreProperties.SigningKey;
+import se.digg.wallet.provider.application.service.WuaSigningKeyRing.ScheduledKey;
+
+/**
+ * Holds the current signing keys. The keystores are decrypted once at startup and again only when
+ * one of them changes on disk, the new key ring replaces the old one atomically so keys can be
+ * rotated without a restart. Issuance moves between keys by their activation and retirement dates
+ * without any reload.
+ */
+@Component
+public class WuaSigningContextProvider {
+
+  private final Logger log = LoggerFactory.getLogger(WuaSigningContextProvider.class);
+  private final WuaKeystoreProperties keystoreProperties;
+  private final Clock clock;
+  private final AtomicReference<WuaSigningKeyRing> keyRing = new AtomicReference<>();
+  private volatile long lastModified;
+
+  @Autowired
+  public WuaSigningContextProvider(WuaKeystoreProperties keystoreProperties) {
+    this(keystoreProperties, Clock.systemUTC());
+  }
+
+  WuaSigningContextProvider(WuaKeystoreProperties keystoreProperties, Clock clock) {
+    this.keystoreProperties = keystoreProperties;
+    this.clock = clock;
+    this.lastModified = lastModified();
+    this.keyRing.set(load());
+  }
+
+  /**
+   * Returns the signing key the calling thread issues with now.
+   */
+  public WuaSigningContext current() {
+    return keyRing.get().select(clock.millis());
+  }
+
+  /**
+   * Returns all loaded signing keys, active or not.
+   */
+  public List<WuaSigningContext> all() {
+    return keyRing.get().contexts();
+  }
+
+  @Scheduled(fixedDelayString = "${wua.keystore.reload-interval:PT30S}")
+  public void reloadIfChanged() {
+    long modified = lastModified();
+    if (modified == lastModified) {
+      return;
+    }
+    try {
+      keyRing.set(load());
+      lastModified = modified;
+      log.info("Reloaded WUA signing keystore");
+    } catch (WalletRuntimeException e) {
+      log.warn("Could not reload WUA signing keystore, keeping current signing key", e);
+    }
+  }
+
+  private WuaSigningKeyRing load() {
+    // Keys sharing a keystore decrypt it once
+    Map<Resource, KeyStore> keyStores = new HashMap<>();
+    List<ScheduledKey> keys = keystoreProperties.signingKeys().stream()
+        .map(key -> new ScheduledKey(
+            WuaSigningContext.load(key,
+                keyStores.computeIfAbsent(key.location(), location -> key.loadKeyStore()),
+                keystoreProperties.signatureProvider()),
+            key.activeFrom(),
+            key.activeUntil()))
+        .toList();
+    WuaSigningKeyRing loaded = new WuaSigningKeyRing(keys);
+    if (!loaded.hasActiveKey(clock.millis())) {
+      log.warn("None of the {} WUA signing keys is active", keys.size());
+    }
+    return loaded;
+  }
+
+  private long lastModified() {
+    long modified = 0L;
+    for (Resource location : keystoreProperties.signingKeys().stream()
+        .map(SigningKey::location)
+        .distinct()
+        .toList()) {
+      modified = 31 * modified + lastModified(location);
+    }
+    return modified;
+  }
+
+  private static long lastModified(Resource location) {
+    try {
+      return location.lastModified();
+    } catch (IOException e) {
+      // Resources without a file system timestamp, e.g. inside a jar, are never reloaded
+      return 0L;
+    }
+  }
+}
@@ -0,0 +1,100 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+
+/**
+ * Immutable set of signing keys with their activation windows. Issuance is spread over the keys
+ * active at the time of signing, picked at random per signature from {@link ThreadLocalRandom}, so
+ * that selection needs neither a lock nor a shared counter and a few busy threads still use every
+ * key. The active keys are only recomputed once the next activation or retirement has passed.
+ */
+final class WuaSigningKeyRing {
+
+  /**
+   * A key used from {@code activeFrom}, inclusive, until {@code activeUntil}, exclusive.
+   * {@code null} leaves the window open at that end.
+   */
+  record ScheduledKey(WuaSigningContext context, Instant activeFrom, Instant activeUntil) {
+
+    boolean isActive(long nowMillis) {
+      return (activeFrom == null || activeFrom.toEpochMilli() <= nowMillis)
+          && (activeUntil == null || nowMillis < activeUntil.toEpochMilli());
+    }
+  }
+
+  private record ActiveKeys(long validFrom, long validUntil, WuaSigningContext[] contexts) {
+
+    boolean isValid(long nowMillis) {
+      return validFrom <= nowMillis && nowMillis < validUntil;
+    }
+  }
+
+  private final List<ScheduledKey> keys;
+  private final AtomicReference<ActiveKeys> active;
+
+  WuaSigningKeyRing(List<ScheduledKey> keys) {
+    this.keys = List.copyOf(keys);
+    this.active = new AtomicReference<>(new ActiveKeys(0, 0, new WuaSigningContext[0]));
+  }
+
+  /**
+   * Returns a key to sign with at the given time, one of those active at random.
+   *
+   * @throws WalletRuntimeException if no key is active
+   */
+  WuaSigningContext select(long nowMillis) {
+    ActiveKeys current = active.get();
+    if (!current.isValid(nowMillis)) {
+      // Racing threads compute the same result, whichever is set last wins
+      current = activeAt(nowMillis);
+      active.set(current);
+    }
+    WuaSigningContext[] contexts = current.contexts();
+    if (contexts.length == 1) {
+      return contexts[0];
+    }
+    if (contexts.length == 0) {
+      throw new WalletRuntimeException("No WUA signing key is active");
+    }
+    return contexts[ThreadLocalRandom.current().nextInt(contexts.length)];
+  }
+
+  List<WuaSigningContext> contexts() {
+    return keys.stream().map(ScheduledKey::context).toList();
+  }
+
+  boolean hasActiveKey(long nowMillis) {
+    return keys.stream().anyMatch(key -> key.isActive(nowMillis));
+  }
+
+  private ActiveKeys activeAt(long nowMillis) {
+    long validFrom = Long.MIN_VALUE;
+    long validUntil = Long.MAX_VALUE;
+    for (ScheduledKey key : keys) {
+      for (Instant boundary : new Instant[] {key.activeFrom(), key.activeUntil()}) {
+        if (boundary == null) {
+          continue;
+        }
+        long millis = boundary.toEpochMilli();
+        if (millis <= nowMillis) {
+          validFrom = Math.max(validFrom, millis);
+        } else {
+          validUntil = Math.min(validUntil, millis);
+        }
+      }
+    }
+    WuaSigningContext[] contexts = keys.stream()
+        .filter(key -> key.isActive(nowMillis))
+        .map(ScheduledKey::context)
+        .toArray(WuaSigningContext[]::new);
+    return new ActiveKeys(validFrom, validUntil, contexts);
+  }
+}
@@ -0,0 +1,153 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RateLimitFilterTest {
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private final AtomicReference<Exception> rejection = new AtomicReference<>();
+  private SimpleMeterRegistry meterRegistry;
+  private RateLimitFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    filter = new RateLimitFilter(
+        new WuaRateLimitProperties(true, "X-Client-Id", 10, 3, 1000, Duration.ofMinutes(1)),
+        (request, response, handler, e) -> {
+          rejection.set(e);
+          return null;
+        },
+        meterRegistry, nanoTime::get);
+  }
+
+  @Test
+  void assertThatFilter_givenBurstUsedUp_shouldRejectWithRetryAfter() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      assertAdmitted("10.0.0.1");
+    }
+
+    assertRejected("10.0.0.1");
+    assertEquals(1,
+        assertInstanceOf(RateLimitExceededException.class, rejection.get()).getRetryAfterSeconds());
+    assertEquals(1, rejections());
+  }
+
+  @Test
+  void assertThatFilter_givenTimeForOneToken_shouldAdmitOneMore() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      assertAdmitted("10.0.0.1");
+    }
+    assertRejected("10.0.0.1");
+
+    nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+    assertAdmitted("10.0.0.1");
+    assertRejected("10.0.0.1");
+  }
+
+  @Test
+  void assertThatFilter_givenFloodingClient_shouldStillAdmitOthers() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      assertAdmitted("10.0.0.1");
+    }
+    assertRejected("10.0.0.1");
+
+    assertAdmitted("10.0.0.2");
+  }
+
+  @Test
+  void assertThatFilter_givenClientHeader_shouldKeyOnHeaderOverAddress() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      assertNull(doFilter(request("10.0.0.1", "backend-a")));
+    }
+
+    assertNotNull(doFilter(request("10.0.0.1", "backend-a")));
+    assertNull(doFilter(request("10.0.0.1", "backend-b")));
+  }
+
+  @Test
+  void assertThatFilter_givenManyRejectedClients_shouldCountWithoutClientTags() throws Exception {
+    for (String client : new String[] {"10.0.0.1", "10.0.0.2", "10.0.0.3"}) {
+      for (int i = 0; i < 3; i++) {
+        assertAdmitted(client);
+      }
+      assertRejected(client);
+    }
+
+    assertEquals(3, rejections());
+    assertEquals(1, meterRegistry.find(RateLimitFilter.REJECTIONS).counters().size());
+  }
+
+  @Test
+  void assertThatFilter_givenActuatorRequest_shouldNotLimit() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      MockHttpServletRequest request = request("10.0.0.1", null);
+      request.setRequestURI("/actuator/health");
+      assertNull(doFilter(request));
+    }
+  }
+
+  @Test
+  void assertThatFilter_givenStatusListWithMatrixParameter_shouldNotLimit() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      MockHttpServletRequest request = request("10.0.0.1", null);
+      request.setRequestURI("/status-list;v=1");
+      assertNull(doFilter(request));
+    }
+  }
+
+  @Test
+  void assertThatFilter_givenEncodedActuatorRequest_shouldNotLimit() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      MockHttpServletRequest request = request("10.0.0.1", null);
+      request.setRequestURI("/%61ctuator/health");
+      assertNull(doFilter(request));
+    }
+  }
+
+  private void assertAdmitted(String address) throws Exception {
+    assertNull(doFilter(request(address, null)));
+  }
+
+  private void assertRejected(String address) throws Exception {
+    assertNotNull(doFilter(request(address, null)));
+  }
+
+  private Exception doFilter(MockHttpServletRequest request) throws Exception {
+    rejection.set(null);
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    return rejection.get();
+  }
+
+  private static MockHttpServletRequest request(String address, String clientId) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/wallet-unit-attestation");
+    request.setRemoteAddr(address);
+    if (clientId != null) {
+      request.addHeader("X-Client-Id", clientId);
+    }
+    return request;
+  }
+
+  private double rejections() {
+    return meterRegistry.get(RateLimitFilter.REJECTIONS).counter().count();
+  }
+}
@@ -0,0 +1,38 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedIdsTest {
+
+  @Test
+  void assertThatNextUuid_shouldBeVersion7WithRfcVariant() {
+    UUID id = TimeOrderedIds.nextUuid();
+
+    assertEquals(7, id.version());
+    assertEquals(2, id.variant());
+  }
+
+  @Test
+  void assertThatNextUuid_shouldStartWithCurrentTime() {
+    long before = System.currentTimeMillis();
+    UUID id = TimeOrderedIds.nextUuid();
+    long after = System.currentTimeMillis();
+
+    long timestamp = id.getMostSignificantBits() >>> 16;
+    assertTrue(before <= timestamp && timestamp <= after);
+  }
+
+  @Test
+  void assertThatNext_givenSameMillisecond_shouldDiffer() {
+    assertNotEquals(TimeOrderedIds.next(), TimeOrderedIds.next());
+  }
+}
@@ -0,0 +1,53 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import se.digg.wallet.provider.api.v0.model.ProblemResponse;
+import tools.jackson.databind.ObjectMapper;
+
+class ProblemTemplateTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @ParameterizedTest
+  @EnumSource(ProblemType.class)
+  void assertThatRender_shouldMatchSerializedProblemResponse(ProblemType problemType) {
+    String detail = "Bad \"value\" \\ for jwk\n at position 3, åäö";
+    String instance = "/wallet-unit-attestation";
+
+    String rendered =
+        new String(ProblemTemplate.of(problemType).render(detail, instance),
+            StandardCharsets.UTF_8);
+
+    assertEquals(mapper.writeValueAsString(ProblemResponse.builder()
+        .type(problemType.getUri())
+        .title(problemType.getTitle())
+        .status(problemType.getHttpStatus().value())
+        .detail(detail)
+        .instance(URI.create(instance))
+        .build()), rendered);
+  }
+
+  @ParameterizedTest
+  @EnumSource(ProblemType.class)
+  void assertThatRender_givenNoDetail_shouldMatchSerializedProblemResponse(
+      ProblemType problemType) {
+    String rendered =
+        new String(ProblemTemplate.of(problemType).render(null, ""), StandardCharsets.UTF_8);
+
+    assertEquals(mapper.writeValueAsString(ProblemResponse.builder()
+        .type(problemType.getUri())
+        .title(problemType.getTitle())
+        .status(problemType.getHttpStatus().value())
+        .instance(URI.create(""))
+        .build()), rendered);
+  }
+}
@@ -0,0 +1,143 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.URI;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import se.digg.wallet.provider.application.config.WuaAdminProperties;
+import se.digg.wallet.provider.application.config.WuaRequestLimitsProperties;
+import se.digg.wallet.provider.application.service.RevocationResult;
+import se.digg.wallet.provider.application.service.RevocationService;
+import se.digg.wallet.provider.application.service.WuaIssuanceMetrics;
+
+@WebMvcTest(RevocationController.class)
+@EnableConfigurationProperties({WuaAdminProperties.class, WuaRequestLimitsProperties.class})
+@Import({WuaIssuanceMetrics.class, SimpleMeterRegistry.class})
+@TestPropertySource(properties = "wua.admin.token=test-admin-token")
+class RevocationControllerTest {
+
+  private static final String PATH = "/admin/revocations";
+  private static final String BEARER = "Bearer test-admin-token";
+
+  @Autowired
+  private MockMvc mockMvc;
+  @Autowired
+  private SimpleMeterRegistry meterRegistry;
+  @MockitoBean
+  private RevocationService revocationService;
+
+  @BeforeEach
+  void setUp() {
+    when(revocationService.size()).thenReturn(1024L);
+  }
+
+  @Test
+  void assertThatPostRevocations_shouldRevokeIndicesAndThumbprints() throws Exception {
+    when(revocationService.revoke(any(), eq(List.of("key-1"))))
+        .thenReturn(new RevocationResult(3, 1, 0));
+
+    mockMvc.perform(post(PATH)
+        .header(HttpHeaders.AUTHORIZATION, BEARER)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"indices\":[1,2,1023],\"thumbprints\":[\"key-1\"]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.revoked").value(3))
+        .andExpect(jsonPath("$.unchanged").value(1))
+        .andExpect(jsonPath("$.unmatchedThumbprints").value(0));
+  }
+
+  @Test
+  void assertThatPostRevocations_givenIndexOutOfRange_shouldReturnBadRequest() throws Exception {
+    mockMvc.perform(post(PATH)
+        .header(HttpHeaders.AUTHORIZATION, BEARER)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"indices\":[1,1024]}"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.type").value("/problem-details/field-validation-failure"));
+
+    verify(revocationService, never()).revoke(any(), any());
+  }
+
+  @Test
+  void assertThatPostRevocations_givenWrongToken_shouldReturnUnauthorized() throws Exception {
+    mockMvc.perform(post(PATH)
+        .header(HttpHeaders.AUTHORIZATION, "Bearer test-admin-tokem")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"indices\":[1]}"))
+        .andExpect(status().isUnauthorized())
+        .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer"))
+        .andExpect(jsonPath("$.type").value("/problem-details/unauthorized"));
+
+    verify(revocationService, never()).revoke(any(), any());
+    // Admin requests are not issuance failures
+    assertEquals(0, meterRegistry.get("wua.issuance.failures")
+        .tag("problem_type", "UNAUTHORIZED_REQUEST").counter().count());
+  }
+
+  @Test
+  void assertThatPostRevocations_givenNoToken_shouldReturnUnauthorized() throws Exception {
+    mockMvc.perform(post(PATH)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"indices\":[1]}"))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void assertThatPostRevocations_givenMatrixParameterAndNoToken_shouldReturnUnauthorized()
+      throws Exception {
+    mockMvc.perform(post("/admin;x=1/revocations")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"indices\":[1]}"))
+        .andExpect(status().isUnauthorized());
+
+    verify(revocationService, never()).revoke(any(), any());
+  }
+
+  @Test
+  void assertThatPostRevocations_givenEncodedPathAndNoToken_shouldReturnUnauthorized()
+      throws Exception {
+    mockMvc.perform(post(URI.create("/%61dmin/revocations"))
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"indices\":[1]}"))
+        .andExpect(status().isUnauthorized());
+
+    verify(revocationService, never()).revoke(any(), any());
+  }
+
+  @Test
+  void assertThatPostRevocations_givenEncodedPathAndToken_shouldRevoke() throws Exception {
+    when(revocationService.revoke(any(), any())).thenReturn(new RevocationResult(1, 0, 0));
+
+    mockMvc.perform(post(URI.create("/%61dmin/revocations"))
+        .header(HttpHeaders.AUTHORIZATION, BEARER)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"indices\":[1]}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.revoked").value(1));
+  }
+}
@@ -0,0 +1,89 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.controller;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import se.digg.wallet.provider.application.config.WuaAdminProperties;
+import se.digg.wallet.provider.application.config.WuaRequestLimitsProperties;
+import se.digg.wallet.provider.application.config.WuaStatusListProperties;
+import se.digg.wallet.provider.application.service.StatusListPublisher;
+import se.digg.wallet.provider.application.service.StatusListToken;
+import se.digg.wallet.provider.application.service.WuaIssuanceMetrics;
+
+@WebMvcTest(StatusListController.class)
+@EnableConfigurationProperties({WuaAdminProperties.class, WuaStatusListProperties.class,
+    WuaRequestLimitsProperties.class})
+@Import({WuaIssuanceMetrics.class, SimpleMeterRegistry.class})
+class StatusListControllerTest {
+
+  private static final String JWT = "eyJ0eXAiOiJzdGF0dXNsaXN0K2p3dCJ9.eyJzdWIiOiJ1cmkifQ.test";
+  private static final String ETAG = "\"c3RhdHVzLWxpc3QtdGFnLTE\"";
+  private static final StatusListToken TOKEN =
+      new StatusListToken(JWT.getBytes(StandardCharsets.US_ASCII), ETAG, Instant.EPOCH,
+          Instant.EPOCH.plus(Duration.ofHours(24)));
+
+  @Autowired
+  private MockMvc mockMvc;
+  @MockitoBean
+  private StatusListPublisher publisher;
+
+  @BeforeEach
+  void setUp() {
+    when(publisher.isEnabled()).thenReturn(true);
+    when(publisher.current()).thenReturn(TOKEN);
+  }
+
+  @Test
+  void assertThatGetStatusList_shouldReturnTokenWithEtagAndCacheControl() throws Exception {
+    mockMvc.perform(get("/status-list"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(StatusListController.STATUS_LIST_CONTENT_TYPE))
+        .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+        .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, String.valueOf(JWT.length())))
+        .andExpect(content().string(JWT));
+  }
+
+  @Test
+  void assertThatGetStatusList_givenCurrentEtag_shouldReturnNotModified() throws Exception {
+    mockMvc.perform(get("/status-list").header(HttpHeaders.IF_NONE_MATCH, "\"other\", " + ETAG))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void assertThatGetStatusList_givenOutdatedEtag_shouldReturnToken() throws Exception {
+    mockMvc.perform(get("/status-list").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+        .andExpect(status().isOk())
+        .andExpect(content().string(JWT));
+  }
+
+  @Test
+  void assertThatGetStatusList_givenNoStatusList_shouldReturnNotFound() throws Exception {
+    when(publisher.isEnabled()).thenReturn(false);
+
+    mockMvc.perform(get("/status-list"))
+        .andExpect(status().isNotFound());
+  }
+}
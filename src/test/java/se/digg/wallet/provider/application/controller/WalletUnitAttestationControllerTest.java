@@ -4,41 +4,68 @@
 
 package se.digg.wallet.provider.application.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.text.ParseException;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.client.RestClientException;
 import se.digg.wallet.provider.api.v0.model.WalletUnitAttestationRequest;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaAdminProperties;
+import se.digg.wallet.provider.application.config.WuaRequestLimitsProperties;
+import se.digg.wallet.provider.application.service.AttestationRequest;
+import se.digg.wallet.provider.application.service.AttestationResult;
+import se.digg.wallet.provider.application.service.InvalidNonceException;
+import se.digg.wallet.provider.application.service.SignedAttestation;
+import se.digg.wallet.provider.application.service.SigningOverloadedException;
 import se.digg.wallet.provider.application.service.WalletUnitAttestationService;
+import se.digg.wallet.provider.application.service.WuaIssuanceMetrics;
 import tools.jackson.core.JacksonException;
 import tools.jackson.databind.ObjectMapper;
 import tools.jackson.databind.ObjectWriter;
 
 @WebMvcTest(WalletUnitAttestationController.class)
+@EnableConfigurationProperties({WuaAdminProperties.class, WuaRequestLimitsProperties.class})
+@Import({WuaIssuanceMetrics.class, SimpleMeterRegistry.class, AttestationRequestPrecheck.class})
 class WalletUnitAttestationControllerTest {
 
+  private static final String JWK = "{\"kty\":\"EC\",\"crv\":\"P-256\","
+      + "\"x\":\"18wHLeIgW9wVN6VD1Txgpqy2LszYkMf6J8njVAibvhM\","
+      + "\"y\":\"-V4dS4UaLMgP_4fY4j8ir7cl1TXlFdAgcx55o7TkcSA\"}";
+
   private final ObjectMapper mapper = new ObjectMapper();
+  // The JWK as a JSON string member value
+  private final String jwkValue = mapper.writeValueAsString(JWK);
   @Autowired
   private MockMvc mockMvc;
   @MockitoBean
   private WalletUnitAttestationService service;
+  @Autowired
+  private MeterRegistry meterRegistry;
 
   @Test
   void assertThatPostWalletUnitAttestation_givenPublicKeyAndNonce_shouldReturnOk()
       throws Exception {
     String expectedJwt = "eyJhbGciOiJFUzI1NiJ9.eyJpc3MiOiJEaWdnIn0.test";
-    when(service.createWalletUnitAttestation(anyString(), anyString()))
-        .thenReturn(SignedJWT.parse(expectedJwt));
+    when(service.createWalletUnitAttestation(anyString(), anyString(), isNull()))
+        .thenReturn(SignedAttestation.parse(expectedJwt));
 
     String jwk =
         """
@@ -60,6 +87,25 @@ class WalletUnitAttestationControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(asJson(input)))
         .andExpect(status().isOk())
+        .andExpect(content().contentType("text/plain;charset=UTF-8"))
+        .andExpect(header().string("Content-Length", String.valueOf(expectedJwt.length())))
+        .andExpect(content().string(expectedJwt));
+  }
+
+  @Test
+  void assertThatPostWalletUnitAttestation_givenIdempotencyKey_shouldPassItToService()
+      throws Exception {
+    String expectedJwt = "eyJhbGciOiJFUzI1NiJ9.eyJpc3MiOiJEaWdnIn0.test";
+    when(service.createWalletUnitAttestation(JWK, "test-nonce", "retry-1"))
+        .thenReturn(SignedAttestation.parse(expectedJwt));
+
+    mockMvc.perform(post("/wallet-unit-attestation")
+        .contentType(MediaType.APPLICATION_JSON)
+        .header("Idempotency-Key", "retry-1")
+        .content("""
+            {"jwk":%s,"nonce":"test-nonce"}
+            """.formatted(jwkValue)))
+        .andExpect(status().isOk())
         .andExpect(content().string(expectedJwt));
   }
 
@@ -93,8 +139,8 @@ class WalletUnitAttestationControllerTest {
   void assertThatPostWalletUnitAttestation_givenPublicKeyAndEmptyNonce_shouldReturnOk()
       throws Exception {
     String expectedJwt = "eyJhbGciOiJFUzI1NiJ9.eyJpc3MiOiJEaWdnIn0.test";
-    when(service.createWalletUnitAttestation(anyString(), anyString()))
-        .thenReturn(SignedJWT.parse(expectedJwt));
+    when(service.createWalletUnitAttestation(anyString(), anyString(), isNull()))
+        .thenReturn(SignedAttestation.parse(expectedJwt));
 
     String jwk =
         """
@@ -123,8 +169,8 @@ class WalletUnitAttestationControllerTest {
   void assertThatPostWalletUnitAttestation_givenPublicKeyAndNullNonce_shouldReturnOk()
       throws Exception {
     String expectedJwt = "eyJhbGciOiJFUzI1NiJ9.eyJpc3MiOiJEaWdnIn0.test";
-    when(service.createWalletUnitAttestation(anyString(), eq(null)))
-        .thenReturn(SignedJWT.parse(expectedJwt));
+    when(service.createWalletUnitAttestation(anyString(), isNull(), isNull()))
+        .thenReturn(SignedAttestation.parse(expectedJwt));
 
     String jwk =
         """
@@ -149,6 +195,115 @@ class WalletUnitAttestationControllerTest {
         .andExpect(content().string(expectedJwt));
   }
 
+  @Test
+  void assertThatPostWalletUnitAttestationBatch_givenItems_shouldReturnResultPerItem()
+      throws Exception {
+    String expectedJwt = "eyJhbGciOiJFUzI1NiJ9.eyJpc3MiOiJEaWdnIn0.test";
+    when(service.createWalletUnitAttestations(List.of(
+        new AttestationRequest(JWK, "nonce-1"),
+        new AttestationRequest(JWK, null),
+        new AttestationRequest(JWK, "nonce-3"))))
+        .thenReturn(List.of(
+            AttestationResult.success(SignedAttestation.parse(expectedJwt)),
+            AttestationResult.failure(new IllegalStateException("/run/wua-signer/signer.sock")),
+            AttestationResult.failure(new WalletRuntimeException("Could not create attestation.",
+                new ParseException("Invalid EC JWK: The public key is not on the curve", 0)))));
+
+    mockMvc.perform(post("/wallet-unit-attestation/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("""
+            {"items":[{"jwk":%1$s,"nonce":"nonce-1"},{"jwk":%1$s},{"jwk":%1$s,"nonce":"nonce-3"}]}
+            """.formatted(jwkValue)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results[0].jwt").value(expectedJwt))
+        .andExpect(jsonPath("$.results[1].problem.status").value(500))
+        .andExpect(jsonPath("$.results[1].problem.detail").value("Could not create attestation."))
+        .andExpect(jsonPath("$.results[2].problem.status").value(400))
+        .andExpect(jsonPath("$.results[2].problem.type")
+            .value("/problem-details/field-validation-failure"))
+        .andExpect(jsonPath("$.results[2].problem.detail")
+            .value("jwk is not a valid P-256 public key"));
+  }
+
+  @Test
+  void assertThatPostWalletUnitAttestationBatch_givenNoItems_shouldReturnBadRequest()
+      throws Exception {
+    mockMvc.perform(post("/wallet-unit-attestation/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("""
+            {"items":[]}
+            """))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void assertThatPostWalletUnitAttestationBatch_givenInvalidItem_shouldReturnProblemForItem()
+      throws Exception {
+    String expectedJwt = "eyJhbGciOiJFUzI1NiJ9.eyJpc3MiOiJEaWdnIn0.test";
+    when(service.createWalletUnitAttestations(List.of(new AttestationRequest(JWK, null))))
+        .thenReturn(List.of(AttestationResult.success(SignedAttestation.parse(expectedJwt))));
+
+    mockMvc.perform(post("/wallet-unit-attestation/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("""
+            {"items":[{"jwk":"{\\"kty\\":\\"RSA\\"}"},{"jwk":%s}]}
+            """.formatted(jwkValue)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results[0].problem.status").value(400))
+        .andExpect(jsonPath("$.results[0].problem.detail").value("jwk kty must be EC"))
+        .andExpect(jsonPath("$.results[1].jwt").value(expectedJwt));
+  }
+
+  @Test
+  void assertThatPostWalletUnitAttestation_givenWrongCurve_shouldReturnBadRequest()
+      throws Exception {
+    mockMvc.perform(post("/wallet-unit-attestation")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(asJson(WalletUnitAttestationRequest.builder()
+            .jwk(JWK.replace("P-256", "P-384"))
+            .build())))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+        .andExpect(jsonPath("$.type").value("/problem-details/field-validation-failure"))
+        .andExpect(jsonPath("$.detail").value("jwk crv must be P-256"));
+
+    verifyNoInteractions(service);
+  }
+
+  @Test
+  void assertThatPostWalletUnitAttestation_givenTooLongNonce_shouldReturnBadRequest()
+      throws Exception {
+    mockMvc.perform(post("/wallet-unit-attestation")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(asJson(WalletUnitAttestationRequest.builder()
+            .jwk(JWK)
+            .nonce("n".repeat(256))
+            .build())))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.detail").value("nonce exceeds 255 characters"));
+
+    verifyNoInteractions(service);
+  }
+
+  @Test
+  void assertThatPostWalletUnitAttestation_givenTooLargeBody_shouldReturnContentTooLarge()
+      throws Exception {
+    double before = failures("REQUEST_TOO_LARGE");
+
+    mockMvc.perform(post("/wallet-unit-attestation")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(asJson(WalletUnitAttestationRequest.builder()
+            .jwk(JWK)
+            .nonce("n".repeat(17 * 1024))
+            .build())))
+        .andExpect(status().isContentTooLarge())
+        .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+        .andExpect(jsonPath("$.type").value("/problem-details/request-too-large"));
+
+    verifyNoInteractions(service);
+    assertEquals(before + 1, failures("REQUEST_TOO_LARGE"));
+  }
+
   private String asJson(WalletUnitAttestationRequest input) throws JacksonException {
     ObjectWriter objectWriter = mapper.writer().withDefaultPrettyPrinter();
     return objectWriter.writeValueAsString(input);
@@ -156,14 +311,14 @@ class WalletUnitAttestationControllerTest {
 
   @Test
   void shouldUseDefaultExceptionHandlerForRestClientException() throws Exception {
-    when(service.createWalletUnitAttestation(anyString(), anyString()))
+    when(service.createWalletUnitAttestation(anyString(), anyString(), isNull()))
         .thenThrow(new RestClientException("connection refused"));
 
     mockMvc.perform(post("/wallet-unit-attestation")
         .contentType(MediaType.APPLICATION_JSON)
         .content("""
-            {"jwk":"test-jwk","nonce":"test-nonce"}
-            """))
+            {"jwk":%s,"nonce":"test-nonce"}
+            """.formatted(jwkValue)))
         .andExpect(status().isInternalServerError())
         .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
         .andExpect(jsonPath("$.title").value("Internal Server Error"))
@@ -171,4 +326,62 @@ class WalletUnitAttestationControllerTest {
         .andExpect(jsonPath("$.type").value("about:blank"));
   }
 
+  @Test
+  void assertThatPostWalletUnitAttestation_givenFailure_shouldCountProblemType() throws Exception {
+    when(service.createWalletUnitAttestation(anyString(), anyString(), isNull()))
+        .thenThrow(new WalletRuntimeException("boom"));
+    double before = failures("INTERNAL");
+
+    mockMvc.perform(post("/wallet-unit-attestation")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("""
+            {"jwk":%s,"nonce":"test-nonce"}
+            """.formatted(jwkValue)))
+        .andExpect(status().isInternalServerError());
+
+    assertEquals(before + 1, failures("INTERNAL"));
+  }
+
+  @Test
+  void assertThatPostWalletUnitAttestation_givenSigningOverloaded_shouldReturnRetryAfter()
+      throws Exception {
+    when(service.createWalletUnitAttestation(anyString(), anyString(), isNull()))
+        .thenThrow(new SigningOverloadedException());
+
+    mockMvc.perform(post("/wallet-unit-attestation")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("""
+            {"jwk":%s,"nonce":"test-nonce"}
+            """.formatted(jwkValue)))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+        .andExpect(jsonPath("$.type").value("/problem-details/service-unavailable"));
+  }
+
+  @Test
+  void assertThatPostWalletUnitAttestation_givenInvalidNonce_shouldReturnInvalidNonceProblem()
+      throws Exception {
+    when(service.createWalletUnitAttestation(anyString(), anyString(), isNull()))
+        .thenThrow(new InvalidNonceException());
+    double before = failures("INVALID_NONCE");
+
+    mockMvc.perform(post("/wallet-unit-attestation")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("""
+            {"jwk":%s,"nonce":"test-nonce"}
+            """.formatted(jwkValue)))
+        .andExpect(status().isBadRequest())
+        .andExpect(content().contentType(MediaType.APPLICATION_PROBLEM_JSON))
+        .andExpect(jsonPath("$.type").value("/problem-details/invalid-nonce"))
+        .andExpect(jsonPath("$.detail").value("nonce is unknown, expired or already used"));
+
+    assertEquals(before + 1, failures("INVALID_NONCE"));
+  }
+
+  private double failures(String problemType) {
+    var counter = meterRegistry.find("wua.issuance.failures").tag("problem_type", problemType)
+        .counter();
+    return counter == null ? 0 : counter.count();
+  }
+
 }
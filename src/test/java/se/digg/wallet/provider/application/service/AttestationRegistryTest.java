@@ -0,0 +1,151 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import se.digg.wallet.provider.application.config.WuaRegistryProperties;
+
+class AttestationRegistryTest {
+
+  private static final Instant ISSUED_AT = Instant.parse("2026-10-17T12:00:00Z");
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final JdbcConnectionPool dataSource =
+      JdbcConnectionPool.create("jdbc:h2:mem:" + UUID.randomUUID(), "sa", "");
+
+  private AttestationRegistry registry(boolean enabled) {
+    return new AttestationRegistry(dataSource, new WuaRegistryProperties(enabled, 16),
+        meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    dataSource.dispose();
+  }
+
+  private static IssuedAttestation attestation(String thumbprint, long validSeconds,
+      long statusIndex) {
+    return new IssuedAttestation(UUID.randomUUID(), thumbprint, ISSUED_AT,
+        ISSUED_AT.plusSeconds(validSeconds), statusIndex);
+  }
+
+  @Test
+  void assertThatFind_afterRegister_shouldReturnAttestationByJti() throws Exception {
+    AttestationRegistry registry = registry(true);
+    IssuedAttestation indexed = attestation("key-1", 3600, 412);
+    IssuedAttestation unindexed = attestation("key-1", 3600, -1);
+
+    registry.register(indexed);
+    registry.register(unindexed);
+    registry.destroy();
+
+    assertEquals(Optional.of(indexed), registry.find(indexed.jti()));
+    assertEquals(Optional.of(unindexed), registry.find(unindexed.jti()));
+    assertEquals(Optional.empty(), registry.find(UUID.randomUUID()));
+  }
+
+  @Test
+  void assertThatStatusIndices_shouldReturnIndicesOfValidAttestationsByThumbprint()
+      throws Exception {
+    AttestationRegistry registry = registry(true);
+    registry.register(attestation("key-1", 60, 1));
+    registry.register(attestation("key-1", 3600, 2));
+    registry.register(attestation("key-1", 3600, -1));
+    registry.register(attestation("key-2", 3600, 3));
+    registry.destroy();
+
+    Map<String, List<Long>> indices =
+        registry.statusIndices(Set.of("key-1", "key-3"), ISSUED_AT.plusSeconds(60));
+
+    assertEquals(Map.of("key-1", List.of(2L)), indices);
+  }
+
+  @Test
+  void assertThatFlush_shouldMakeQueuedAttestationsVisible() throws Exception {
+    AttestationRegistry registry = registry(true);
+    List<String> thumbprints = new ArrayList<>();
+    for (int i = 0; i < 1200; i++) {
+      thumbprints.add("key-" + i);
+      registry.register(attestation("key-" + i, 3600, i));
+    }
+
+    assertTrue(registry.flush(Duration.ofSeconds(10)));
+
+    Map<String, List<Long>> indices = registry.statusIndices(Set.copyOf(thumbprints), ISSUED_AT);
+    assertEquals(1200, indices.size());
+    assertEquals(List.of(1199L), indices.get("key-1199"));
+    registry.destroy();
+  }
+
+  @Test
+  void assertThatFlush_afterFailedWrite_shouldFailWhileWriterContinues() throws Exception {
+    AttestationRegistry registry = registry(true);
+    registry.register(attestation("key-1", 3600, 1));
+    assertTrue(registry.flush(Duration.ofSeconds(10)));
+    dataSource.dispose();
+
+    registry.register(attestation("key-2", 3600, 2));
+    assertFalse(registry.flush(Duration.ofSeconds(10)));
+    registry.register(attestation("key-3", 3600, 3));
+    assertFalse(registry.flush(Duration.ofSeconds(10)));
+
+    assertEquals(2.0, meterRegistry.get("wua.registry.failures").counter().count());
+    registry.destroy();
+  }
+
+  @Test
+  void assertThatRegister_fromConcurrentRequests_shouldRegisterEveryAttestation()
+      throws Exception {
+    AttestationRegistry registry = registry(true);
+    List<Thread> producers = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      String thumbprint = "key-" + t;
+      producers.add(Thread.ofVirtual().start(() -> {
+        for (int i = 0; i < 2500; i++) {
+          registry.register(attestation(thumbprint, 3600, i));
+        }
+      }));
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    registry.destroy();
+
+    Map<String, List<Long>> indices =
+        registry.statusIndices(Set.of("key-0", "key-1", "key-2", "key-3"), ISSUED_AT);
+    for (List<Long> perKey : indices.values()) {
+      assertEquals(2500, perKey.size());
+    }
+    assertEquals(4, indices.size());
+    assertEquals(0.0, meterRegistry.get("wua.registry.failures").counter().count());
+  }
+
+  @Test
+  void assertThatRegister_whenDisabled_shouldNotWrite() throws Exception {
+    AttestationRegistry registry = registry(false);
+    IssuedAttestation attestation = attestation("key-1", 3600, 412);
+
+    registry.register(attestation);
+    registry.destroy();
+
+    assertTrue(registry.find(attestation.jti()).isEmpty());
+    assertTrue(registry.statusIndices(Set.of("key-1"), ISSUED_AT).isEmpty());
+  }
+}
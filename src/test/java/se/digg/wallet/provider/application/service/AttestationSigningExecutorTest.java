@@ -0,0 +1,108 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaSigningProperties;
+import se.digg.wallet.provider.application.config.WuaSigningProperties.Backend;
+
+class AttestationSigningExecutorTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private AttestationSigningExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    executor = new AttestationSigningExecutor(
+        new WuaSigningProperties(2, 4, Backend.IN_PROCESS, null, 2, Duration.ofSeconds(2)),
+        meterRegistry);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.destroy();
+    MDC.clear();
+  }
+
+  @Test
+  void assertThatCall_givenLoggingContext_shouldCarryItToSigningThread() {
+    MDC.put("correlationId", "abc-123");
+
+    String correlationId = executor.call(() -> MDC.get("correlationId"));
+
+    assertEquals("abc-123", correlationId);
+  }
+
+  @Test
+  void assertThatCall_afterTask_shouldClearLoggingContextOfSigningThread() {
+    MDC.put("correlationId", "abc-123");
+    executor.call(() -> null);
+    MDC.clear();
+
+    assertNull(executor.call(() -> MDC.get("correlationId")));
+  }
+
+  @Test
+  void assertThatCall_fromVirtualThread_shouldRunOnPlatformThread() throws Exception {
+    AtomicReference<Thread> signingThread = new AtomicReference<>();
+
+    Thread.ofVirtual().start(() -> signingThread.set(executor.call(Thread::currentThread)))
+        .join();
+
+    assertFalse(signingThread.get().isVirtual());
+    assertTrue(signingThread.get().getName().startsWith("wua-signing-"));
+  }
+
+  @Test
+  void assertThatCall_givenFailingTask_shouldRethrowFailure() {
+    WalletRuntimeException failure = new WalletRuntimeException("failed", null);
+
+    WalletRuntimeException thrown = assertThrows(WalletRuntimeException.class,
+        () -> executor.call(() -> {
+          throw failure;
+        }));
+
+    assertSame(failure, thrown);
+  }
+
+  @Test
+  void assertThatCall_shouldRecordHandoffLatency() {
+    executor.call(() -> null);
+
+    assertEquals(1, meterRegistry.get("wua.signing.handoff").timer().count());
+  }
+
+  @Test
+  void assertThatSubmit_givenFullQueue_shouldReject() {
+    CompletableFuture<Void> release = new CompletableFuture<>();
+    try {
+      // Two running on the signing threads, four waiting in the queue
+      for (int i = 0; i < 6; i++) {
+        executor.submit(() -> {
+          return release.join();
+        });
+      }
+
+      assertThrows(SigningOverloadedException.class, () -> executor.submit(() -> null));
+    } finally {
+      release.complete(null);
+    }
+  }
+}
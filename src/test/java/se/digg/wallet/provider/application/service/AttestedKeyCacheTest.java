@@ -0,0 +1,84 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.text.ParseException;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.digg.wallet.provider.application.config.WuaAttestedKeyCacheProperties;
+
+class AttestedKeyCacheTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private AttestedKeyCache cache;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    cache = new AttestedKeyCache(new WuaAttestedKeyCacheProperties(2, Duration.ofHours(1)),
+        meterRegistry);
+  }
+
+  @Test
+  void assertThatGet_givenSameJwk_shouldReturnCachedKey() throws Exception {
+    ECKey jwk = createJwk();
+
+    AttestedKey first = cache.get(jwk.toJSONString());
+    AttestedKey second = cache.get(jwk.toJSONString());
+
+    assertSame(first, second);
+    assertEquals(jwk.computeThumbprint().toString(), first.thumbprint());
+    assertEquals(jwk.getX(), first.key().getX());
+    assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "wua.attested-keys")
+        .tag("result", "hit").functionCounter().count());
+  }
+
+  @Test
+  void assertThatGet_givenInvalidJwk_shouldThrowAndNotCache() {
+    assertThrows(ParseException.class, () -> cache.get("{\"kty\":\"EC\"}"));
+    assertEquals(0, cache.estimatedSize());
+  }
+
+  @Test
+  void assertThatGet_givenMoreKeysThanMaximumSize_shouldStayBounded() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      cache.get(createJwk().toJSONString());
+    }
+
+    assertTrue(cache.estimatedSize() <= 2);
+  }
+
+  @Test
+  void assertThatGet_givenOversizedJwk_shouldNotCache() throws Exception {
+    ECKey jwk = new ECKey.Builder(createJwk())
+        .keyID("k".repeat(AttestedKeyCache.MAX_CACHED_JWK_LENGTH))
+        .build();
+
+    AttestedKey first = cache.get(jwk.toJSONString());
+    AttestedKey second = cache.get(jwk.toJSONString());
+
+    assertNotSame(first, second);
+    assertEquals(0, cache.estimatedSize());
+  }
+
+  private static ECKey createJwk() throws Exception {
+    KeyPairGenerator gen = KeyPairGenerator.getInstance("EC");
+    gen.initialize(Curve.P_256.toECParameterSpec());
+    return new ECKey.Builder(Curve.P_256, (ECPublicKey) gen.generateKeyPair().getPublic())
+        .build();
+  }
+}
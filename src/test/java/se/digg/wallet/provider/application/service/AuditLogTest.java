@@ -0,0 +1,145 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import se.digg.wallet.provider.application.config.WuaAuditProperties;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+class AuditLogTest {
+
+  private static final Instant ISSUED_AT = Instant.parse("2026-10-17T12:00:00.123Z");
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  @TempDir
+  private Path directory;
+
+  private AuditLog auditLog(DataSize segmentSize, int bufferSize) {
+    return new AuditLog(new WuaAuditProperties(true, directory, segmentSize, bufferSize,
+        Duration.ofSeconds(1)),
+        meterRegistry);
+  }
+
+  private static AuditRecord record(String correlationId, long statusIndex) {
+    return new AuditRecord(ISSUED_AT, ISSUED_AT.plus(Duration.ofHours(24)),
+        "0sEPSwK6oOtnrBp4L2OMWnXQG-A8M4PXd7Gb6DV4KyI", correlationId, statusIndex);
+  }
+
+  @Test
+  void assertThatAppend_afterDestroy_shouldHaveWrittenRecordAsJsonLine() throws Exception {
+    AuditLog auditLog = auditLog(DataSize.ofMegabytes(64), 1024);
+
+    auditLog.append(record("abc-123", 412));
+    auditLog.append(record(null, -1));
+    auditLog.destroy();
+
+    List<Path> segments = segments();
+    assertEquals(1, segments.size());
+    List<String> lines = Files.readAllLines(segments.getFirst());
+    assertEquals(2, lines.size());
+    JsonNode first = mapper.readTree(lines.get(0));
+    assertEquals("2026-10-17T12:00:00.123Z", first.get("issued_at").asString());
+    assertEquals("2026-10-18T12:00:00.123Z", first.get("expires_at").asString());
+    assertEquals("0sEPSwK6oOtnrBp4L2OMWnXQG-A8M4PXd7Gb6DV4KyI",
+        first.get("key_thumbprint").asString());
+    assertEquals("abc-123", first.get("correlation_id").asString());
+    assertEquals(412, first.get("status_idx").asLong());
+    JsonNode second = mapper.readTree(lines.get(1));
+    assertTrue(second.get("correlation_id").isNull());
+    assertTrue(second.get("status_idx").isNull());
+  }
+
+  @Test
+  void assertThatAppend_givenFullSegment_shouldRollOverToNextSegment() throws Exception {
+    AuditLog auditLog = auditLog(DataSize.ofKilobytes(64), 1024);
+
+    for (int i = 0; i < 1000; i++) {
+      auditLog.append(record("request-" + i, i));
+    }
+    auditLog.destroy();
+
+    List<Path> segments = segments();
+    assertTrue(segments.size() > 1, segments::toString);
+    List<String> lines = new ArrayList<>();
+    for (Path segment : segments) {
+      assertTrue(Files.size(segment) <= DataSize.ofKilobytes(64).toBytes());
+      lines.addAll(Files.readAllLines(segment));
+    }
+    assertEquals(1000, lines.size());
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(i, mapper.readTree(lines.get(i)).get("status_idx").asLong());
+    }
+  }
+
+  @Test
+  void assertThatAppend_fromConcurrentRequests_shouldWriteEveryRecordInOrderPerRequest()
+      throws Exception {
+    AuditLog auditLog = auditLog(DataSize.ofMegabytes(64), 16);
+    int threads = 4;
+    int perThread = 5000;
+
+    List<Thread> producers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      String producer = "producer-" + t;
+      producers.add(Thread.ofVirtual().start(() -> {
+        for (int i = 0; i < perThread; i++) {
+          auditLog.append(record(producer, i));
+        }
+      }));
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    auditLog.destroy();
+
+    long[] next = new long[threads];
+    for (String line : Files.readAllLines(segments().getFirst())) {
+      JsonNode node = mapper.readTree(line);
+      int producer = Integer.parseInt(node.get("correlation_id").asString().substring(9));
+      assertEquals(next[producer]++, node.get("status_idx").asLong());
+    }
+    for (long count : next) {
+      assertEquals(perThread, count);
+    }
+    assertEquals(0.0, meterRegistry.get("wua.audit.failures").counter().count());
+  }
+
+  @Test
+  void assertThatAppend_whenDisabled_shouldNotWrite() throws Exception {
+    Path disabledDirectory = directory.resolve("disabled");
+    AuditLog auditLog = new AuditLog(
+        new WuaAuditProperties(false, disabledDirectory, DataSize.ofMegabytes(1), 1024,
+            Duration.ofSeconds(1)),
+        meterRegistry);
+
+    auditLog.append(record("abc-123", 412));
+    auditLog.destroy();
+
+    assertFalse(Files.exists(disabledDirectory));
+  }
+
+  private List<Path> segments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.sorted().toList();
+    }
+  }
+}
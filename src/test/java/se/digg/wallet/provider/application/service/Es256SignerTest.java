@@ -0,0 +1,69 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.util.Base64URL;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+
+class Es256SignerTest {
+
+  private static final JWSHeader HEADER = new JWSHeader(JWSAlgorithm.ES256);
+
+  private static KeyPair keyPair;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    KeyPairGenerator gen = KeyPairGenerator.getInstance("EC");
+    gen.initialize(Curve.P_256.toECParameterSpec());
+    keyPair = gen.generateKeyPair();
+  }
+
+  @Test
+  void assertThatSign_givenReusedSigner_shouldProduceVerifiableSignatures() throws Exception {
+    Es256Signer signer = new Es256Signer((ECPrivateKey) keyPair.getPrivate(), "SunEC");
+    ECDSAVerifier verifier = new ECDSAVerifier((ECPublicKey) keyPair.getPublic());
+
+    for (int i = 0; i < 3; i++) {
+      byte[] signingInput = ("header.claims-" + i).getBytes(StandardCharsets.US_ASCII);
+      Base64URL signature = signer.sign(HEADER, signingInput);
+
+      assertEquals(64, signature.decode().length);
+      assertTrue(verifier.verify(HEADER, signingInput, signature));
+    }
+  }
+
+  @Test
+  void assertThatSign_givenDefaultProvider_shouldProduceVerifiableSignature() throws Exception {
+    Es256Signer signer = new Es256Signer((ECPrivateKey) keyPair.getPrivate(), "");
+    byte[] signingInput = "header.claims".getBytes(StandardCharsets.US_ASCII);
+
+    Base64URL signature = signer.sign(HEADER, signingInput);
+
+    assertTrue(new ECDSAVerifier((ECPublicKey) keyPair.getPublic())
+        .verify(HEADER, signingInput, signature));
+  }
+
+  @Test
+  void assertThatConstructor_givenUnknownProvider_shouldThrow() {
+    ECPrivateKey signingKey = (ECPrivateKey) keyPair.getPrivate();
+
+    assertThrows(WalletRuntimeException.class, () -> new Es256Signer(signingKey, "NoSuchJca"));
+  }
+}
@@ -0,0 +1,116 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.nimbusds.jose.util.Base64URL;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaIdempotencyProperties;
+
+class IdempotentIssuanceCacheTest {
+
+  private final AtomicInteger issued = new AtomicInteger();
+
+  @Test
+  void assertThatGet_givenRetry_shouldReturnCachedAttestation() {
+    IdempotentIssuanceCache cache = cache(true);
+
+    SignedAttestation first = cache.get(null, "jwk", "nonce", this::issue);
+    SignedAttestation second = cache.get(null, "jwk", "nonce", this::issue);
+
+    assertSame(first, second);
+    assertEquals(1, issued.get());
+  }
+
+  @Test
+  void assertThatGet_givenDifferentNonceOrKey_shouldIssueAgain() {
+    IdempotentIssuanceCache cache = cache(true);
+
+    SignedAttestation first = cache.get(null, "jwk", "nonce", this::issue);
+    SignedAttestation otherNonce = cache.get(null, "jwk", null, this::issue);
+    SignedAttestation otherKey = cache.get("retry-1", "jwk", "nonce", this::issue);
+
+    assertNotSame(first, otherNonce);
+    assertNotSame(first, otherKey);
+    assertEquals(3, issued.get());
+  }
+
+  @Test
+  void assertThatGet_givenImplicitKeyingOff_shouldOnlyCacheWithIdempotencyKey() {
+    IdempotentIssuanceCache cache = cache(false);
+
+    cache.get(null, "jwk", "nonce", this::issue);
+    cache.get(null, "jwk", "nonce", this::issue);
+    cache.get("retry-1", "jwk", "nonce", this::issue);
+    cache.get("retry-1", "jwk", "nonce", this::issue);
+
+    assertEquals(3, issued.get());
+  }
+
+  @Test
+  void assertThatGet_givenConcurrentIdenticalRequests_shouldSignOnce() throws Exception {
+    IdempotentIssuanceCache cache = cache(true);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Supplier<SignedAttestation> slowIssuer = () -> {
+      started.countDown();
+      await(release);
+      return issue();
+    };
+
+    CompletableFuture<SignedAttestation> first =
+        CompletableFuture.supplyAsync(() -> cache.get(null, "jwk", "nonce", slowIssuer));
+    started.await(5, TimeUnit.SECONDS);
+    CompletableFuture<SignedAttestation> second =
+        CompletableFuture.supplyAsync(() -> cache.get(null, "jwk", "nonce", slowIssuer));
+    release.countDown();
+
+    assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+    assertEquals(1, issued.get());
+  }
+
+  @Test
+  void assertThatGet_givenFailure_shouldRethrowAndNotCache() {
+    IdempotentIssuanceCache cache = cache(true);
+
+    assertThrows(WalletRuntimeException.class, () -> cache.get(null, "jwk", "nonce", () -> {
+      throw new WalletRuntimeException("Could not create attestation.");
+    }));
+    cache.get(null, "jwk", "nonce", this::issue);
+
+    assertEquals(1, issued.get());
+  }
+
+  private SignedAttestation issue() {
+    Base64URL part = Base64URL.encode(Integer.toString(issued.incrementAndGet()));
+    return new SignedAttestation(part, part, part);
+  }
+
+  private static IdempotentIssuanceCache cache(boolean implicitKeying) {
+    return new IdempotentIssuanceCache(
+        new WuaIdempotencyProperties(implicitKeying, 100, Duration.ofMinutes(1)),
+        new SimpleMeterRegistry());
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
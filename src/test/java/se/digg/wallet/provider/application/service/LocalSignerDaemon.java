@@ -0,0 +1,128 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.interfaces.ECPrivateKey;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Stand-in for the signer daemon, speaking {@link SignerProtocol} on a Unix domain socket with keys
+ * held in memory. Requests on a connection are answered in order.
+ */
+public class LocalSignerDaemon implements Closeable {
+
+  private static final JWSHeader ES256 = new JWSHeader(JWSAlgorithm.ES256);
+
+  private final Path socketPath;
+  private final Map<String, Es256Signer> signers;
+  private final ServerSocketChannel server;
+  private final List<SocketChannel> clients = new CopyOnWriteArrayList<>();
+  private volatile boolean truncating;
+
+  private LocalSignerDaemon(Path socketPath, Map<String, ECPrivateKey> keys) throws IOException {
+    this.socketPath = socketPath;
+    this.signers = keys.entrySet().stream()
+        .collect(Collectors.toMap(Map.Entry::getKey, e -> new Es256Signer(e.getValue(), null)));
+    Files.deleteIfExists(socketPath);
+    this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    server.bind(UnixDomainSocketAddress.of(socketPath));
+  }
+
+  public static LocalSignerDaemon start(Path socketPath, Map<String, ECPrivateKey> keys)
+      throws IOException {
+    LocalSignerDaemon daemon = new LocalSignerDaemon(socketPath, keys);
+    daemon.startThread("local-signer-accept", daemon::accept);
+    return daemon;
+  }
+
+  public Path socketPath() {
+    return socketPath;
+  }
+
+  /** Answers with the last byte of each signature cut off, as a faulty signer would. */
+  public void truncateSignatures() {
+    truncating = true;
+  }
+
+  @Override
+  public void close() throws IOException {
+    server.close();
+    for (SocketChannel client : clients) {
+      client.close();
+    }
+    Files.deleteIfExists(socketPath);
+  }
+
+  private void accept() {
+    try {
+      while (true) {
+        SocketChannel client = server.accept();
+        clients.add(client);
+        startThread("local-signer-connection", () -> serve(client));
+      }
+    } catch (ClosedChannelException e) {
+      // Closed
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private void serve(SocketChannel client) {
+    try (client) {
+      ByteBuffer frame;
+      while ((frame = SignerProtocol.readFrame(client)) != null) {
+        SignerProtocol.writeFully(client, handle(frame));
+      }
+    } catch (IOException e) {
+      // Connection closed by either side
+    } finally {
+      clients.remove(client);
+    }
+  }
+
+  private ByteBuffer handle(ByteBuffer frame) {
+    int id = frame.getInt();
+    byte[] alias = new byte[frame.getShort()];
+    frame.get(alias);
+    byte[] signingInput = new byte[frame.remaining()];
+    frame.get(signingInput);
+
+    Es256Signer signer = signers.get(new String(alias, StandardCharsets.UTF_8));
+    if (signer == null) {
+      return SignerProtocol.error(id, "Unknown key");
+    }
+    try {
+      byte[] signature = signer.sign(ES256, signingInput).decode();
+      return SignerProtocol.response(id, SignerProtocol.OK,
+          truncating ? Arrays.copyOf(signature, signature.length - 1) : signature);
+    } catch (JOSEException e) {
+      return SignerProtocol.error(id, e.getMessage());
+    }
+  }
+
+  private void startThread(String name, Runnable task) {
+    Thread thread = new Thread(task, name);
+    thread.setDaemon(true);
+    thread.start();
+  }
+}
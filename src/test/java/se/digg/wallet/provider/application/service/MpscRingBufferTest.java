@@ -0,0 +1,81 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class MpscRingBufferTest {
+
+  @Test
+  void assertThatOffer_givenFullBuffer_shouldRejectUntilDrained() {
+    MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(3);
+    assertEquals(4, buffer.capacity());
+    for (int i = 0; i < 4; i++) {
+      assertTrue(buffer.offer(i));
+    }
+
+    assertFalse(buffer.offer(4));
+    List<Integer> drained = new ArrayList<>();
+    assertEquals(2, buffer.drain(drained::add, 2));
+    assertTrue(buffer.offer(4));
+    assertEquals(3, buffer.size());
+  }
+
+  @Test
+  void assertThatDrain_afterWrapping_shouldReturnElementsInOfferOrder() {
+    MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+    List<Integer> drained = new ArrayList<>();
+
+    for (int i = 0; i < 10; i++) {
+      buffer.offer(i);
+      if (i % 3 == 2) {
+        buffer.drain(drained::add, Integer.MAX_VALUE);
+      }
+    }
+    buffer.drain(drained::add, Integer.MAX_VALUE);
+
+    assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), drained);
+    assertEquals(0, buffer.size());
+  }
+
+  @Test
+  void assertThatAwait_givenPublishedElement_shouldReturnAtOnce() {
+    MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+    buffer.offer(1);
+
+    assertTimeoutPreemptively(Duration.ofSeconds(5), () -> buffer.await(Long.MAX_VALUE));
+  }
+
+  @Test
+  void assertThatAwait_givenOfferFromProducer_shouldWakeConsumer() {
+    MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+    List<Integer> drained = new ArrayList<>();
+
+    assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+      Thread producer = Thread.ofPlatform().start(() -> {
+        for (int i = 0; i < 100; i++) {
+          while (!buffer.offer(i)) {
+            Thread.onSpinWait();
+          }
+        }
+      });
+      while (drained.size() < 100) {
+        if (buffer.drain(drained::add, Integer.MAX_VALUE) == 0) {
+          buffer.await(Long.MAX_VALUE);
+        }
+      }
+      producer.join();
+    });
+    assertEquals(100, drained.size());
+  }
+}
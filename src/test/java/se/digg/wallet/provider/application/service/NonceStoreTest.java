@@ -0,0 +1,142 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import se.digg.wallet.provider.application.config.WuaNonceProperties;
+
+class NonceStoreTest {
+
+  private final AtomicLong now = new AtomicLong(1_800_000_000L);
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private NonceStore store(int maximumSize) {
+    return new NonceStore(new WuaNonceProperties(true, Duration.ofMinutes(5), maximumSize),
+        meterRegistry, now::get, new SplittableRandom(42));
+  }
+
+  @Test
+  void assertThatRedeem_givenIssuedNonce_shouldSucceedOnce() {
+    NonceStore store = store(1000);
+    String nonce = store.issue();
+
+    assertEquals(NonceStore.NONCE_LENGTH, nonce.length());
+    assertTrue(store.isLive(nonce));
+    assertTrue(store.redeem(nonce));
+    assertFalse(store.isLive(nonce));
+    assertFalse(store.redeem(nonce));
+    assertEquals(0, store.size());
+  }
+
+  @Test
+  void assertThatProperties_givenUnusableValues_shouldBeRejected() {
+    Duration ttl = Duration.ofMillis(500);
+
+    assertThrows(IllegalArgumentException.class, () -> new WuaNonceProperties(true, ttl, 1000));
+    assertThrows(IllegalArgumentException.class,
+        () -> new WuaNonceProperties(true, Duration.ofMinutes(5), 0));
+  }
+
+  @Test
+  void assertThatRedeem_givenNonceNotIssued_shouldFail() {
+    NonceStore store = store(1000);
+    store.issue();
+    String unknown = Base64.getUrlEncoder().withoutPadding().encodeToString(
+        ByteBuffer.allocate(12).putLong(4711).putInt((int) now.get() + 60).array());
+
+    assertFalse(store.isLive(unknown));
+    assertFalse(store.redeem(unknown));
+    assertFalse(store.redeem("test-nonce"));
+    assertFalse(store.redeem("!!!!!!!!!!!!!!!!"));
+    assertFalse(store.redeem(null));
+    assertEquals(1, store.size());
+  }
+
+  @Test
+  void assertThatRedeem_givenChangedExpiry_shouldFail() {
+    NonceStore store = store(1000);
+    byte[] nonce = Base64.getUrlDecoder().decode(store.issue());
+    nonce[11]--;
+
+    assertFalse(store.redeem(Base64.getUrlEncoder().withoutPadding().encodeToString(nonce)));
+  }
+
+  @Test
+  void assertThatRedeem_givenExpiredNonce_shouldFail() {
+    NonceStore store = store(1000);
+    String nonce = store.issue();
+
+    now.addAndGet(Duration.ofMinutes(5).toSeconds() + 1);
+
+    assertFalse(store.redeem(nonce));
+  }
+
+  @Test
+  void assertThatIssue_afterTimeToLive_shouldFreeExpiredNonces() {
+    NonceStore store = store(64_000);
+    for (int i = 0; i < 1000; i++) {
+      store.issue();
+      now.addAndGet(i % 100 == 0 ? 1 : 0);
+    }
+    assertEquals(1000, store.size());
+
+    now.addAndGet(Duration.ofMinutes(5).toSeconds() + 1);
+    // Each segment advances its wheel when it is next used
+    for (int i = 0; i < 10_000; i++) {
+      store.redeem(store.issue());
+    }
+
+    assertEquals(0, store.size());
+  }
+
+  @Test
+  void assertThatIssue_givenFullStore_shouldEvictNoncesClosestToExpiry() {
+    NonceStore store = store(64);
+    String first = store.issue();
+    now.incrementAndGet();
+    List<String> later = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      later.add(store.issue());
+    }
+
+    assertTrue(store.size() <= 64);
+    assertEquals(1000 + 1 - store.size(),
+        meterRegistry.get("wua.nonce.store.evictions").counter().count());
+    assertFalse(store.redeem(first));
+    assertTrue(store.redeem(later.getLast()));
+  }
+
+  @Test
+  void assertThatRedeem_inAnyOrder_shouldFindEveryNonce() {
+    NonceStore store = store(20_000);
+    List<String> nonces = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      nonces.add(store.issue());
+    }
+    Collections.shuffle(nonces, new Random(7));
+
+    for (String nonce : nonces) {
+      assertTrue(store.redeem(nonce), nonce);
+    }
+    assertEquals(0, store.size());
+    assertEquals(0.0, meterRegistry.get("wua.nonce.store.size").gauge().value());
+  }
+}
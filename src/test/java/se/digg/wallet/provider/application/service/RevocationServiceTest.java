@@ -0,0 +1,91 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import se.digg.wallet.provider.application.config.WuaRegistryProperties;
+import se.digg.wallet.provider.application.config.WuaStatusListProperties;
+
+class RevocationServiceTest {
+
+  private static final Instant NOW = Instant.parse("2026-10-17T12:00:00Z");
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final StatusListPublisher publisher = mock(StatusListPublisher.class);
+  @TempDir
+  private Path directory;
+  private final JdbcConnectionPool dataSource =
+      JdbcConnectionPool.create("jdbc:h2:mem:" + UUID.randomUUID(), "sa", "");
+  private StatusList statusList;
+  private AttestationRegistry attestationRegistry;
+  private RevocationService revocationService;
+
+  @BeforeEach
+  void setUp() {
+    statusList = new StatusList(new WuaStatusListProperties(1024, null,
+        directory.resolve("status.bitmap"), Duration.ofMinutes(1), Duration.ofHours(24)));
+    attestationRegistry = new AttestationRegistry(dataSource, new WuaRegistryProperties(true, 1024),
+        meterRegistry);
+    revocationService = new RevocationService(statusList, publisher, attestationRegistry,
+        meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    attestationRegistry.destroy();
+    statusList.destroy();
+    dataSource.dispose();
+  }
+
+  @Test
+  void assertThatRevoke_givenIndicesAndThumbprints_shouldInvalidateAllAndRequestRefresh()
+      throws Exception {
+    register("key-1", 100);
+    register("key-1", 101);
+    register("key-2", 102);
+    statusList.invalidate(new long[] {7});
+
+    RevocationResult result =
+        revocationService.revoke(new long[] {5, 7, 5}, List.of("key-1", "key-3"));
+
+    assertEquals(new RevocationResult(3, 2, 1), result);
+    assertEquals(1L << 5 | 1L << 7, statusList.word(0));
+    assertEquals(1L << 36 | 1L << 37, statusList.word(1));
+    assertEquals(3.0, meterRegistry.get("wua.status.revoked").counter().count());
+    verify(publisher).requestRefresh();
+  }
+
+  @Test
+  void assertThatRevoke_givenIndexOutOfRange_shouldRevokeNothing() {
+    assertThrows(IllegalArgumentException.class,
+        () -> revocationService.revoke(new long[] {5, 1024}, List.of()));
+
+    assertEquals(0, statusList.word(0));
+    verify(publisher, never()).requestRefresh();
+  }
+
+  private void register(String thumbprint, long statusIndex) {
+    attestationRegistry.register(new IssuedAttestation(UUID.randomUUID(), thumbprint, NOW,
+        NOW.plusSeconds(3600), statusIndex));
+  }
+}
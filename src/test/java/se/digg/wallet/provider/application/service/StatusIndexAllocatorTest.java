@@ -0,0 +1,189 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaStatusListProperties;
+
+class StatusIndexAllocatorTest {
+
+  private static final long DAY = 24 * 3600L;
+
+  private final AtomicLong now = new AtomicLong(1_800_000_000L);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final List<StatusIndexAllocator> opened = new ArrayList<>();
+  @TempDir
+  private Path directory;
+
+  private StatusList statusList;
+
+  private StatusIndexAllocator allocator(int size) {
+    WuaStatusListProperties properties = new WuaStatusListProperties(size,
+        directory.resolve("allocation.bitmap"), directory.resolve("status.bitmap"),
+        Duration.ofMinutes(1), Duration.ofHours(24));
+    if (statusList == null) {
+      statusList = new StatusList(properties);
+    }
+    StatusIndexAllocator allocator =
+        new StatusIndexAllocator(properties, statusList, meterRegistry, now::get);
+    opened.add(allocator);
+    return allocator;
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    for (StatusIndexAllocator allocator : opened) {
+      allocator.destroy();
+    }
+    if (statusList != null) {
+      statusList.destroy();
+    }
+  }
+
+  @Test
+  void assertThatAllocate_fromConcurrentThreads_shouldNeverRepeatAnIndex() throws Exception {
+    StatusIndexAllocator allocator = allocator(1 << 16);
+    Set<Long> indices = ConcurrentHashMap.newKeySet();
+    List<Thread> threads = new ArrayList<>();
+
+    for (int t = 0; t < 8; t++) {
+      threads.add(Thread.ofPlatform().start(() -> {
+        for (int i = 0; i < 1000; i++) {
+          long index = allocator.allocate(now.get() + DAY);
+          assertTrue(indices.add(index), () -> "repeated " + index);
+          assertTrue(index >= 0 && index < allocator.size());
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(8000, indices.size());
+  }
+
+  @Test
+  void assertThatAllocate_afterRestart_shouldNotRepeatIndicesOfValidAttestations()
+      throws Exception {
+    StatusIndexAllocator allocator = allocator(1024);
+    Set<Long> before = new HashSet<>();
+    for (int i = 0; i < 100; i++) {
+      before.add(allocator.allocate(now.get() + DAY));
+    }
+    allocator.destroy();
+    opened.clear();
+
+    StatusIndexAllocator restarted = allocator(1024);
+    for (int i = 0; i < 1024 - 2 * StatusIndexAllocator.CHUNK_SIZE; i++) {
+      long index = restarted.allocate(now.get() + DAY);
+      assertFalse(before.contains(index), () -> "repeated " + index);
+    }
+  }
+
+  @Test
+  void assertThatRelease_givenLastAllocatedIndex_shouldAllocateItAgain() {
+    StatusIndexAllocator allocator = allocator(128);
+    long first = allocator.allocate(now.get() + DAY);
+    long second = allocator.allocate(now.get() + DAY);
+
+    allocator.release(first);
+    assertEquals(second + 1, allocator.allocate(now.get() + DAY));
+    allocator.release(second + 1);
+    allocator.release(second);
+    allocator.release(first);
+
+    assertEquals(first, allocator.allocate(now.get() + DAY));
+    assertEquals(second, allocator.allocate(now.get() + DAY));
+  }
+
+  @Test
+  void assertThatAllocate_afterExpiry_shouldReuseIndices() {
+    StatusIndexAllocator allocator = allocator(128);
+    Set<Long> indices = new HashSet<>();
+    for (int i = 0; i < 128; i++) {
+      indices.add(allocator.allocate(now.get() + DAY));
+    }
+    assertEquals(128, indices.size());
+    assertThrows(WalletRuntimeException.class, () -> allocator.allocate(now.get() + DAY));
+
+    now.addAndGet(DAY + 1);
+
+    assertTrue(indices.contains(allocator.allocate(now.get() + DAY)));
+    assertEquals(1.0, meterRegistry.get("wua.status.index.reclaimed").counter().count());
+  }
+
+  @Test
+  void assertThatAllocate_afterExpiryOfRevokedIndex_shouldHoldChunkUntilPublished() {
+    StatusIndexAllocator allocator = allocator(StatusIndexAllocator.CHUNK_SIZE);
+    long revoked = allocator.allocate(now.get() + 60);
+    for (int i = 1; i < StatusIndexAllocator.CHUNK_SIZE; i++) {
+      allocator.allocate(now.get() + 60);
+    }
+    statusList.invalidate(new long[] {revoked});
+    now.addAndGet(120);
+
+    // The first reclaim marks the index valid and waits two refresh intervals
+    assertThrows(WalletRuntimeException.class, () -> allocator.allocate(now.get() + 60));
+    assertEquals(0, statusList.word(0));
+    now.addAndGet(119);
+    assertThrows(WalletRuntimeException.class, () -> allocator.allocate(now.get() + 60));
+    now.addAndGet(2);
+
+    assertEquals(0, allocator.allocate(now.get() + 60));
+  }
+
+  @Test
+  void assertThatAllocate_givenIndexRevokedBeforeAllocation_shouldHoldChunkUntilPublished() {
+    StatusIndexAllocator allocator = allocator(StatusIndexAllocator.CHUNK_SIZE);
+    statusList.invalidate(new long[] {5});
+
+    assertThrows(WalletRuntimeException.class, () -> allocator.allocate(now.get() + 60));
+    assertEquals(0, statusList.word(0));
+    now.addAndGet(121);
+
+    assertEquals(0, allocator.allocate(now.get() + 60));
+  }
+
+  @Test
+  void assertThatAllocate_afterChunkReclaimedFromIdleOwner_shouldNotUseItFurther()
+      throws Exception {
+    StatusIndexAllocator allocator = allocator(StatusIndexAllocator.CHUNK_SIZE);
+    assertEquals(0, allocator.allocate(now.get() + 60));
+    now.addAndGet(120);
+
+    // Another thread reclaims the only chunk, its attestations having expired
+    AtomicLong reclaimedIndex = new AtomicLong(-1);
+    Thread.ofPlatform().start(() -> reclaimedIndex.set(allocator.allocate(now.get() + 60)))
+        .join();
+
+    assertEquals(0, reclaimedIndex.get());
+    assertThrows(WalletRuntimeException.class, () -> allocator.allocate(now.get() + 60));
+  }
+
+  @Test
+  void assertThatConstructor_givenFileOfOtherSize_shouldFail() throws Exception {
+    allocator(1024).destroy();
+    opened.clear();
+
+    assertThrows(WalletRuntimeException.class, () -> allocator(2048));
+  }
+}
@@ -0,0 +1,146 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.InflaterInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaKeystoreProperties;
+import se.digg.wallet.provider.application.config.WuaStatusListProperties;
+
+class StatusListPublisherTest {
+
+  private static final String URI = "https://wallet-provider.example/status-list";
+  private static final Instant NOW = Instant.parse("2026-10-17T12:00:00Z");
+
+  @TempDir
+  private Path directory;
+  private WuaStatusListProperties properties;
+  private StatusList statusList;
+  private WuaSigningContextProvider signingContextProvider;
+
+  @BeforeEach
+  void setUp() {
+    properties = new WuaStatusListProperties(1024, null, directory.resolve("status.bitmap"),
+        Duration.ofMinutes(2), Duration.ofHours(12));
+    statusList = new StatusList(properties);
+    signingContextProvider = new WuaSigningContextProvider(new WuaKeystoreProperties(
+        new ClassPathResource("certificates/wallet-provider.p12"), "secret", "wallet-provider",
+        "PKCS12", null, 24, Duration.ofSeconds(30), null, null));
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    statusList.destroy();
+  }
+
+  private StatusListPublisher publisher(String uri) {
+    return new StatusListPublisher(statusList, properties, signingContextProvider,
+        new InProcessSigningBackend(), uri, Clock.fixed(NOW, ZoneOffset.UTC), Runnable::run);
+  }
+
+  @Test
+  void assertThatCurrent_shouldReturnSignedTokenStatusList() throws Exception {
+    StatusListToken token = publisher(URI).current();
+
+    SignedJWT jwt = SignedJWT.parse(new String(token.jwt(), StandardCharsets.US_ASCII));
+    assertTrue(jwt.verify(new ECDSAVerifier(signingContextProvider.current().publicKey())));
+    assertEquals("statuslist+jwt", jwt.getHeader().getType().getType());
+    assertFalse(jwt.getHeader().getX509CertChain().isEmpty());
+    JWTClaimsSet claims = jwt.getJWTClaimsSet();
+    assertEquals(URI, claims.getSubject());
+    assertEquals(NOW, claims.getIssueTime().toInstant());
+    assertEquals(NOW.plus(Duration.ofHours(12)), claims.getExpirationTime().toInstant());
+    assertEquals(120L, claims.getLongClaim("ttl"));
+    Map<String, Object> list = claims.getJSONObjectClaim("status_list");
+    assertEquals(1L, ((Number) list.get("bits")).longValue());
+    assertEquals(1024 / Byte.SIZE, bits(list).length);
+    assertEquals(NOW, token.issuedAt());
+  }
+
+  @Test
+  void assertThatRefresh_givenNoChange_shouldKeepToken() {
+    StatusListPublisher publisher = publisher(URI);
+    StatusListToken token = publisher.current();
+
+    publisher.refresh();
+
+    assertSame(token, publisher.current());
+  }
+
+  @Test
+  void assertThatRefresh_afterInvalidate_shouldPublishNewStatus() throws Exception {
+    StatusListPublisher publisher = publisher(URI);
+    StatusListToken token = publisher.current();
+
+    statusList.invalidate(new long[] {10});
+    publisher.refresh();
+
+    StatusListToken refreshed = publisher.current();
+    assertNotEquals(token.etag(), refreshed.etag());
+    SignedJWT jwt = SignedJWT.parse(new String(refreshed.jwt(), StandardCharsets.US_ASCII));
+    byte[] bits = bits(jwt.getJWTClaimsSet().getJSONObjectClaim("status_list"));
+    assertEquals(1 << 2, bits[1]);
+  }
+
+  @Test
+  void assertThatRequestRefresh_shouldPublishOnceForAllRequests() {
+    List<Runnable> tasks = new ArrayList<>();
+    StatusListPublisher publisher = new StatusListPublisher(statusList, properties,
+        signingContextProvider, new InProcessSigningBackend(), URI,
+        Clock.fixed(NOW, ZoneOffset.UTC), tasks::add);
+    StatusListToken token = publisher.current();
+
+    statusList.invalidate(new long[] {10});
+    publisher.requestRefresh();
+    publisher.requestRefresh();
+    assertEquals(1, tasks.size());
+    tasks.getFirst().run();
+
+    assertNotEquals(token.etag(), publisher.current().etag());
+    publisher.requestRefresh();
+    assertEquals(2, tasks.size());
+  }
+
+  @Test
+  void assertThatCurrent_givenStatusWithoutStatusList_shouldFail() {
+    StatusListPublisher publisher = publisher(null);
+
+    assertFalse(publisher.isEnabled());
+    assertThrows(WalletRuntimeException.class, publisher::current);
+  }
+
+  private static byte[] bits(Map<String, Object> statusList) throws Exception {
+    byte[] lst = new Base64URL((String) statusList.get("lst")).decode();
+    try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(lst))) {
+      return in.readAllBytes();
+    }
+  }
+}
@@ -0,0 +1,174 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.Adler32;
+import java.util.zip.Inflater;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaStatusListProperties;
+
+class StatusListTest {
+
+  // Three segments, the last one short
+  private static final int SIZE = 2 * StatusList.SEGMENT_SIZE * Byte.SIZE + 4096;
+
+  private final List<StatusList> opened = new ArrayList<>();
+  @TempDir
+  private Path directory;
+
+  private StatusList statusList(int size) {
+    StatusList statusList = new StatusList(new WuaStatusListProperties(size, null,
+        directory.resolve("status.bitmap"), Duration.ofMinutes(1), Duration.ofHours(24)));
+    opened.add(statusList);
+    return statusList;
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    for (StatusList statusList : opened) {
+      statusList.destroy();
+    }
+  }
+
+  @Test
+  void assertThatCompress_givenNoInvalidIndex_shouldInflateToZeroBits() throws Exception {
+    StatusList statusList = statusList(SIZE);
+
+    assertArrayEquals(new byte[SIZE / Byte.SIZE], inflate(statusList.compress()));
+  }
+
+  @Test
+  void assertThatCompress_afterInvalidate_shouldSetBitOfEachIndexOnly() throws Exception {
+    StatusList statusList = statusList(SIZE);
+    byte[] expected = new byte[SIZE / Byte.SIZE];
+    statusList.compress();
+
+    long version = statusList.version();
+    for (int index : new int[] {0, 9, 524_287, 524_288, SIZE - 1}) {
+      statusList.invalidate(new long[] {index});
+      expected[index / 8] |= (byte) (1 << (index % 8));
+    }
+
+    assertNotEquals(version, statusList.version());
+    assertArrayEquals(expected, inflate(statusList.compress()));
+  }
+
+  @Test
+  void assertThatCompress_afterChangesBetweenCompressions_shouldMatchCurrentBits()
+      throws Exception {
+    StatusList statusList = statusList(SIZE);
+    byte[] expected = new byte[SIZE / Byte.SIZE];
+    SplittableRandom random = new SplittableRandom(7);
+
+    for (int round = 0; round < 5; round++) {
+      for (int i = 0; i < 1000; i++) {
+        int index = random.nextInt(round % 2 == 0 ? SIZE : 4096);
+        statusList.invalidate(new long[] {index});
+        expected[index / 8] |= (byte) (1 << (index % 8));
+      }
+      assertArrayEquals(expected, inflate(statusList.compress()));
+    }
+  }
+
+  @Test
+  void assertThatInvalidate_shouldCountNewlyInvalidIndicesOnly() throws Exception {
+    StatusList statusList = statusList(SIZE);
+    statusList.invalidate(new long[] {3});
+
+    long version = statusList.version();
+    assertEquals(2, statusList.invalidate(new long[] {70, 3, 5, 70}));
+
+    assertEquals(version + 1, statusList.version());
+    assertEquals((byte) (1 << 3 | 1 << 5), inflate(statusList.compress())[0]);
+  }
+
+  @Test
+  void assertThatInvalidate_givenIndexOutOfRange_shouldChangeNothing() throws Exception {
+    StatusList statusList = statusList(SIZE);
+    long version = statusList.version();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> statusList.invalidate(new long[] {1, SIZE}));
+
+    assertEquals(version, statusList.version());
+    assertArrayEquals(new byte[SIZE / Byte.SIZE], inflate(statusList.compress()));
+  }
+
+  @Test
+  void assertThatCompress_afterRestart_shouldKeepInvalidIndices() throws Exception {
+    StatusList statusList = statusList(SIZE);
+    statusList.invalidate(new long[] {4711});
+    statusList.destroy();
+    opened.clear();
+
+    byte[] bits = inflate(statusList(SIZE).compress());
+
+    assertEquals((byte) (1 << (4711 % 8)), bits[4711 / 8]);
+  }
+
+  @Test
+  void assertThatConstructor_givenFileOfOtherSize_shouldFail() throws Exception {
+    statusList(SIZE).destroy();
+    opened.clear();
+
+    assertThrows(WalletRuntimeException.class, () -> statusList(2 * SIZE));
+  }
+
+  @Test
+  void assertThatAdler32Combine_shouldEqualChecksumOfConcatenation() {
+    byte[] first = new byte[100_000];
+    byte[] second = new byte[70_000];
+    new SplittableRandom(3).nextBytes(first);
+    new SplittableRandom(5).nextBytes(second);
+
+    Adler32 whole = new Adler32();
+    whole.update(first);
+    whole.update(second);
+
+    assertEquals(whole.getValue(),
+        StatusList.adler32Combine(adler32(first), adler32(second), second.length));
+  }
+
+  private static long adler32(byte[] bytes) {
+    Adler32 adler = new Adler32();
+    adler.update(bytes);
+    return adler.getValue();
+  }
+
+  /** Inflates a ZLIB stream, which fails unless the stream ends with its checksum. */
+  private static byte[] inflate(byte[] zlib) throws Exception {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(zlib);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] chunk = new byte[8192];
+      while (!inflater.finished()) {
+        int inflated = inflater.inflate(chunk);
+        if (inflated == 0 && inflater.needsInput()) {
+          throw new AssertionError("Truncated ZLIB stream");
+        }
+        out.write(chunk, 0, inflated);
+      }
+      assertEquals(0, inflater.getRemaining());
+      return out.toByteArray();
+    } finally {
+      inflater.end();
+    }
+  }
+}
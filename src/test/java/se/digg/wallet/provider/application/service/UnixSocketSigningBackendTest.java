@@ -0,0 +1,120 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.util.Base64URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import se.digg.wallet.provider.application.config.WuaKeystoreProperties;
+import se.digg.wallet.provider.application.config.WuaSigningProperties;
+import se.digg.wallet.provider.application.config.WuaSigningProperties.Backend;
+
+class UnixSocketSigningBackendTest {
+
+  @TempDir
+  private Path tempDir;
+  private WuaSigningContext context;
+  private LocalSignerDaemon daemon;
+  private UnixSocketSigningBackend backend;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    context = WuaSigningContext.load(new WuaKeystoreProperties(
+        new ClassPathResource("certificates/wallet-provider.p12"), "secret", "wallet-provider",
+        "PKCS12", null, 24, Duration.ofSeconds(30), null, null));
+    Path socketPath = tempDir.resolve("signer.sock");
+    daemon = LocalSignerDaemon.start(socketPath, Map.of(context.alias(), context.signingKey()));
+    backend = new UnixSocketSigningBackend(
+        new WuaSigningProperties(1, 16, Backend.UNIX_SOCKET, socketPath, 2, Duration.ofSeconds(5)));
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    backend.destroy();
+    daemon.close();
+  }
+
+  @Test
+  void assertThatSign_givenKnownAlias_shouldReturnVerifiableSignature() throws Exception {
+    byte[] signingInput = context.signingInput("eyJpYXQiOjE3NjAwMDAwMDB9");
+
+    Base64URL signature = backend.sign(context, signingInput);
+
+    assertTrue(new ECDSAVerifier(context.publicKey())
+        .verify(context.header(), signingInput, signature));
+  }
+
+  @Test
+  void assertThatSign_givenConcurrentRequests_shouldPipelineOverConnections() throws Exception {
+    ECDSAVerifier verifier = new ECDSAVerifier(context.publicKey());
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<CompletableFuture<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        byte[] signingInput = ("header.claims-" + i).getBytes(StandardCharsets.US_ASCII);
+        results.add(CompletableFuture.supplyAsync(() -> {
+          try {
+            return verifier.verify(context.header(), signingInput,
+                backend.sign(context, signingInput));
+          } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+          }
+        }, executor));
+      }
+      for (CompletableFuture<Boolean> result : results) {
+        assertTrue(result.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void assertThatSign_givenUnknownAlias_shouldThrow() {
+    WuaSigningContext unknown = new WuaSigningContext(null, context.publicKey(),
+        context.certificateChain(), context.x5c(), context.header(), null, "unknown");
+
+    assertThrows(JOSEException.class, () -> backend.sign(unknown, new byte[] {1}));
+  }
+
+  @Test
+  void assertThatSign_givenSignatureOfWrongLength_shouldThrow() {
+    daemon.truncateSignatures();
+
+    assertThrows(JOSEException.class,
+        () -> backend.sign(context, context.signingInput("eyJpYXQiOjE3NjAwMDAwMDB9")));
+  }
+
+  @Test
+  void assertThatSign_givenRestartedSigner_shouldReconnect() throws Exception {
+    byte[] signingInput = context.signingInput("eyJpYXQiOjE3NjAwMDAwMDB9");
+    backend.sign(context, signingInput);
+
+    daemon.close();
+    assertThrows(JOSEException.class, () -> backend.sign(context, signingInput));
+    daemon = LocalSignerDaemon.start(daemon.socketPath(),
+        Map.of(context.alias(), context.signingKey()));
+
+    assertTrue(new ECDSAVerifier(context.publicKey())
+        .verify(context.header(), signingInput, backend.sign(context, signingInput)));
+  }
+}
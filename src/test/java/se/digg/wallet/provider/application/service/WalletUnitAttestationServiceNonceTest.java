@@ -0,0 +1,107 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "wua.nonce.enforced=true")
+class WalletUnitAttestationServiceNonceTest {
+
+  @Autowired
+  private WalletUnitAttestationService service;
+  @Autowired
+  private NonceStore nonceStore;
+
+  @Test
+  void assertThatCreateWalletUnitAttestation_givenIssuedNonce_shouldAcceptItOnce()
+      throws Exception {
+    String jwk = createJwk();
+    String nonce = nonceStore.issue();
+
+    SignedAttestation attestation = service.createWalletUnitAttestation(jwk, nonce);
+
+    assertEquals(nonce,
+        attestation.toSignedJwt().getJWTClaimsSet().getStringClaim("nonce"));
+    assertThrows(InvalidNonceException.class,
+        () -> service.createWalletUnitAttestation(jwk, nonce));
+  }
+
+  @Test
+  void assertThatCreateWalletUnitAttestation_givenNonceNotIssued_shouldFail() throws Exception {
+    String jwk = createJwk();
+
+    assertThrows(InvalidNonceException.class,
+        () -> service.createWalletUnitAttestation(jwk, "test-nonce"));
+  }
+
+  @Test
+  void assertThatCreateWalletUnitAttestation_givenNoNonce_shouldFail() throws Exception {
+    String jwk = createJwk();
+
+    assertThrows(InvalidNonceException.class,
+        () -> service.createWalletUnitAttestation(jwk, null));
+  }
+
+  @Test
+  void assertThatCreateWalletUnitAttestation_givenInvalidJwk_shouldKeepNonce() {
+    String nonce = nonceStore.issue();
+
+    assertThrows(RuntimeException.class,
+        () -> service.createWalletUnitAttestation("{\"kty\":\"EC\"}", nonce));
+
+    assertTrue(nonceStore.isLive(nonce));
+  }
+
+  @Test
+  void assertThatCreateWalletUnitAttestation_givenRetry_shouldReturnAttestationOfFirstAttempt()
+      throws Exception {
+    String jwk = createJwk();
+    String nonce = nonceStore.issue();
+
+    SignedAttestation first = service.createWalletUnitAttestation(jwk, nonce, "retry-key");
+    SignedAttestation retried = service.createWalletUnitAttestation(jwk, nonce, "retry-key");
+
+    assertEquals(first.serialize(), retried.serialize());
+  }
+
+  @Test
+  void assertThatCreateWalletUnitAttestations_givenReusedNonce_shouldFailThatItem()
+      throws Exception {
+    String jwk = createJwk();
+    String nonce = nonceStore.issue();
+
+    List<AttestationResult> results = service.createWalletUnitAttestations(List.of(
+        new AttestationRequest(jwk, nonce),
+        new AttestationRequest(jwk, nonceStore.issue())));
+    List<AttestationResult> reused = service.createWalletUnitAttestations(List.of(
+        new AttestationRequest(jwk, nonce)));
+
+    assertTrue(results.get(0).isSuccess());
+    assertTrue(results.get(1).isSuccess());
+    assertFalse(reused.getFirst().isSuccess());
+    assertInstanceOf(InvalidNonceException.class, reused.getFirst().failure());
+  }
+
+  private static String createJwk() throws Exception {
+    KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+    generator.initialize(Curve.P_256.toECParameterSpec());
+    return new ECKey.Builder(Curve.P_256, (ECPublicKey) generator.generateKeyPair().getPublic())
+        .build()
+        .toString();
+  }
+}
@@ -6,7 +6,9 @@ package se.digg.wallet.provider.application.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.nimbusds.jose.JOSEException;
@@ -14,16 +16,23 @@ import com.nimbusds.jose.crypto.ECDSAVerifier;
 import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jwt.SignedJWT;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.interfaces.ECPublicKey;
 import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import se.digg.wallet.provider.application.config.WuaKeystoreProperties;
+import se.digg.wallet.provider.application.service.WuaIssuanceMetrics.Phase;
 
 @SpringBootTest
 class WalletUnitAttestationServiceTest {
@@ -32,6 +41,10 @@ class WalletUnitAttestationServiceTest {
   private WalletUnitAttestationService service;
   @Autowired
   private WuaKeystoreProperties keystoreProperties;
+  @Autowired
+  private WuaIssuanceMetrics issuanceMetrics;
+  @Autowired
+  private AttestationRegistry attestationRegistry;
 
   @SuppressWarnings("unchecked")
   private static void verifyStatusClaim(SignedJWT jwt) throws ParseException {
@@ -39,11 +52,18 @@ class WalletUnitAttestationServiceTest {
         jwt.getJWTClaimsSet().getJSONObjectClaim("key_storage_status");
     Map<String, Object> status = (Map<String, Object>) keyStorageStatus.get("status");
     Map<String, Object> statusList = (Map<String, Object>) status.get("status_list");
-    assertEquals(412, statusList.get("idx"));
+    assertTrue(statusIndex(jwt) >= 0);
     assertEquals("https://revocation_url/statuslists/1", statusList.get("uri"));
     assertNotNull(keyStorageStatus.get("exp"));
   }
 
+  @SuppressWarnings("unchecked")
+  private static long statusIndex(SignedJWT jwt) throws ParseException {
+    Map<String, Object> status = (Map<String, Object>) jwt.getJWTClaimsSet()
+        .getJSONObjectClaim("key_storage_status").get("status");
+    return (Long) ((Map<String, Object>) status.get("status_list")).get("idx");
+  }
+
   @SuppressWarnings("unchecked")
   private static void verifyAttestedKeysClaim(SignedJWT jwt, ECKey jwk) throws ParseException {
     assertNotNull(jwt.getJWTClaimsSet().getClaim("attested_keys"));
@@ -60,7 +80,7 @@ class WalletUnitAttestationServiceTest {
   void assertThatCreateWalletUnitAttestation_givenValidJwk_shouldSucceed() throws Exception {
     ECKey jwk = createJWK();
 
-    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), "nonce");
+    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), "nonce").toSignedJwt();
 
     assertNotNull(jwt);
     assertEquals("http://example.com/cert", jwt.getJWTClaimsSet().getStringClaim("certification"));
@@ -74,7 +94,7 @@ class WalletUnitAttestationServiceTest {
   void assertThatCreateWalletUnitAttestation_hasX5CHeader() throws Exception {
     ECKey jwk = createJWK();
 
-    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), "nonce");
+    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), "nonce").toSignedJwt();
 
     assertNotNull(jwt.getHeader().getX509CertChain());
     assertFalse(jwt.getHeader().getX509CertChain().isEmpty());
@@ -84,7 +104,7 @@ class WalletUnitAttestationServiceTest {
   void assertThatCreateWalletUnitAttestation_containsNonceButNotKid() throws Exception {
     ECKey jwk = createJWK();
 
-    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), "nonce");
+    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), "nonce").toSignedJwt();
 
     assertEquals("key-attestation+jwt", jwt.getHeader().getType().getType());
 
@@ -97,9 +117,9 @@ class WalletUnitAttestationServiceTest {
   void assertThatCreateWalletUnitAttestation_handlesEmptyNonce() throws Exception {
     ECKey jwk = createJWK();
 
-    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), "");
+    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), "").toSignedJwt();
 
-    assertEquals(8, jwt.getJWTClaimsSet().toJSONObject().size());
+    assertEquals(9, jwt.getJWTClaimsSet().toJSONObject().size());
     assertTrue(jwt.getJWTClaimsSet().toJSONObject().containsKey("nonce"));
     assertEquals("", jwt.getJWTClaimsSet().toJSONObject().get("nonce"));
   }
@@ -109,7 +129,7 @@ class WalletUnitAttestationServiceTest {
       throws Exception {
     ECKey jwk = createJWK();
 
-    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), "nonce");
+    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), "nonce").toSignedJwt();
 
     assertEquals(List.of("iso_18045_high"),
         jwt.getJWTClaimsSet().getStringListClaim("key_storage"));
@@ -117,16 +137,106 @@ class WalletUnitAttestationServiceTest {
         List.of("iso_18045_high"), jwt.getJWTClaimsSet().getStringListClaim("user_authentication"));
   }
 
+  @Test
+  void assertThatCreateWalletUnitAttestation_reusesEncodedHeader() throws Exception {
+    SignedAttestation first = service.createWalletUnitAttestation(createJWK().toString(), "a");
+    SignedAttestation second = service.createWalletUnitAttestation(createJWK().toString(), "b");
+
+    assertSame(first.header(), second.header());
+    assertNotEquals(first.claims(), second.claims());
+  }
+
+  @Test
+  void assertThatCreateWalletUnitAttestations_shouldAllocateStatusIndexPerAttestation()
+      throws Exception {
+    String jwk = createJWK().toString();
+    List<AttestationRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      requests.add(new AttestationRequest(jwk, "nonce-" + i));
+    }
+
+    Set<Long> indices = new HashSet<>();
+    for (AttestationResult result : service.createWalletUnitAttestations(requests)) {
+      indices.add(statusIndex(result.attestation().toSignedJwt()));
+    }
+
+    assertEquals(200, indices.size());
+  }
+
+  @Test
+  void assertThatCreateWalletUnitAttestation_shouldRegisterAttestationByJti() throws Exception {
+    ECKey jwk = createJWK();
+
+    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), "nonce").toSignedJwt();
+
+    UUID jti = UUID.fromString(jwt.getJWTClaimsSet().getJWTID());
+    Optional<IssuedAttestation> registered = attestationRegistry.find(jti);
+    // Registered by the writer thread, shortly after issuance
+    for (long deadline = System.nanoTime() + 5_000_000_000L; registered.isEmpty()
+        && System.nanoTime() < deadline; registered = attestationRegistry.find(jti)) {
+      Thread.sleep(5);
+    }
+    IssuedAttestation attestation = registered.orElseThrow();
+    assertEquals(jwk.computeThumbprint().toString(), attestation.keyThumbprint());
+    assertEquals(jwt.getJWTClaimsSet().getIssueTime().toInstant(), attestation.issuedAt());
+    assertEquals(jwt.getJWTClaimsSet().getExpirationTime().toInstant(), attestation.expiresAt());
+    assertEquals(statusIndex(jwt), attestation.statusIndex());
+  }
+
+  @Test
+  void assertThatWriteTo_givenAttestation_shouldMatchSerialize() throws Exception {
+    SignedAttestation attestation =
+        service.createWalletUnitAttestation(createJWK().toString(), "nonce");
+    byte[] buffer = new byte[attestation.length() + 16];
+
+    int length = attestation.writeTo(buffer);
+
+    assertEquals(attestation.length(), length);
+    assertEquals(attestation.serialize(),
+        new String(buffer, 0, length, StandardCharsets.US_ASCII));
+  }
+
   @Test
   void assertThatCreateWalletUnitAttestation_handlesNullNonce() throws Exception {
     ECKey jwk = createJWK();
 
-    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), null);
+    SignedJWT jwt = service.createWalletUnitAttestation(jwk.toString(), null).toSignedJwt();
 
-    assertEquals(7, jwt.getJWTClaimsSet().toJSONObject().size());
+    assertEquals(8, jwt.getJWTClaimsSet().toJSONObject().size());
     assertFalse(jwt.getJWTClaimsSet().toJSONObject().containsKey("nonce"));
   }
 
+  @Test
+  void assertThatCreateWalletUnitAttestations_givenMixedItems_shouldReturnResultsInOrder()
+      throws Exception {
+    ECKey jwk = createJWK();
+
+    List<AttestationResult> results = service.createWalletUnitAttestations(List.of(
+        new AttestationRequest(jwk.toString(), "first"),
+        new AttestationRequest("not a jwk", "second"),
+        new AttestationRequest(jwk.toString(), null)));
+
+    assertEquals(3, results.size());
+    SignedJWT first = results.get(0).attestation().toSignedJwt();
+    assertEquals("first", first.getJWTClaimsSet().getStringClaim("nonce"));
+    verifyJwtSignature(first, keystoreProperties.getPublicKey());
+    assertFalse(results.get(1).isSuccess());
+    assertNotNull(results.get(1).failure());
+    assertFalse(results.get(2).attestation().toSignedJwt().getJWTClaimsSet().toJSONObject()
+        .containsKey("nonce"));
+  }
+
+  @Test
+  void assertThatCreateWalletUnitAttestation_shouldRecordPhaseTimers() throws Exception {
+    long before = issuanceMetrics.timer(Phase.SIGN).count();
+
+    service.createWalletUnitAttestation(createJWK().toString(), "nonce");
+
+    assertEquals(before + 1, issuanceMetrics.timer(Phase.SIGN).count());
+    assertTrue(issuanceMetrics.timer(Phase.JWK_PARSE).count() > 0);
+    assertTrue(issuanceMetrics.timer(Phase.CLAIMS_BUILD).count() > 0);
+  }
+
   private void verifyJwtSignature(SignedJWT jwt, ECPublicKey publicKey) throws JOSEException {
     assertTrue(jwt.verify(new ECDSAVerifier(publicKey)));
   }
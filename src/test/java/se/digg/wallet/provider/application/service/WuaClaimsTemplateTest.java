@@ -0,0 +1,123 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jwt.JWTClaimsSet;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+
+class WuaClaimsTemplateTest {
+
+  private static final String STATUS =
+      "{\"status_list\": {\"idx\": 412,\"uri\": \"https://revocation_url/statuslists/1\"}}";
+
+  private static final String JTI = "019a2f4c-8e1b-7c3d-9a4b-5f6e7d8c9b0a";
+
+  private static Map<String, Object> status;
+  private static ECKey attestedKey;
+
+  @BeforeAll
+  static void setUp() throws Exception {
+    status = new ObjectMapper().readValue(STATUS, new TypeReference<>() {});
+    KeyPairGenerator gen = KeyPairGenerator.getInstance("EC");
+    gen.initialize(Curve.P_256.toECParameterSpec());
+    attestedKey = new ECKey.Builder(Curve.P_256, (ECPublicKey) gen.generateKeyPair().getPublic())
+        .keyID("key-1")
+        .build();
+  }
+
+  static Stream<String> nonces() {
+    return Stream.of(
+        null,
+        "",
+        "1234567890",
+        "quote\"and\\backslash",
+        "control\u0000\u0001\u001f\t\b\n\r\fchars",
+        "html <script>&'=</script>",
+        "unicode åäö € 𝄞",
+        "separators \u2028 \u2029 and\u007f",
+        "mixed é then \"quote\" and \n");
+  }
+
+  @ParameterizedTest
+  @MethodSource("nonces")
+  void assertThatEncode_givenNonce_shouldMatchNimbusSerialization(String nonce) {
+    Instant now = Instant.ofEpochSecond(1_760_000_000L);
+    long issuedAt = now.getEpochSecond();
+    long expiresAt = issuedAt + 24 * 3600L;
+    long keyStorageExpiresAt = issuedAt + 365 * 24 * 3600L;
+
+    String expected = nimbusClaims(now, expiresAt, keyStorageExpiresAt, 4711, nonce);
+    String actual = new WuaClaimsTemplate(status).encode(issuedAt, expiresAt, JTI,
+        keyStorageExpiresAt, 4711, JSONObjectUtils.toJSONString(attestedKey.toJSONObject()),
+        nonce).toString();
+
+    assertEquals(expected, actual);
+  }
+
+  @Test
+  void assertThatEncode_givenStatusWithoutStatusList_shouldMatchNimbusSerialization() {
+    Map<String, Object> otherStatus = Map.of("other", "value");
+    WuaClaimsTemplate template = new WuaClaimsTemplate(otherStatus);
+    Instant now = Instant.ofEpochSecond(1_760_000_000L);
+    long issuedAt = now.getEpochSecond();
+
+    String actual = template.encode(issuedAt, issuedAt + 60, JTI, issuedAt + 120, 4711,
+        JSONObjectUtils.toJSONString(attestedKey.toJSONObject()), "nonce").toString();
+
+    assertFalse(template.hasStatusIndex());
+    assertEquals(nimbusClaims(now, issuedAt + 60, issuedAt + 120, otherStatus, "nonce"), actual);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static String nimbusClaims(Instant now, long expiresAt, long keyStorageExpiresAt,
+      long statusIndex, String nonce) {
+    Map<String, Object> statusList =
+        new LinkedHashMap<>((Map<String, Object>) status.get("status_list"));
+    statusList.put("idx", statusIndex);
+    return nimbusClaims(now, expiresAt, keyStorageExpiresAt, Map.of("status_list", statusList),
+        nonce);
+  }
+
+  private static String nimbusClaims(Instant now, long expiresAt, long keyStorageExpiresAt,
+      Map<String, Object> status, String nonce) {
+    Map<String, Object> keyStorageStatus = new LinkedHashMap<>();
+    keyStorageStatus.put("status", status);
+    keyStorageStatus.put("exp", keyStorageExpiresAt);
+
+    return new JWTClaimsSet.Builder()
+        .issueTime(Date.from(now))
+        .expirationTime(new Date(expiresAt * 1000))
+        .jwtID(JTI)
+        .claim("certification", "http://example.com/cert")
+        .claim("key_storage_status", keyStorageStatus)
+        .claim("attested_keys", List.of(attestedKey.toJSONObject()))
+        .claim("nonce", nonce)
+        .claim("key_storage", List.of("iso_18045_high"))
+        .claim("user_authentication", List.of("iso_18045_high"))
+        .build()
+        .toPayload()
+        .toBase64URL()
+        .toString();
+  }
+}
@@ -0,0 +1,115 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import se.digg.wallet.provider.application.config.WuaKeystoreProperties;
+import se.digg.wallet.provider.application.config.WuaKeystoreProperties.SigningKey;
+
+class WuaSigningContextProviderTest {
+
+  @TempDir
+  private Path tempDir;
+  private Path keystore;
+  private WuaSigningContextProvider provider;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    keystore = tempDir.resolve("wallet-provider.p12");
+    try (InputStream in =
+        new ClassPathResource("certificates/wallet-provider.p12").getInputStream()) {
+      Files.copy(in, keystore, StandardCopyOption.REPLACE_EXISTING);
+    }
+    provider = new WuaSigningContextProvider(new WuaKeystoreProperties(
+        new FileSystemResource(keystore), "secret", "wallet-provider", "PKCS12", null, 24,
+        Duration.ofSeconds(30), null, null));
+  }
+
+  @Test
+  void assertThatCurrent_givenValidKeyStore_shouldContainKeyMaterial() {
+    WuaSigningContext context = provider.current();
+
+    assertEquals("EC", context.signingKey().getAlgorithm());
+    assertEquals("EC", context.publicKey().getAlgorithm());
+    assertFalse(context.certificateChain().isEmpty());
+    assertEquals(context.certificateChain().size(), context.x5c().size());
+  }
+
+  @Test
+  void assertThatReloadIfChanged_givenUnchangedKeyStore_shouldKeepSnapshot() {
+    WuaSigningContext before = provider.current();
+
+    provider.reloadIfChanged();
+
+    assertSame(before, provider.current());
+  }
+
+  @Test
+  void assertThatReloadIfChanged_givenModifiedKeyStore_shouldSwapSnapshot() throws IOException {
+    WuaSigningContext before = provider.current();
+    touch();
+
+    provider.reloadIfChanged();
+
+    assertNotSame(before, provider.current());
+    assertEquals(before.publicKey(), provider.current().publicKey());
+  }
+
+  @Test
+  void assertThatReloadIfChanged_givenBrokenKeyStore_shouldKeepSnapshot() throws IOException {
+    WuaSigningContext before = provider.current();
+    Files.writeString(keystore, "not a keystore");
+    touch();
+
+    provider.reloadIfChanged();
+
+    assertSame(before, provider.current());
+  }
+
+  @Test
+  void assertThatCurrent_givenRotationSchedule_shouldSwitchKeyAtActivation() {
+    Instant rotation = Instant.parse("2026-06-01T00:00:00Z");
+    List<SigningKey> keys = List.of(
+        new SigningKey(null, null, null, "wallet-provider", null, rotation),
+        new SigningKey(null, null, null, "wallet-provider", rotation.minusSeconds(60), null));
+    WuaKeystoreProperties properties = new WuaKeystoreProperties(
+        new FileSystemResource(keystore), "secret", null, "PKCS12", null, 24,
+        Duration.ofSeconds(30), null, keys);
+
+    WuaSigningContextProvider before = new WuaSigningContextProvider(properties,
+        Clock.fixed(rotation.minusSeconds(120), ZoneOffset.UTC));
+    WuaSigningContextProvider after = new WuaSigningContextProvider(properties,
+        Clock.fixed(rotation, ZoneOffset.UTC));
+
+    assertEquals(2, before.all().size());
+    assertSame(before.all().get(0), before.current());
+    assertSame(after.all().get(1), after.current());
+  }
+
+  private void touch() throws IOException {
+    FileTime modified = Files.getLastModifiedTime(keystore);
+    Files.setLastModifiedTime(keystore, FileTime.fromMillis(modified.toMillis() + 1000));
+  }
+}
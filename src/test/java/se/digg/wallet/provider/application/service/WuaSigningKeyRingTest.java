@@ -0,0 +1,77 @@
+// SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+//
+// SPDX-License-Identifier: EUPL-1.2
+
+package se.digg.wallet.provider.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import se.digg.wallet.provider.application.config.WalletRuntimeException;
+import se.digg.wallet.provider.application.config.WuaKeystoreProperties;
+import se.digg.wallet.provider.application.service.WuaSigningKeyRing.ScheduledKey;
+
+class WuaSigningKeyRingTest {
+
+  private static final Instant T0 = Instant.parse("2026-06-01T00:00:00Z");
+
+  private static WuaSigningContext first;
+  private static WuaSigningContext second;
+
+  @BeforeAll
+  static void setUp() {
+    WuaKeystoreProperties properties = new WuaKeystoreProperties(
+        new ClassPathResource("certificates/wallet-provider.p12"), "secret", "wallet-provider",
+        "PKCS12", null, 24, Duration.ofSeconds(30), null, null);
+    first = WuaSigningContext.load(properties);
+    second = WuaSigningContext.load(properties);
+  }
+
+  @Test
+  void assertThatSelect_givenWindows_shouldFollowActivationAndRetirement() {
+    WuaSigningKeyRing ring = new WuaSigningKeyRing(List.of(
+        new ScheduledKey(first, null, T0.plusSeconds(10)),
+        new ScheduledKey(second, T0.plusSeconds(10), null)));
+
+    assertSame(first, ring.select(T0.toEpochMilli()));
+    assertSame(second, ring.select(T0.plusSeconds(10).toEpochMilli()));
+    // The clock going backwards recomputes the active keys as well
+    assertSame(first, ring.select(T0.plusSeconds(9).toEpochMilli()));
+  }
+
+  @Test
+  void assertThatSelect_givenNoActiveKey_shouldThrow() {
+    WuaSigningKeyRing ring = new WuaSigningKeyRing(List.of(
+        new ScheduledKey(first, T0.plusSeconds(10), T0.plusSeconds(20))));
+
+    assertThrows(WalletRuntimeException.class, () -> ring.select(T0.toEpochMilli()));
+    assertSame(first, ring.select(T0.plusSeconds(15).toEpochMilli()));
+    assertThrows(WalletRuntimeException.class,
+        () -> ring.select(T0.plusSeconds(20).toEpochMilli()));
+  }
+
+  @Test
+  void assertThatSelect_givenOverlappingKeys_shouldSpreadSignaturesOverKeys() {
+    WuaSigningKeyRing ring = new WuaSigningKeyRing(List.of(
+        new ScheduledKey(first, null, null),
+        new ScheduledKey(second, null, null)));
+    long now = T0.toEpochMilli();
+    Set<WuaSigningContext> selected = new HashSet<>();
+
+    // Also from a single thread, as with one signing thread
+    for (int i = 0; i < 100; i++) {
+      selected.add(ring.select(now));
+    }
+
+    assertEquals(Set.of(first, second), selected);
+  }
+}
@@ -0,0 +1,96 @@
+#!/usr/bin/env bash
+
+# SPDX-FileCopyrightText: 2026 Digg - Agency for Digital Government
+#
+# SPDX-License-Identifier: EUPL-1.2
+
+# Compares the startup of the runtime image with the runtime-aot image: time from starting the
+# container until the readiness probe answers, and latency of the first attestation request, with
+# the nonce fetched for it.
+#
+# Usage: ./startup-benchmark.sh [runs]
+# Set BASELINE_IMAGE and AOT_IMAGE to compare images already built instead of building them.
+
+set -euo pipefail
+shopt -s inherit_errexit
+
+# Preferences
+runs="${1:-5}"
+engine="${CONTAINER_ENGINE:-podman}"
+scriptDir=$(dirname "$(readlink -f "$0")")
+keystore="$scriptDir/src/test/resources/certificates/wallet-provider.p12"
+targetFolder="$scriptDir/target/startup-benchmark"
+jwk='{\"kty\":\"EC\",\"crv\":\"P-256\",\"x\":\"18wHLeIgW9wVN6VD1Txgpqy2LszYkMf6J8njVAibvhM\",\"y\":\"-V4dS4UaLMgP_4fY4j8ir7cl1TXlFdAgcx55o7TkcSA\"}'
+
+for tool in "$engine" curl; do
+  if ! [ -x "$(command -v "$tool")" ]; then
+    echo "Error: $tool is not installed." >&2
+    exit 1
+  fi
+done
+
+function now_millis {
+  echo $(($(date +%s%N) / 1000000))
+}
+
+# Prints the median, min and max of the arguments
+function summary {
+  sort -n <<<"$(printf '%s\n' "$@")" | awk '{ v[NR] = $1 }
+    END { printf "median %6d ms  min %6d ms  max %6d ms", v[int((NR + 1) / 2)], v[1], v[NR] }'
+}
+
+# Starts the image with the development keystore and prints time to ready and to the first response
+function run_once {
+  local image="$1" container port started ready nonce answered
+  started=$(now_millis)
+  container=$("$engine" run -d --rm -p 127.0.0.1::8080 \
+    -v "$keystore":/app/src/test/resources/certificates/wallet-provider.p12:ro,Z \
+    -e SPRING_PROFILES_ACTIVE=dev "$image")
+  port=$("$engine" port "$container" 8080 | head -1 | sed 's/.*://')
+  until curl -sf -o /dev/null "http://127.0.0.1:$port/actuator/health/readiness"; do
+    if ! "$engine" inspect "$container" >/dev/null 2>&1; then
+      echo "Error: $image exited before it was ready." >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  ready=$(now_millis)
+  nonce=$(curl -sf "http://127.0.0.1:$port/nonce" | sed 's/.*"nonce" *: *"\([^"]*\)".*/\1/')
+  curl -sf -o /dev/null -H "Content-Type: application/json" \
+    -d "{\"jwk\":\"$jwk\",\"nonce\":\"$nonce\"}" \
+    "http://127.0.0.1:$port/wallet-unit-attestation"
+  answered=$(now_millis)
+  "$engine" logs "$container" >"$targetFolder/$(basename "$image" | tr ':' '-').log" 2>&1
+  "$engine" stop -t 10 "$container" >/dev/null
+  echo "$((ready - started)) $((answered - ready))"
+}
+
+function benchmark {
+  local name="$1" image="$2" ready=() first=() output result
+  for ((i = 1; i <= runs; i++)); do
+    output=$(run_once "$image")
+    read -r -a result <<<"$output"
+    ready+=("${result[0]}")
+    first+=("${result[1]}")
+  done
+  printf "%-9s time to ready   %s\n" "$name" "$(summary "${ready[@]}")"
+  printf "%-9s first request  %s\n" "$name" "$(summary "${first[@]}")"
+}
+
+mkdir -p "$targetFolder"
+
+baselineImage="${BASELINE_IMAGE:-}"
+aotImage="${AOT_IMAGE:-}"
+if [ -z "$baselineImage" ]; then
+  baselineImage="localhost/wallet-provider:startup-baseline"
+  "$engine" build --target runtime -t "$baselineImage" -f "$scriptDir/Containerfile" "$scriptDir"
+fi
+if [ -z "$aotImage" ]; then
+  aotImage="localhost/wallet-provider:startup-aot"
+  "$engine" build --target runtime-aot -t "$aotImage" -f "$scriptDir/Containerfile" "$scriptDir"
+fi
+
+echo ""
+echo "Startup over $runs runs, logs of the last run in $targetFolder"
+benchmark baseline "$baselineImage"
+benchmark aot "$aotImage"